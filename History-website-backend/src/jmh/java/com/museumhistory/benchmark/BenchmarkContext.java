@@ -0,0 +1,66 @@
+package com.museumhistory.benchmark;
+
+import com.museumhistory.HistoryWebsiteBackendApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Boots the backend against a private in-memory H2 database, so benchmarks
+ * exercise the real services and repositories. Only benchmarks that measure
+ * HTTP handling start the embedded web server.
+ */
+public final class BenchmarkContext {
+
+    private BenchmarkContext() {
+    }
+
+    public static ConfigurableApplicationContext start() {
+        return new SpringApplicationBuilder(HistoryWebsiteBackendApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(baseProperties())
+                .run();
+    }
+
+    /**
+     * Same setup with the embedded web server on a random port, see {@link #port}.
+     * overrides are applied on top of the benchmark defaults.
+     */
+    public static ConfigurableApplicationContext startWebServer(Map<String, Object> overrides) {
+        Map<String, Object> properties = baseProperties();
+        properties.put("server.port", "0");
+        properties.putAll(overrides);
+        return new SpringApplicationBuilder(HistoryWebsiteBackendApplication.class)
+                .web(WebApplicationType.SERVLET)
+                .properties(properties)
+                .run();
+    }
+
+    public static int port(ConfigurableApplicationContext context) {
+        return ((ServletWebServerApplicationContext) context).getWebServer().getPort();
+    }
+
+    private static Map<String, Object> baseProperties() {
+        Map<String, Object> properties = new HashMap<>();
+        // Each trial gets its own database so seeded data never leaks between benchmarks
+        properties.put("spring.datasource.url", "jdbc:h2:mem:bench-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        properties.put("spring.datasource.username", "sa");
+        properties.put("spring.datasource.password", "");
+        properties.put("spring.datasource.driver-class-name", "org.h2.Driver");
+        properties.put("spring.jpa.database-platform", "org.hibernate.dialect.H2Dialect");
+        properties.put("spring.jpa.hibernate.ddl-auto", "create-drop");
+        properties.put("spring.jpa.show-sql", "false");
+        properties.put("spring.main.banner-mode", "off");
+        properties.put("logging.level.root", "WARN");
+        properties.put("museum.email.outbox.enabled", "false");
+        // Measure the database path, not the content cache
+        properties.put("spring.cache.type", "none");
+        properties.put("jwt.secret", "benchmarkSecretKeyForMuseumHistoryWebsiteThatShouldBeAtLeast256BitsLong1234567890");
+        return properties;
+    }
+}
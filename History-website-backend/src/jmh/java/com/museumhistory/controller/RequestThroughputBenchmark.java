@@ -0,0 +1,111 @@
+package com.museumhistory.controller;
+
+import com.museumhistory.benchmark.BenchmarkContext;
+import com.museumhistory.model.Sectiune;
+import com.museumhistory.repository.SectiuneRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Load test of a public read and a public write over HTTP, with Tomcat on its
+ * platform thread pool and on virtual threads (spring.threads.virtual.enabled).
+ * More client threads than Tomcat's default 200 workers, so the platform pool
+ * is the limit when requests block on JDBC.
+ *
+ * ./gradlew jmh -PjmhIncludes=RequestThroughputBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Threads(256)
+@Fork(1)
+public class RequestThroughputBenchmark {
+
+    private static final int SECTIONS = 20;
+
+    @Param({"false", "true"})
+    public boolean virtualThreads;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private HttpRequest getSectiuni;
+    private HttpRequest postBooking;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.startWebServer(Map.of(
+                "spring.threads.virtual.enabled", String.valueOf(virtualThreads),
+                // Every GET reaches the database instead of the pre-serialized response
+                "museum.response-cache.enabled", "false"));
+
+        SectiuneRepository sectiuneRepository = context.getBean(SectiuneRepository.class);
+        for (int s = 0; s < SECTIONS; s++) {
+            Sectiune sectiune = new Sectiune();
+            sectiune.setTitlu("Sectiunea " + s);
+            sectiune.setDescriere("Descriere " + s);
+            sectiune.setOrdine(s);
+            sectiuneRepository.save(sectiune);
+        }
+
+        String baseUrl = "http://localhost:" + BenchmarkContext.port(context);
+        client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        getSectiuni = HttpRequest.newBuilder(URI.create(baseUrl + "/api/sectiuni")).GET().build();
+        postBooking = HttpRequest.newBuilder(URI.create(baseUrl + "/api/bookings"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("{\"nume\":\"Popescu\",\"prenume\":\"Ana\"," +
+                        "\"email\":\"ana@test.com\",\"datetime\":\"2030-05-14T10:00\",\"numberOfPersons\":2," +
+                        "\"guideRequired\":false,\"ageGroup\":\"adult\"}"))
+                .build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        client.close();
+        context.close();
+    }
+
+    @Benchmark
+    public int getSectiuni() throws IOException, InterruptedException {
+        return send(getSectiuni, 200);
+    }
+
+    @Benchmark
+    public int postBooking() throws IOException, InterruptedException {
+        return send(postBooking, 201);
+    }
+
+    private int send(HttpRequest request, int expectedStatus) throws IOException, InterruptedException {
+        HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() != expectedStatus) {
+            throw new IllegalStateException(request.uri() + " answered " + response.statusCode());
+        }
+        return response.body().length;
+    }
+}
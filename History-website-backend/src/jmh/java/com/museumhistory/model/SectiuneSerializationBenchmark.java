@@ -0,0 +1,90 @@
+package com.museumhistory.model;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of sections with their nested posts and images,
+ * as returned by /api/sectiuni.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SectiuneSerializationBenchmark {
+
+    private static final int SECTIONS = 8;
+    private static final int IMAGES_PER_POST = 4;
+
+    @Param({"10", "100"})
+    public int postsPerSection;
+
+    // Same defaults as the ObjectMapper configured by Spring Boot
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    private List<Sectiune> sections;
+
+    @Setup
+    public void setUp() {
+        sections = new ArrayList<>();
+        int postId = 1;
+        int imageId = 1;
+        for (int s = 0; s < SECTIONS; s++) {
+            Sectiune sectiune = new Sectiune();
+            sectiune.setId(s + 1);
+            sectiune.setTitlu("Sectiunea " + s);
+            sectiune.setDescriere("Istoria zonei Nasaudului, partea " + s);
+            sectiune.setOrdine(s);
+
+            List<Postare> postari = new ArrayList<>();
+            for (int p = 0; p < postsPerSection; p++) {
+                Postare postare = new Postare();
+                postare.setId(postId++);
+                postare.setDescription("Descrierea postarii " + p + " din sectiunea " + s);
+                postare.setCreatedAt(LocalDateTime.of(2024, 1, 1, 0, 0).plusDays(p));
+                postare.setSectiune(sectiune);
+                List<Imagine> images = new ArrayList<>();
+                for (int i = 0; i < IMAGES_PER_POST; i++) {
+                    images.add(image(imageId, "imagine-" + imageId + ".jpg", i));
+                    imageId++;
+                }
+                postare.setImages(images);
+                postari.add(postare);
+            }
+            sectiune.setPostari(postari);
+            sections.add(sectiune);
+        }
+    }
+
+    private static Imagine image(Integer id, String path, int position) {
+        Imagine imagine = new Imagine();
+        imagine.setId(id);
+        imagine.setPath(path);
+        imagine.setDescription("Imagine " + position);
+        imagine.setPosition(position);
+        return imagine;
+    }
+
+    @Benchmark
+    public byte[] serializeSections() throws Exception {
+        return objectMapper.writeValueAsBytes(sections);
+    }
+}
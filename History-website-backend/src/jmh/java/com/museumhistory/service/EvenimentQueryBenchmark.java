@@ -0,0 +1,125 @@
+package com.museumhistory.service;
+
+import com.museumhistory.benchmark.BenchmarkContext;
+import com.museumhistory.model.Eveniment;
+import com.museumhistory.model.Expozitie;
+import com.museumhistory.repository.EvenimentRepository;
+import com.museumhistory.repository.ExpozitieRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Event and exhibition reads that depend on how the Eveniment hierarchy is
+ * mapped. The data is seeded through the repositories only, so the same class
+ * can be run against an older mapping to compare (see jmhResults in build.gradle.kts).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EvenimentQueryBenchmark {
+
+    // One row in EXHIBITION_EVERY is an exhibition, alternating between the two tips
+    private static final int EXHIBITION_EVERY = 4;
+    private static final int SEED_CHUNK = 1000;
+
+    @Param({"10000", "100000"})
+    public int events;
+
+    private ConfigurableApplicationContext context;
+    private EvenimentRepository evenimentRepository;
+    private ExpozitieRepository expozitieRepository;
+    private TransactionTemplate readOnlyTransaction;
+    private Integer firstId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start();
+        evenimentRepository = context.getBean(EvenimentRepository.class);
+        expozitieRepository = context.getBean(ExpozitieRepository.class);
+        readOnlyTransaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnlyTransaction.setReadOnly(true);
+
+        LocalDateTime start = LocalDateTime.of(2020, 1, 1, 10, 0);
+        List<Eveniment> plain = new ArrayList<>(SEED_CHUNK);
+        List<Expozitie> exhibitions = new ArrayList<>(SEED_CHUNK);
+        for (int i = 0; i < events; i++) {
+            Eveniment eveniment;
+            if (i % EXHIBITION_EVERY == 0) {
+                Expozitie expozitie = new Expozitie();
+                expozitie.setTip(i % (2 * EXHIBITION_EVERY) == 0
+                        ? Expozitie.TipExpozitie.PERMANENTA
+                        : Expozitie.TipExpozitie.TEMPORARA);
+                exhibitions.add(expozitie);
+                eveniment = expozitie;
+            } else {
+                eveniment = new Eveniment();
+                plain.add(eveniment);
+            }
+            eveniment.setName("Eveniment " + i);
+            eveniment.setStartDate(start.plusHours(i));
+            eveniment.setEndDate(start.plusHours(i + 2));
+            eveniment.setLocation("Nasaud");
+            eveniment.setDescription("Descrierea evenimentului " + i);
+
+            if (plain.size() == SEED_CHUNK) {
+                evenimentRepository.saveAll(plain);
+                plain.clear();
+            }
+            if (exhibitions.size() == SEED_CHUNK) {
+                expozitieRepository.saveAll(exhibitions);
+                exhibitions.clear();
+            }
+        }
+        evenimentRepository.saveAll(plain);
+        expozitieRepository.saveAll(exhibitions);
+        firstId = evenimentRepository.findByIdGreaterThanOrderByIdAsc(0, PageRequest.of(0, 1)).get(0).getId();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    // /api/events without a cursor: every event and exhibition
+    @Benchmark
+    public List<Eveniment> findAllEvents() {
+        return readOnlyTransaction.execute(status -> evenimentRepository.findAll());
+    }
+
+    // /api/exhibitions?tip=TEMPORARA
+    @Benchmark
+    public List<Expozitie> findExhibitionsByTip() {
+        return readOnlyTransaction.execute(status -> expozitieRepository.findByTip(Expozitie.TipExpozitie.TEMPORARA));
+    }
+
+    // /api/events/{id} on an arbitrary row
+    @Benchmark
+    public Eveniment findEventById() {
+        int id = firstId + ThreadLocalRandom.current().nextInt(events);
+        return readOnlyTransaction.execute(status -> evenimentRepository.findById(id).orElseThrow());
+    }
+}
@@ -0,0 +1,116 @@
+package com.museumhistory.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.museumhistory.benchmark.BenchmarkContext;
+import com.museumhistory.model.Imagine;
+import com.museumhistory.model.Postare;
+import com.museumhistory.model.Sectiune;
+import com.museumhistory.repository.PostareRepository;
+import com.museumhistory.repository.SectiuneRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Posts of one section out of a larger archive, as served by
+ * /api/posts/sectiune/{sectiuneId}: the service call and the JSON body
+ * written inside the request's read-only persistence context.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PostareServiceBenchmark {
+
+    private static final int SECTIONS = 10;
+    private static final int IMAGES_PER_POST = 3;
+
+    @Param({"1000", "5000"})
+    public int posts;
+
+    private ConfigurableApplicationContext context;
+    private PostareService postareService;
+    private ObjectMapper objectMapper;
+    private TransactionTemplate readOnlyTransaction;
+    private Integer sectiuneId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start();
+        postareService = context.getBean(PostareService.class);
+        objectMapper = context.getBean(ObjectMapper.class);
+        readOnlyTransaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnlyTransaction.setReadOnly(true);
+
+        SectiuneRepository sectiuneRepository = context.getBean(SectiuneRepository.class);
+        List<Sectiune> sections = new ArrayList<>();
+        for (int s = 0; s < SECTIONS; s++) {
+            Sectiune sectiune = new Sectiune();
+            sectiune.setTitlu("Sectiunea " + s);
+            sectiune.setDescriere("Descriere " + s);
+            sectiune.setOrdine(s);
+            sections.add(sectiuneRepository.save(sectiune));
+        }
+        sectiuneId = sections.get(SECTIONS / 2).getId();
+
+        List<Postare> seed = new ArrayList<>(posts);
+        for (int i = 0; i < posts; i++) {
+            Postare postare = new Postare();
+            postare.setDescription("Postarea " + i);
+            postare.setCreatedAt(LocalDateTime.of(2024, 1, 1, 0, 0).plusHours(i));
+            postare.setSectiune(sections.get(i % SECTIONS));
+            List<Imagine> images = new ArrayList<>();
+            for (int p = 0; p < IMAGES_PER_POST; p++) {
+                Imagine imagine = new Imagine();
+                imagine.setPath("post-" + i + "-" + p + ".jpg");
+                imagine.setDescription("Imagine " + p);
+                imagine.setPosition(p);
+                images.add(imagine);
+            }
+            postare.setImages(images);
+            seed.add(postare);
+        }
+        context.getBean(PostareRepository.class).saveAll(seed);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Postare> getPostsBySectiuneId() {
+        return readOnlyTransaction.execute(status -> postareService.getPostsBySectiuneId(sectiuneId));
+    }
+
+    @Benchmark
+    public byte[] getPostsBySectiuneIdAsJson() {
+        return readOnlyTransaction.execute(status -> {
+            try {
+                return objectMapper.writeValueAsBytes(postareService.getPostsBySectiuneId(sectiuneId));
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        });
+    }
+}
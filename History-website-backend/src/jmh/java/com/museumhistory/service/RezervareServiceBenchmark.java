@@ -0,0 +1,91 @@
+package com.museumhistory.service;
+
+import com.museumhistory.benchmark.BenchmarkContext;
+import com.museumhistory.model.Rezervare;
+import com.museumhistory.repository.RezervareRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Calendar density for a month with seeded bookings, served from the
+ * occupancy index and straight from the grouped H2 query.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RezervareServiceBenchmark {
+
+    private static final int YEAR = 2025;
+    private static final int MONTH = 6;
+
+    @Param({"500", "5000"})
+    public int bookings;
+
+    private ConfigurableApplicationContext context;
+    private RezervareService rezervareService;
+    private RezervareRepository rezervareRepository;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start();
+        rezervareService = context.getBean(RezervareService.class);
+        rezervareRepository = context.getBean(RezervareRepository.class);
+
+        Random random = new Random(42);
+        List<Rezervare> seed = new ArrayList<>(bookings);
+        for (int i = 0; i < bookings; i++) {
+            Rezervare rezervare = new Rezervare();
+            rezervare.setNume("Nume" + i);
+            rezervare.setPrenume("Prenume" + i);
+            rezervare.setEmail("vizitator" + i + "@example.com");
+            // Spread over the benchmarked month and its neighbours
+            rezervare.setDatetime(LocalDateTime.of(YEAR, MONTH - 1 + random.nextInt(3), 1 + random.nextInt(28),
+                    8 + random.nextInt(10), 0));
+            rezervare.setNumberOfPersons(1 + random.nextInt(10));
+            rezervare.setAgeGroup("ADULTI");
+            seed.add(rezervare);
+        }
+        rezervareRepository.saveAll(seed);
+
+        // Rebuild the index from the seeded rows, as after a restart
+        context.getBean(BookingOccupancyIndex.class).warmUp();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Map<String, Map<String, Object>> calendarDensity() {
+        return rezervareService.getCalendarDensityForMonth(YEAR, MONTH);
+    }
+
+    @Benchmark
+    public List<Object[]> groupedMonthQuery() {
+        return rezervareRepository.countBookingsPerHourBetween(
+                LocalDateTime.of(YEAR, MONTH, 1, 0, 0), LocalDateTime.of(YEAR, MONTH + 1, 1, 0, 0));
+    }
+}
@@ -0,0 +1,120 @@
+package com.museumhistory.service.email;
+
+import com.museumhistory.model.Rezervare;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the precompiled template renderer with the previous
+ * String.formatted implementation of the approval email.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EmailTemplateBenchmark {
+
+    private static final String MUSEUM_NAME = "Muzeul Graniceresc Nasaudean";
+    private static final String CONTACT_EMAIL = "contact@muzeu.ro";
+
+    private final DateTimeFormatter dateFormatter = DateTimeFormatter.ofPattern("dd MMMM yyyy, HH:mm");
+
+    private EmailTemplateRenderer renderer;
+    private Rezervare rezervare;
+
+    @Setup
+    public void setUp() {
+        renderer = new EmailTemplateRenderer();
+        renderer.loadTemplates();
+
+        rezervare = new Rezervare();
+        rezervare.setNume("Popescu");
+        rezervare.setPrenume("Ana");
+        rezervare.setEmail("ana@example.com");
+        rezervare.setDatetime(LocalDateTime.of(2025, 7, 1, 10, 30));
+        rezervare.setNumberOfPersons(4);
+        rezervare.setAgeGroup("ADULTI");
+        rezervare.setGuideRequired(true);
+    }
+
+    @Benchmark
+    public String precompiledTemplate() {
+        return renderer.render(EmailTemplateType.APPROVAL, new EmailContext(rezervare, MUSEUM_NAME, CONTACT_EMAIL));
+    }
+
+    @Benchmark
+    public String stringFormatted() {
+        return LEGACY_APPROVAL_TEMPLATE.formatted(
+                MUSEUM_NAME,
+                rezervare.getNume(), rezervare.getPrenume(),
+                rezervare.getDatetime().format(dateFormatter),
+                rezervare.getNumberOfPersons(),
+                "Adulți (18-64 ani)",
+                rezervare.isGuideRequired() ? "Da" : "Nu",
+                CONTACT_EMAIL,
+                CONTACT_EMAIL
+        );
+    }
+
+    // Copy of the approval email as it was built in EmailService before the template renderer
+    private static final String LEGACY_APPROVAL_TEMPLATE = """
+            <!DOCTYPE html>
+            <html>
+            <head>
+                <meta charset="UTF-8">
+                <title>Rezervarea aprobată</title>
+                <style>
+                    body { font-family: Arial, sans-serif; line-height: 1.6; color: #333; max-width: 600px; margin: 0 auto; padding: 20px; }
+                    .header { background-color: #28A745; color: white; padding: 20px; text-align: center; border-radius: 8px 8px 0 0; }
+                    .content { background-color: #f9f9f9; padding: 30px; border-radius: 0 0 8px 8px; }
+                    .details { background-color: white; padding: 15px; border-left: 4px solid #28A745; margin: 20px 0; }
+                    .footer { text-align: center; margin-top: 30px; font-size: 12px; color: #666; }
+                </style>
+            </head>
+            <body>
+                <div class="header">
+                    <h1>🎉 Rezervarea Confirmată!</h1>
+                    <p>%s</p>
+                </div>
+                
+                <div class="content">
+                    <p>Bună ziua <strong>%s %s</strong>,</p>
+                    
+                    <p>Vă informăm că rezervarea dumneavoastră a fost <strong>confirmată cu succes</strong>!</p>
+                    
+                    <div class="details">
+                        <h3>Detaliile vizitei confirmate:</h3>
+                        <p><strong>Data și ora vizitei:</strong> %s</p>
+                        <p><strong>Numărul de persoane:</strong> %d</p>
+                        <p><strong>Categoria de vârstă:</strong> %s</p>
+                        <p><strong>Ghid inclus:</strong> %s</p>
+                    </div>
+                    
+                    <p>În cazul în care aveți nevoie să modificați sau să anulați rezervarea, vă rugăm să ne contactați cât mai curând posibil la adresa %s.</p>
+                    
+                    <p>Vă mulțumim pentru interesul acordat muzeului nostru și vă așteptăm cu mare drag!</p>
+                    
+                    <p>Cu stimă,<br><strong>Echipa muzeului</strong></p>
+                </div>
+                
+                <div class="footer">
+                    <p>Acest email a fost trimis automat. Pentru întrebări, contactați-ne la %s</p>
+                </div>
+            </body>
+            </html>
+            """;
+}
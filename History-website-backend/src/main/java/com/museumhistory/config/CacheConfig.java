@@ -0,0 +1,27 @@
+package com.museumhistory.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * Read-through caches for the public content (sections, posts, events,
+ * exhibitions, images). The cache manager is Caffeine, configured through the
+ * spring.cache.* properties; every service write evicts the caches whose
+ * cached graphs can contain the changed entity.
+ *
+ * The caching advice is ordered outside the transaction advice (which keeps
+ * the default LOWEST_PRECEDENCE), so on a method that is both @CacheEvict and
+ * @Transactional the eviction runs after the commit and a concurrent read
+ * cannot cache the rows being replaced.
+ */
+@Configuration
+@EnableCaching(order = Ordered.LOWEST_PRECEDENCE - 1)
+public class CacheConfig {
+
+    public static final String SECTIUNI = "sectiuni";
+    public static final String POSTS = "posts";
+    public static final String EVENTS = "events";
+    public static final String EXHIBITIONS = "exhibitions";
+    public static final String IMAGES = "images";
+}
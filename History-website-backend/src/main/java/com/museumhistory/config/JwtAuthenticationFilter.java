@@ -18,6 +18,7 @@ import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
 import java.util.Collections;
+import java.util.Optional;
 
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
@@ -36,7 +37,6 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         
         final String authHeader = request.getHeader("Authorization");
         final String jwt;
-        final String username;
 
         // Skip filter for login endpoint
         if (request.getRequestURI().equals("/api/administrators/login")) {
@@ -52,23 +52,28 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         try {
             jwt = authHeader.substring(7);
-            username = jwtService.extractUsername(jwt);
+
+            // Single verification: subject and expiry come from the same (cached) parse
+            Optional<JwtService.VerifiedToken> verified = jwtService.verifyToken(jwt);
 
             // If token is valid and user is not already authenticated
-            if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                if (jwtService.validateToken(jwt)) {
-                    // Create authentication token with ADMIN authority
-                    UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                            username,
-                            null,
-                            Collections.singletonList(new SimpleGrantedAuthority("ROLE_ADMIN"))
-                    );
-                    
-                    authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                    SecurityContextHolder.getContext().setAuthentication(authToken);
-                    
-                    logger.debug("Successfully authenticated user: {}", username);
-                }
+            if (verified.isPresent() && verified.get().username() != null
+                    && SecurityContextHolder.getContext().getAuthentication() == null) {
+                String username = verified.get().username();
+
+                // Create authentication token with ADMIN authority
+                UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
+                        username,
+                        null,
+                        Collections.singletonList(new SimpleGrantedAuthority("ROLE_ADMIN"))
+                );
+
+                authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                SecurityContextHolder.getContext().setAuthentication(authToken);
+
+                logger.debug("Successfully authenticated user: {}", username);
+            } else if (verified.isEmpty()) {
+                logger.warn("JWT token validation failed");
             }
         } catch (Exception e) {
             logger.warn("JWT token validation failed: {}", e.getMessage());
@@ -0,0 +1,215 @@
+package com.museumhistory.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Serves repeated GETs of the public content endpoints from the JSON bytes
+ * produced the first time, with a strong ETag so browsers can revalidate
+ * with If-None-Match and get a 304. Bodies above museum.response-cache.gzip-min-bytes
+ * are also kept gzipped for clients that accept it.
+ *
+ * Any successful write to the same endpoints clears the cache, as does
+ * ContentCacheService when content changes outside a request (derivative
+ * widths recorded in the background). Registered in WebConfig, after the
+ * security filter chain.
+ */
+@Component
+public class PublicResponseCacheFilter extends OncePerRequestFilter {
+
+    private static final List<String> CACHED_PREFIXES = List.of(
+            "/api/sectiuni", "/api/posts", "/api/events", "/api/exhibitions", "/api/images");
+
+    @Value("${museum.response-cache.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${museum.response-cache.gzip-min-bytes:1024}")
+    private int gzipMinBytes = 1024;
+
+    private final Cache<String, CachedResponse> responses;
+
+    // Bumped on every invalidation, so a response rendered before a write is not stored after it
+    private final AtomicLong generation = new AtomicLong();
+
+    public PublicResponseCacheFilter(@Value("${museum.response-cache.max-entries:500}") long maxEntries,
+                                     @Value("${museum.response-cache.ttl-ms:600000}") long ttlMs) {
+        this.responses = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(Duration.ofMillis(ttlMs))
+                .build();
+    }
+
+    record CachedResponse(String contentType, byte[] body, String etag, byte[] gzipBody, String gzipEtag) {
+    }
+
+    public void invalidate() {
+        generation.incrementAndGet();
+        responses.invalidateAll();
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if (!enabled) {
+            return true;
+        }
+        return CACHED_PREFIXES.stream().noneMatch(pathOf(request)::startsWith);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        if (!"GET".equals(request.getMethod())) {
+            try {
+                filterChain.doFilter(request, response);
+            } finally {
+                if (!"HEAD".equals(request.getMethod()) && !"OPTIONS".equals(request.getMethod())
+                        && response.getStatus() < 400) {
+                    invalidate();
+                }
+            }
+            return;
+        }
+
+        // Streamed exports, image files and upload progress are not cacheable JSON documents
+        String path = pathOf(request);
+        if (path.endsWith("/export") || path.startsWith("/api/images/uploads/")
+                || path.startsWith("/api/images/upload-image/")) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        String key = cacheKey(request);
+        CachedResponse cached = responses.getIfPresent(key);
+        if (cached != null) {
+            write(cached, request, response);
+            return;
+        }
+
+        long generationBefore = generation.get();
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        filterChain.doFilter(request, wrapper);
+
+        if (wrapper.getStatus() != HttpServletResponse.SC_OK || !isJson(wrapper.getContentType())
+                || request.isAsyncStarted()) {
+            wrapper.copyBodyToResponse();
+            return;
+        }
+
+        CachedResponse rendered = render(wrapper.getContentType(), wrapper.getContentAsByteArray());
+        if (generation.get() == generationBefore) {
+            responses.put(key, rendered);
+        }
+        wrapper.resetBuffer();
+        write(rendered, request, response);
+    }
+
+    private CachedResponse render(String contentType, byte[] body) throws IOException {
+        String etag = etagOf(body);
+        if (body.length < gzipMinBytes) {
+            return new CachedResponse(contentType, body, etag, null, null);
+        }
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(body.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+            gzip.write(body);
+        }
+        // A different encoding is a different representation and needs its own strong ETag
+        String gzipEtag = etag.substring(0, etag.length() - 1) + "-gzip\"";
+        return new CachedResponse(contentType, body, etag, compressed.toByteArray(), gzipEtag);
+    }
+
+    private void write(CachedResponse cached, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        boolean gzip = cached.gzipBody() != null && acceptsGzip(request);
+        String etag = gzip ? cached.gzipEtag() : cached.etag();
+
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "no-cache");
+        if (cached.gzipBody() != null) {
+            response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        }
+
+        if (matches(request.getHeader(HttpHeaders.IF_NONE_MATCH), cached)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        byte[] body = gzip ? cached.gzipBody() : cached.body();
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentType(cached.contentType());
+        if (gzip) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+        response.flushBuffer();
+    }
+
+    private static boolean matches(String ifNoneMatch, CachedResponse cached) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        // If-None-Match uses the weak comparison, so W/ prefixes are ignored
+        return Arrays.stream(ifNoneMatch.split(","))
+                .map(String::trim)
+                .map(tag -> tag.startsWith("W/") ? tag.substring(2) : tag)
+                .anyMatch(tag -> tag.equals("*") || tag.equals(cached.etag()) || tag.equals(cached.gzipEtag()));
+    }
+
+    private static boolean acceptsGzip(HttpServletRequest request) {
+        String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        return acceptEncoding != null && acceptEncoding.toLowerCase().contains("gzip");
+    }
+
+    private static boolean isJson(String contentType) {
+        if (contentType == null) {
+            return false;
+        }
+        try {
+            return MediaType.APPLICATION_JSON.isCompatibleWith(MediaType.parseMediaType(contentType));
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    private static String pathOf(HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length());
+    }
+
+    private static String cacheKey(HttpServletRequest request) {
+        Map<String, String[]> parameters = new TreeMap<>(request.getParameterMap());
+        StringBuilder key = new StringBuilder(request.getRequestURI());
+        parameters.forEach((name, values) -> key.append('&').append(name).append('=').append(String.join(",", values)));
+        return key.toString();
+    }
+
+    private static String etagOf(byte[] body) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(body);
+            return "\"" + HexFormat.of().formatHex(digest, 0, 16) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponibil", e);
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.museumhistory.config;
 
+import jakarta.servlet.DispatcherType;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -45,10 +46,20 @@ public class SecurityConfig {
             .csrf(csrf -> csrf.disable())
             .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
             .authorizeHttpRequests(authz -> authz
+                // Streaming responses finish on an async dispatch, already authorized on the original request
+                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+
                 // Public endpoints - anyone can access
                 .requestMatchers("/api/administrators/login").permitAll()
                 .requestMatchers("/api/administrators/validate-token").permitAll()
                 
+                // Full NDJSON exports are for admins only
+                .requestMatchers(HttpMethod.GET, "/api/posts/export", "/api/events/export",
+                        "/api/exhibitions/export", "/api/bookings/export").hasRole("ADMIN")
+
+                // Progress of resumable image uploads
+                .requestMatchers(HttpMethod.GET, "/api/images/upload-image/chunked/**").hasRole("ADMIN")
+
                 // Public read-only endpoints for museum visitors
                 .requestMatchers(HttpMethod.GET, "/api/events/**").permitAll()
                 .requestMatchers(HttpMethod.GET, "/api/expozitii/**").permitAll()
@@ -1,8 +1,12 @@
 package com.museumhistory.controller;
 
+import com.museumhistory.config.VirtualThreadPinningMonitor;
 import com.museumhistory.model.Administrator;
 import com.museumhistory.service.AdministratorService;
+import com.museumhistory.service.ContentCacheService;
 import com.museumhistory.service.JwtService;
+import com.museumhistory.service.OrphanUploadCollector;
+import com.museumhistory.service.RetentionService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -28,6 +32,19 @@ public class AdministratorController {
     @Autowired
     private JwtService jwtService;
 
+    @Autowired
+    private ContentCacheService contentCacheService;
+
+    @Autowired
+    private RetentionService retentionService;
+
+    @Autowired
+    private OrphanUploadCollector orphanUploadCollector;
+
+    // Only present when the app runs on virtual threads
+    @Autowired(required = false)
+    private VirtualThreadPinningMonitor pinningMonitor;
+
     @GetMapping
     public ResponseEntity<Object> getAllAdministrators(){
         try {
@@ -305,6 +322,105 @@ public class AdministratorController {
         }
     }
 
+    @GetMapping("/cache-stats")
+    public ResponseEntity<Map<String, Object>> getCacheStats() {
+        try {
+            logger.debug("Fetching content cache statistics");
+            Map<String, Object> response = new HashMap<>();
+            response.put("caches", contentCacheService.getStats());
+            response.put("status", "success");
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            logger.error("Error fetching content cache statistics", e);
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("error", "Nu s-au putut încărca statisticile cache-ului");
+            errorResponse.put("status", "error");
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
+        }
+    }
+
+    @GetMapping("/retention")
+    public ResponseEntity<Map<String, Object>> getLastRetentionReport() {
+        logger.debug("Fetching last retention report");
+        Map<String, Object> response = new HashMap<>();
+        response.put("report", retentionService.getLastReport());
+        response.put("status", "success");
+        return ResponseEntity.ok(response);
+    }
+
+    @PostMapping("/retention/run")
+    public ResponseEntity<Map<String, Object>> runRetention() {
+        try {
+            logger.info("Running retention on request");
+            RetentionService.RetentionReport report = retentionService.purge();
+            if (report == null) {
+                Map<String, Object> errorResponse = new HashMap<>();
+                errorResponse.put("error", "Curățarea datelor vechi este deja în curs");
+                errorResponse.put("status", "error");
+                return ResponseEntity.status(HttpStatus.CONFLICT).body(errorResponse);
+            }
+            Map<String, Object> response = new HashMap<>();
+            response.put("report", report);
+            response.put("status", "success");
+            return ResponseEntity.ok(response);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.error("Retention run interrupted", e);
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("error", "Curățarea datelor vechi a fost întreruptă");
+            errorResponse.put("status", "error");
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
+        } catch (Exception e) {
+            logger.error("Retention run failed", e);
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("error", "Eroare la curățarea datelor vechi");
+            errorResponse.put("status", "error");
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
+        }
+    }
+
+    @GetMapping("/uploads-gc")
+    public ResponseEntity<Map<String, Object>> getUploadCollectorStats() {
+        logger.debug("Fetching orphaned upload collector statistics");
+        Map<String, Object> response = new HashMap<>(orphanUploadCollector.getStats());
+        response.put("status", "success");
+        return ResponseEntity.ok(response);
+    }
+
+    @PostMapping("/uploads-gc/run")
+    public ResponseEntity<Map<String, Object>> runUploadCollector() {
+        try {
+            logger.info("Collecting orphaned uploads on request");
+            OrphanUploadCollector.CollectionReport report = orphanUploadCollector.collect();
+            if (report == null) {
+                Map<String, Object> errorResponse = new HashMap<>();
+                errorResponse.put("error", "Curățarea fișierelor neutilizate este deja în curs");
+                errorResponse.put("status", "error");
+                return ResponseEntity.status(HttpStatus.CONFLICT).body(errorResponse);
+            }
+            Map<String, Object> response = new HashMap<>();
+            response.put("report", report);
+            response.put("status", "success");
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            logger.error("Orphaned upload collection failed", e);
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("error", "Eroare la curățarea fișierelor neutilizate");
+            errorResponse.put("status", "error");
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
+        }
+    }
+
+    @GetMapping("/virtual-threads")
+    public ResponseEntity<Map<String, Object>> getVirtualThreadStats() {
+        logger.debug("Fetching virtual thread pinning statistics");
+        Map<String, Object> response = new HashMap<>();
+        response.put("enabled", pinningMonitor != null);
+        response.put("pinned", pinningMonitor != null ? pinningMonitor.getPinnedCounts() : Map.of());
+        response.put("status", "success");
+        return ResponseEntity.ok(response);
+    }
+
     @PostMapping("/login")
     public ResponseEntity<Object> login(@RequestBody Map<String, String> credentials) {
         try {
@@ -1,16 +1,24 @@
 package com.museumhistory.controller;
 
 import com.museumhistory.model.Eveniment;
+import com.museumhistory.pagination.NdjsonExporter;
 import com.museumhistory.service.EvenimentService;
+import com.museumhistory.service.EventDayLimitException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.dao.EmptyResultDataAccessException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 import java.util.HashMap;
@@ -24,14 +32,39 @@ public class EvenimentController {
 
     @Autowired
     private EvenimentService evenimentService;
+
+    @Autowired
+    private NdjsonExporter ndjsonExporter;
     
 
     @GetMapping
-    public ResponseEntity<Object> getAllEvents(){
+    public ResponseEntity<Object> getAllEvents(@RequestParam(required = false) String cursor,
+                                               @RequestParam(required = false) Integer limit,
+                                               @RequestParam(required = false) String view){
         try {
+            // view=summary lists EvenimentSummary rows; the full event is served by /{id}
+            if ("summary".equals(view)) {
+                logger.debug("Fetching event summaries after cursor: {}", cursor);
+                return cursor != null || limit != null
+                        ? ResponseEntity.ok(evenimentService.getEventSummariesPage(cursor, limit))
+                        : ResponseEntity.ok(evenimentService.getEventSummaries());
+            }
+
+            // Without cursor/limit the full list is returned, as before
+            if (cursor != null || limit != null) {
+                logger.debug("Fetching page of events after cursor: {}", cursor);
+                return ResponseEntity.ok(evenimentService.getEventsPage(cursor, limit));
+            }
+
             logger.debug("Fetching all events");
             List<Eveniment> events = evenimentService.getAllEvents();
             return ResponseEntity.ok(events);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Invalid cursor for events: {}", cursor);
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("error", "Cursorul de paginare nu este valid");
+            errorResponse.put("status", "error");
+            return ResponseEntity.badRequest().body(errorResponse);
         } catch (Exception e) {
             logger.error("Error fetching all events", e);
             Map<String, Object> errorResponse = new HashMap<>();
@@ -41,6 +74,51 @@ public class EvenimentController {
         }
     }
 
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportEvents() {
+        logger.info("Exporting all events as NDJSON");
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(NdjsonExporter.MEDIA_TYPE))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"evenimente.ndjson\"")
+                .body(ndjsonExporter.export(evenimentService::streamAllEvents));
+    }
+
+    @GetMapping("/range")
+    public ResponseEntity<Object> getEventsBetween(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        try {
+            logger.debug("Fetching events between {} and {}", from, to);
+            return ResponseEntity.ok(evenimentService.getEventsBetween(from, to));
+        } catch (IllegalArgumentException e) {
+            logger.warn("Invalid event range: {} - {}", from, to);
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("error", e.getMessage());
+            errorResponse.put("status", "error");
+            return ResponseEntity.badRequest().body(errorResponse);
+        } catch (Exception e) {
+            logger.error("Error fetching events between " + from + " and " + to, e);
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("error", "Nu s-au putut încărca evenimentele din intervalul specificat");
+            errorResponse.put("status", "error");
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
+        }
+    }
+
+    @GetMapping("/upcoming")
+    public ResponseEntity<Object> getUpcomingEvents(@RequestParam(required = false) Integer limit) {
+        try {
+            logger.debug("Fetching {} upcoming events", limit);
+            return ResponseEntity.ok(evenimentService.getUpcomingEvents(LocalDateTime.now(), limit));
+        } catch (Exception e) {
+            logger.error("Error fetching upcoming events", e);
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("error", "Nu s-au putut încărca evenimentele următoare");
+            errorResponse.put("status", "error");
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
+        }
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<Object> getEventById(@PathVariable Integer id){
         try {
@@ -117,6 +195,12 @@ public class EvenimentController {
             
             return ResponseEntity.status(HttpStatus.CREATED).body(response);
             
+        } catch (EventDayLimitException e) {
+            logger.warn("Daily event limit reached while creating event: {}", e.getMessage());
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("error", e.getMessage());
+            errorResponse.put("status", "error");
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(errorResponse);
         } catch (DataIntegrityViolationException e) {
             logger.error("Data integrity violation while creating event", e);
             Map<String, Object> errorResponse = new HashMap<>();
@@ -174,6 +258,12 @@ public class EvenimentController {
             
             return ResponseEntity.ok(response);
             
+        } catch (EventDayLimitException e) {
+            logger.warn("Daily event limit reached while updating event: {}", e.getMessage());
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("error", e.getMessage());
+            errorResponse.put("status", "error");
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(errorResponse);
         } catch (DataIntegrityViolationException e) {
             logger.error("Data integrity violation while updating event: " + id, e);
             Map<String, Object> errorResponse = new HashMap<>();
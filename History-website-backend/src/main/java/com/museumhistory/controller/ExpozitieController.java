@@ -1,11 +1,15 @@
 package com.museumhistory.controller;
 
 import com.museumhistory.model.Expozitie;
+import com.museumhistory.pagination.NdjsonExporter;
 import com.museumhistory.service.ExpozitieService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.dao.EmptyResultDataAccessException;
 import org.slf4j.Logger;
@@ -24,10 +28,30 @@ public class ExpozitieController {
     @Autowired
     private ExpozitieService expozitieService;
 
+    @Autowired
+    private NdjsonExporter ndjsonExporter;
+
     @GetMapping
     public ResponseEntity<Object> getAllExhibitions(
-            @RequestParam(required = false) Expozitie.TipExpozitie tip){
+            @RequestParam(required = false) Expozitie.TipExpozitie tip,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String view){
         try {
+            // view=summary lists ExpozitieSummary rows; the full exhibition is served by /{id}
+            if ("summary".equals(view)) {
+                logger.debug("Fetching exhibition summaries with tip: {} after cursor: {}", tip, cursor);
+                return cursor != null || limit != null
+                        ? ResponseEntity.ok(expozitieService.getExhibitionSummariesPage(tip, cursor, limit))
+                        : ResponseEntity.ok(expozitieService.getExhibitionSummaries(tip));
+            }
+
+            // Without cursor/limit the full list is returned, as before
+            if (cursor != null || limit != null) {
+                logger.debug("Fetching page of exhibitions with tip: {} after cursor: {}", tip, cursor);
+                return ResponseEntity.ok(expozitieService.getExhibitionsPage(tip, cursor, limit));
+            }
+
             logger.debug("Fetching exhibitions with tip: {}", tip);
             List<Expozitie> exhibitions;
             if (tip != null) {
@@ -36,6 +60,12 @@ public class ExpozitieController {
                 exhibitions = expozitieService.getAllExhibitions();
             }
             return ResponseEntity.ok(exhibitions);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Invalid cursor for exhibitions: {}", cursor);
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("error", "Cursorul de paginare nu este valid");
+            errorResponse.put("status", "error");
+            return ResponseEntity.badRequest().body(errorResponse);
         } catch (Exception e) {
             logger.error("Error fetching exhibitions", e);
             Map<String, Object> errorResponse = new HashMap<>();
@@ -45,6 +75,15 @@ public class ExpozitieController {
         }
     }
 
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportExhibitions() {
+        logger.info("Exporting all exhibitions as NDJSON");
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(NdjsonExporter.MEDIA_TYPE))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"expozitii.ndjson\"")
+                .body(ndjsonExporter.export(expozitieService::streamAllExhibitions));
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<Object> getAllExhibitionbyId(@PathVariable Integer id){
         try {
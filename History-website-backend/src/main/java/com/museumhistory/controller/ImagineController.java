@@ -1,7 +1,11 @@
 package com.museumhistory.controller;
 
 import com.museumhistory.model.Imagine;
+import com.museumhistory.service.ChunkOffsetException;
+import com.museumhistory.service.ChunkedUploadService;
+import com.museumhistory.service.ImageDerivativeService;
 import com.museumhistory.service.ImagineService;
+import com.museumhistory.service.UploadStore;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.UrlResource;
@@ -14,15 +18,16 @@ import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.dao.EmptyResultDataAccessException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import jakarta.servlet.http.HttpServletRequest;
 
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.Paths;
-import java.nio.file.StandardCopyOption;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 
 @RestController
 @RequestMapping("/api/images")
@@ -33,6 +38,15 @@ public class ImagineController {
     @Autowired
     private ImagineService imagineService;
 
+    @Autowired
+    private ImageDerivativeService imageDerivativeService;
+
+    @Autowired
+    private UploadStore uploadStore;
+
+    @Autowired
+    private ChunkedUploadService chunkedUploadService;
+
     @GetMapping
     public ResponseEntity<Object> getAllImages(){
         try {
@@ -255,7 +269,6 @@ public class ImagineController {
         }
     }
 
-    private static final String UPLOAD_DIR = "uploads/";
     @PostMapping("/upload-image")
     public ResponseEntity<Map<String, String>> uploadImage(
             @RequestParam("image") MultipartFile file, 
@@ -266,23 +279,9 @@ public class ImagineController {
                 return ResponseEntity.badRequest().body(Map.of("error", "Fișierul este gol"));
             }
             
-            String originalFilename = file.getOriginalFilename();
-            String fileName = System.currentTimeMillis() + "_" + originalFilename;
-            
-            Path uploadPath = Paths.get(UPLOAD_DIR).toAbsolutePath().normalize();
-            
-            if (!Files.exists(uploadPath)) {
-                Files.createDirectories(uploadPath);
-            }
-            
-            Path targetLocation = uploadPath.resolve(fileName);
-            Files.copy(file.getInputStream(), targetLocation, StandardCopyOption.REPLACE_EXISTING);
-            
-            Imagine image = new Imagine();
-            image.setPath(fileName);
-            image.setDescription(description);
-            image.setPosition(position);
-            imagineService.createImage(image);
+            // Stored under its content digest; an identical file already on disk is reused
+            Imagine image = imagineService.createUploadedImage(
+                    file.getInputStream(), file.getOriginalFilename(), description, position);
 
             Map<String, String> response = new HashMap<>();
             response.put("imagePath", image.getPath());
@@ -296,6 +295,107 @@ public class ImagineController {
         }
     }
 
+    /**
+     * Open a resumable upload for files above the multipart limit.
+     * Body: {"filename", "size", "description", "position"}.
+     */
+    @PostMapping("/upload-image/chunked")
+    public ResponseEntity<Object> startChunkedUpload(@RequestBody Map<String, Object> request) {
+        try {
+            Object size = request.get("size");
+            if (!(size instanceof Number)) {
+                return chunkedUploadError(HttpStatus.BAD_REQUEST, "Dimensiunea fișierului este obligatorie");
+            }
+            Object position = request.get("position");
+            ChunkedUploadService.UploadStatus status = chunkedUploadService.start(
+                    (String) request.get("filename"),
+                    ((Number) size).longValue(),
+                    (String) request.get("description"),
+                    position instanceof Number ? ((Number) position).intValue() : 0);
+            return ResponseEntity.status(HttpStatus.CREATED).body(status);
+        } catch (IllegalArgumentException e) {
+            return chunkedUploadError(HttpStatus.BAD_REQUEST, e.getMessage());
+        } catch (Exception e) {
+            logger.error("Could not start chunked upload", e);
+            return chunkedUploadError(HttpStatus.INTERNAL_SERVER_ERROR, "Eroare la inițierea încărcării");
+        }
+    }
+
+    @GetMapping("/upload-image/chunked/{uploadId}")
+    public ResponseEntity<Object> getChunkedUploadStatus(@PathVariable String uploadId) {
+        try {
+            return ResponseEntity.ok(chunkedUploadService.getStatus(uploadId));
+        } catch (NoSuchElementException e) {
+            return chunkedUploadError(HttpStatus.NOT_FOUND, e.getMessage());
+        }
+    }
+
+    /**
+     * Append the raw request body (application/octet-stream) at the given offset.
+     * A wrong offset is answered with 409 and the offset the upload expects.
+     */
+    @PutMapping("/upload-image/chunked/{uploadId}")
+    public ResponseEntity<Object> uploadChunk(@PathVariable String uploadId,
+                                              @RequestParam("offset") long offset,
+                                              HttpServletRequest request) {
+        try {
+            return ResponseEntity.ok(chunkedUploadService.appendChunk(uploadId, offset, request.getInputStream()));
+        } catch (NoSuchElementException e) {
+            return chunkedUploadError(HttpStatus.NOT_FOUND, e.getMessage());
+        } catch (ChunkOffsetException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getStatus());
+        } catch (IllegalArgumentException e) {
+            return chunkedUploadError(HttpStatus.BAD_REQUEST, e.getMessage());
+        } catch (IOException e) {
+            logger.warn("Chunk of upload {} interrupted at offset {}", uploadId, offset, e);
+            return chunkedUploadError(HttpStatus.INTERNAL_SERVER_ERROR, "Fragmentul nu a fost primit complet");
+        }
+    }
+
+    /**
+     * Verify the SHA-256 of the received file and create the image. Body: {"sha256"}.
+     */
+    @PostMapping("/upload-image/chunked/{uploadId}/complete")
+    public ResponseEntity<Object> completeChunkedUpload(@PathVariable String uploadId,
+                                                        @RequestBody Map<String, String> request) {
+        try {
+            Imagine image = chunkedUploadService.complete(uploadId, request.get("sha256"));
+            Map<String, Object> response = new HashMap<>();
+            response.put("id", image.getId());
+            response.put("imagePath", image.getPath());
+            return ResponseEntity.ok(response);
+        } catch (NoSuchElementException e) {
+            return chunkedUploadError(HttpStatus.NOT_FOUND, e.getMessage());
+        } catch (IllegalStateException e) {
+            return chunkedUploadError(HttpStatus.CONFLICT, e.getMessage());
+        } catch (IllegalArgumentException e) {
+            return chunkedUploadError(HttpStatus.UNPROCESSABLE_ENTITY, e.getMessage());
+        } catch (Exception e) {
+            logger.error("Could not complete chunked upload {}", uploadId, e);
+            return chunkedUploadError(HttpStatus.INTERNAL_SERVER_ERROR, "Eroare la finalizarea încărcării");
+        }
+    }
+
+    @DeleteMapping("/upload-image/chunked/{uploadId}")
+    public ResponseEntity<Object> abortChunkedUpload(@PathVariable String uploadId) {
+        try {
+            chunkedUploadService.abort(uploadId);
+            return ResponseEntity.noContent().build();
+        } catch (NoSuchElementException e) {
+            return chunkedUploadError(HttpStatus.NOT_FOUND, e.getMessage());
+        } catch (IOException e) {
+            logger.error("Could not abort chunked upload {}", uploadId, e);
+            return chunkedUploadError(HttpStatus.INTERNAL_SERVER_ERROR, "Eroare la anularea încărcării");
+        }
+    }
+
+    private ResponseEntity<Object> chunkedUploadError(HttpStatus status, String message) {
+        Map<String, Object> errorResponse = new HashMap<>();
+        errorResponse.put("error", message);
+        errorResponse.put("status", "error");
+        return ResponseEntity.status(status).body(errorResponse);
+    }
+
     @PostMapping("/reorder")
     public ResponseEntity<Map<String, Object>> reorderImages(@RequestBody List<Map<String, Object>> imagePositions) {
         try {
@@ -308,6 +408,7 @@ public class ImagineController {
                 return ResponseEntity.badRequest().body(errorResponse);
             }
             
+            Map<Integer, Integer> positions = new LinkedHashMap<>();
             for (Map<String, Object> imagePosition : imagePositions) {
                 Integer imageId = (Integer) imagePosition.get("id");
                 Integer newPosition = (Integer) imagePosition.get("position");
@@ -319,18 +420,26 @@ public class ImagineController {
                     return ResponseEntity.badRequest().body(errorResponse);
                 }
                 
-                Imagine image = imagineService.findImageById(imageId);
-                if (image != null) {
-                    image.setPosition(newPosition);
-                    imagineService.updateImage(image);
+                if (positions.put(imageId, newPosition) != null) {
+                    Map<String, Object> errorResponse = new HashMap<>();
+                    errorResponse.put("error", "Imaginea cu ID-ul " + imageId + " apare de mai multe ori");
+                    errorResponse.put("status", "error");
+                    return ResponseEntity.badRequest().body(errorResponse);
                 }
             }
             
+            imagineService.reorderImages(positions);
+            
             Map<String, Object> response = new HashMap<>();
             response.put("message", "Ordinea imaginilor a fost actualizată cu succes");
             response.put("status", "success");
             return ResponseEntity.ok(response);
             
+        } catch (IllegalArgumentException e) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("error", e.getMessage());
+            errorResponse.put("status", "error");
+            return ResponseEntity.badRequest().body(errorResponse);
         } catch (Exception e) {
             logger.error("Error reordering images", e);
             Map<String, Object> errorResponse = new HashMap<>();
@@ -340,10 +449,20 @@ public class ImagineController {
         }
     }
 
-    @GetMapping("/uploads/{filename}")
-    public ResponseEntity<Resource> getImage(@PathVariable String filename) {
+    /**
+     * Serve an uploaded image, either a content-addressed path (ab/cd/{digest}.jpg)
+     * or a file name from before the content-addressed store. With ?w= the smallest
+     * generated copy at least that wide is returned, falling back to the original.
+     */
+    @GetMapping("/uploads/{*path}")
+    public ResponseEntity<Resource> getImage(@PathVariable String path,
+                                             @RequestParam(value = "w", required = false) Integer width) {
         try {
-            Path filePath = Paths.get("uploads/").resolve(filename).normalize();
+            String relativePath = path.startsWith("/") ? path.substring(1) : path;
+            Path filePath = uploadStore.resolve(relativePath);
+            if (width != null && width > 0) {
+                filePath = imageDerivativeService.findDerivative(relativePath, width).orElse(filePath);
+            }
             Resource resource = new UrlResource(filePath.toUri());
 
             if (resource.exists() && resource.isReadable()) {
@@ -355,6 +474,8 @@ public class ImagineController {
             } else {
                 return ResponseEntity.notFound().build();
             }
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
         } catch (Exception e) {
             return ResponseEntity.internalServerError().build();
         }
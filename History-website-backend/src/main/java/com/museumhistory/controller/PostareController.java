@@ -1,11 +1,16 @@
 package com.museumhistory.controller;
 
 import com.museumhistory.model.Postare;
+import com.museumhistory.pagination.CursorPage;
+import com.museumhistory.pagination.NdjsonExporter;
 import com.museumhistory.service.PostareService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.dao.EmptyResultDataAccessException;
 import org.slf4j.Logger;
@@ -24,12 +29,37 @@ public class PostareController {
     @Autowired
     private PostareService postareService;
 
+    @Autowired
+    private NdjsonExporter ndjsonExporter;
+
     @GetMapping
-    public ResponseEntity<Object> getAllPosts(){
+    public ResponseEntity<Object> getAllPosts(@RequestParam(required = false) String cursor,
+                                              @RequestParam(required = false) Integer limit,
+                                              @RequestParam(required = false) String view){
         try {
+            // view=summary lists PostareSummary rows; the full post is served by /{id}
+            if ("summary".equals(view)) {
+                logger.debug("Fetching post summaries after cursor: {}", cursor);
+                return cursor != null || limit != null
+                        ? ResponseEntity.ok(postareService.getPostSummariesPage(cursor, limit))
+                        : ResponseEntity.ok(postareService.getPostSummaries());
+            }
+
+            // Without cursor/limit the full list is returned, as before
+            if (cursor != null || limit != null) {
+                logger.debug("Fetching page of posts after cursor: {}", cursor);
+                return ResponseEntity.ok(postareService.getPostsPage(cursor, limit));
+            }
+
             logger.debug("Fetching all posts");
             List<Postare> posts = postareService.getAllPosts();
             return ResponseEntity.ok(posts);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Invalid cursor for posts: {}", cursor);
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("error", "Cursorul de paginare nu este valid");
+            errorResponse.put("status", "error");
+            return ResponseEntity.badRequest().body(errorResponse);
         } catch (Exception e) {
             logger.error("Error fetching all posts", e);
             Map<String, Object> errorResponse = new HashMap<>();
@@ -39,6 +69,15 @@ public class PostareController {
         }
     }
 
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportPosts() {
+        logger.info("Exporting all posts as NDJSON");
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(NdjsonExporter.MEDIA_TYPE))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"postari.ndjson\"")
+                .body(ndjsonExporter.export(postareService::streamAllPosts));
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<Object> getPostById(@PathVariable Integer id){
         try {
@@ -72,7 +111,9 @@ public class PostareController {
     }
     
     @GetMapping("/sectiune/{sectiuneId}")
-    public ResponseEntity<Object> getPostsBySectiune(@PathVariable Integer sectiuneId) {
+    public ResponseEntity<Object> getPostsBySectiune(@PathVariable Integer sectiuneId,
+                                                     @RequestParam(required = false) String cursor,
+                                                     @RequestParam(required = false) Integer limit) {
         try {
             if (sectiuneId == null || sectiuneId <= 0) {
                 logger.warn("Invalid sectiune ID provided: {}", sectiuneId);
@@ -82,9 +123,22 @@ public class PostareController {
                 return ResponseEntity.badRequest().body(errorResponse);
             }
             
+            // Without cursor/limit the full list is returned, as before
+            if (cursor != null || limit != null) {
+                logger.debug("Fetching page of posts for sectiune ID: {} after cursor: {}", sectiuneId, cursor);
+                CursorPage<Postare> page = postareService.getPostsBySectiuneIdPage(sectiuneId, cursor, limit);
+                return ResponseEntity.ok(page);
+            }
+
             logger.debug("Fetching posts for sectiune ID: {}", sectiuneId);
             List<Postare> posts = postareService.getPostsBySectiuneId(sectiuneId);
             return ResponseEntity.ok(posts);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Invalid cursor for sectiune ID {}: {}", sectiuneId, cursor);
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("error", "Cursorul de paginare nu este valid");
+            errorResponse.put("status", "error");
+            return ResponseEntity.badRequest().body(errorResponse);
         } catch (Exception e) {
             logger.error("Error fetching posts for sectiune ID: " + sectiuneId, e);
             Map<String, Object> errorResponse = new HashMap<>();
@@ -1,12 +1,18 @@
 package com.museumhistory.controller;
 
 import com.museumhistory.model.Rezervare;
+import com.museumhistory.pagination.NdjsonExporter;
+import com.museumhistory.service.EmailOutboxService;
 import com.museumhistory.service.RezervareService;
+import com.museumhistory.service.SlotFullException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.dao.EmptyResultDataAccessException;
 import org.slf4j.Logger;
@@ -25,20 +31,48 @@ public class RezervareController {
 
     @Autowired
     private RezervareService rezervareService;
+
+    @Autowired
+    private EmailOutboxService emailOutboxService;
+
+    @Autowired
+    private NdjsonExporter ndjsonExporter;
     
 
     @GetMapping
-    public ResponseEntity<List<Rezervare>> getAllBookings(){
+    public ResponseEntity<Object> getAllBookings(@RequestParam(required = false) String cursor,
+                                                 @RequestParam(required = false) Integer limit){
         try {
+            // Without cursor/limit the full list is returned, as before
+            if (cursor != null || limit != null) {
+                logger.debug("Fetching page of bookings after cursor: {}", cursor);
+                return ResponseEntity.ok(rezervareService.getBookingsPage(cursor, limit));
+            }
+
             logger.debug("Fetching all bookings");
             List<Rezervare> bookings = rezervareService.getAllBookings();
             return ResponseEntity.ok(bookings);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Invalid cursor for bookings: {}", cursor);
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("error", "Cursorul de paginare nu este valid");
+            errorResponse.put("status", "error");
+            return ResponseEntity.badRequest().body(errorResponse);
         } catch (Exception e) {
             logger.error("Error fetching bookings", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(null);
         }
     }
 
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportBookings() {
+        logger.info("Exporting all bookings as NDJSON");
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(NdjsonExporter.MEDIA_TYPE))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"rezervari.ndjson\"")
+                .body(ndjsonExporter.export(rezervareService::streamAllBookings));
+    }
+
     @GetMapping("/all")
     public ResponseEntity<Object> getAllBookingsForStatistics(){
         try {
@@ -133,6 +167,12 @@ public class RezervareController {
             
             return ResponseEntity.status(HttpStatus.CREATED).body(response);
             
+        } catch (SlotFullException e) {
+            logger.warn("Slot full while creating booking: {}", e.getMessage());
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("error", e.getMessage());
+            errorResponse.put("status", "error");
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(errorResponse);
         } catch (DataIntegrityViolationException e) {
             logger.error("Data integrity violation while creating booking", e);
             Map<String, Object> errorResponse = new HashMap<>();
@@ -218,6 +258,12 @@ public class RezervareController {
             response.put("status", "success");
             return ResponseEntity.ok(response);
             
+        } catch (SlotFullException e) {
+            logger.warn("Slot full while updating booking: {}", e.getMessage());
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("error", e.getMessage());
+            errorResponse.put("status", "error");
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(errorResponse);
         } catch (DataIntegrityViolationException e) {
             logger.error("Data integrity violation while updating booking: " + updatedBooking.getId(), e);
             Map<String, Object> errorResponse = new HashMap<>();
@@ -417,5 +463,21 @@ public class RezervareController {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
         }
     }
-    
+
+    @GetMapping("/email-outbox")
+    public ResponseEntity<Map<String, Object>> getEmailOutboxStats() {
+        try {
+            logger.debug("Fetching email outbox statistics");
+            Map<String, Object> response = new HashMap<>(emailOutboxService.getStats());
+            response.put("status", "success");
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            logger.error("Error fetching email outbox statistics", e);
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("error", "Nu s-au putut încărca statisticile cozii de email-uri");
+            errorResponse.put("status", "error");
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
+        }
+    }
+
 }
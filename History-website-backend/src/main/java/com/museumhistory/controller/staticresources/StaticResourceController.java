@@ -1,20 +1,31 @@
 package com.museumhistory.controller.staticresources;
 
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.FileSystemResource;
 import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.core.io.support.ResourcePatternResolver;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRange;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.net.URLDecoder;
 import java.nio.charset.StandardCharsets;
-import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 
 @RestController
 @RequestMapping("/api/staticresources")
@@ -23,8 +34,17 @@ public class StaticResourceController {
 
     private static final Logger logger = LoggerFactory.getLogger(StaticResourceController.class);
 
+    // Request attributes understood by Tomcat's NIO connector
+    private static final String SENDFILE_SUPPORTED_ATTR = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME_ATTR = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START_ATTR = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END_ATTR = "org.apache.tomcat.sendfile.end";
+
+    private final ResourcePatternResolver resourceResolver = new PathMatchingResourcePatternResolver();
+
     @GetMapping("/images/{folder}/{filename}")
-    public ResponseEntity<byte[]> getImage(@PathVariable String folder, @PathVariable String filename) {
+    public ResponseEntity<Resource> getImage(@PathVariable String folder, @PathVariable String filename,
+                                             HttpServletRequest request, ServletWebRequest webRequest) {
         try {
             // Validate input parameters
             if (folder == null || folder.trim().isEmpty()) {
@@ -67,14 +87,30 @@ public class StaticResourceController {
                 return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
             }
             
-            byte[] imageBytes = Files.readAllBytes(resource.getFile().toPath());
-            String contentType = determineContentType(decodedFilename);
+            // Works for exploded directories and for entries inside the packaged jar
+            long length = resource.contentLength();
+            long lastModified = resource.lastModified();
+            String etag = "\"" + Long.toHexString(lastModified) + "-" + Long.toHexString(length) + "\"";
+            
+            if (webRequest.checkNotModified(etag, lastModified)) {
+                // 304 with ETag/Last-Modified has already been set on the response
+                return null;
+            }
+            
+            MediaType contentType = MediaType.parseMediaType(determineContentType(decodedFilename));
             
-            logger.debug("Successfully loaded image: {} ({} bytes)", imagePath, imageBytes.length);
+            if (resource.isFile() && isSendfileSupported(request)) {
+                return sendfile(resource.getFile().toPath(), length, etag, lastModified, contentType, request);
+            }
             
+            // Inside a jar: streamed from the entry's InputStream, Range requests are served as ResourceRegions
+            logger.debug("Streaming image: {} ({} bytes)", imagePath, length);
             return ResponseEntity.ok()
-                    .contentType(MediaType.parseMediaType(contentType))
-                    .body(imageBytes);
+                    .contentType(contentType)
+                    .header(HttpHeaders.ACCEPT_RANGES, "bytes")
+                    .eTag(etag)
+                    .lastModified(lastModified)
+                    .body(resource);
                     
         } catch (SecurityException e) {
             logger.error("Security error while loading image: folder={}, filename={}", folder, filename, e);
@@ -87,6 +123,69 @@ public class StaticResourceController {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
+
+    /**
+     * Hand the file to the servlet container, which copies it to the socket with
+     * sendfile; only headers go through the application. Honours a single Range.
+     */
+    private ResponseEntity<Resource> sendfile(Path file, long length, String etag, long lastModified,
+                                              MediaType contentType, HttpServletRequest request) {
+        long start = 0;
+        long end = length - 1;
+        HttpStatus status = HttpStatus.OK;
+
+        String rangeHeader = request.getHeader(HttpHeaders.RANGE);
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (rangeHeader != null && (ifRange == null || ifRange.equals(etag))) {
+            List<HttpRange> ranges;
+            try {
+                ranges = HttpRange.parseRanges(rangeHeader);
+            } catch (IllegalArgumentException e) {
+                // A malformed Range header is ignored and the whole file is sent
+                ranges = List.of();
+            }
+            // Several ranges need a multipart body; that is left to the streaming path
+            if (ranges.size() > 1) {
+                return ResponseEntity.ok()
+                        .contentType(contentType)
+                        .eTag(etag)
+                        .lastModified(lastModified)
+                        .body(new FileSystemResource(file));
+            }
+            if (ranges.size() == 1) {
+                try {
+                    start = ranges.get(0).getRangeStart(length);
+                    end = ranges.get(0).getRangeEnd(length);
+                    status = HttpStatus.PARTIAL_CONTENT;
+                } catch (IllegalArgumentException e) {
+                    return ResponseEntity.status(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE)
+                            .header(HttpHeaders.CONTENT_RANGE, "bytes */" + length)
+                            .build();
+                }
+            }
+        }
+
+        request.setAttribute(SENDFILE_FILENAME_ATTR, file.toAbsolutePath().toString());
+        request.setAttribute(SENDFILE_START_ATTR, start);
+        // Exclusive end offset
+        request.setAttribute(SENDFILE_END_ATTR, end + 1);
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.status(status)
+                .contentType(contentType)
+                .contentLength(end - start + 1)
+                .header(HttpHeaders.ACCEPT_RANGES, "bytes")
+                .eTag(etag)
+                .lastModified(lastModified);
+        if (status == HttpStatus.PARTIAL_CONTENT) {
+            response.header(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+        }
+        return response.build();
+    }
+
+    private boolean isSendfileSupported(HttpServletRequest request) {
+        return HttpMethod.GET.matches(request.getMethod())
+                && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORTED_ATTR));
+    }
     
     @GetMapping("/images/{folder}")
     public ResponseEntity<Object> getImagesFromFolder(@PathVariable String folder) {
@@ -133,7 +232,7 @@ public class StaticResourceController {
                 return ResponseEntity.status(HttpStatus.NOT_FOUND).body(errorResponse);
             }
             
-            if (!resource.getFile().isDirectory()) {
+            if (resource.isFile() && !resource.getFile().isDirectory()) {
                 logger.warn("Resource is not a directory: {}", folderPath);
                 Map<String, Object> errorResponse = new HashMap<>();
                 errorResponse.put("error", "Resursa specificată nu este un folder");
@@ -141,11 +240,13 @@ public class StaticResourceController {
                 return ResponseEntity.badRequest().body(errorResponse);
             }
             
-            String[] fileNames = resource.getFile().list();
-            
-            if (fileNames == null) {
-                fileNames = new String[0];
-            }
+            // Pattern lookup instead of File.list(), so the listing also works inside the packaged jar
+            String[] fileNames = Arrays.stream(resourceResolver.getResources("classpath:" + folderPath + "/*"))
+                    .filter(Resource::isReadable)
+                    .map(Resource::getFilename)
+                    .filter(Objects::nonNull)
+                    .sorted()
+                    .toArray(String[]::new);
             
             logger.debug("Successfully listed {} files in folder: {}", fileNames.length, folderPath);
             
@@ -15,9 +15,17 @@ import java.util.List;
 @AllArgsConstructor
 @Getter
 @Setter
-@Inheritance(strategy = InheritanceType.JOINED)
+// Exhibitions share the evenimente table, see db/evenimente-single-table.sql for the migration from JOINED
+@Inheritance(strategy = InheritanceType.SINGLE_TABLE)
+@DiscriminatorColumn(name = "tip_eveniment", discriminatorType = DiscriminatorType.STRING)
+@DiscriminatorValue("EVENIMENT")
 @Entity
-@Table(name = "evenimente")
+@Table(name = "evenimente",
+        indexes = {
+                @Index(name = "idx_evenimente_tip_eveniment_tip", columnList = "tip_eveniment, tip"),
+                @Index(name = "idx_evenimente_start_date", columnList = "start_date"),
+                @Index(name = "idx_evenimente_end_date", columnList = "end_date")
+        })
 public class Eveniment {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
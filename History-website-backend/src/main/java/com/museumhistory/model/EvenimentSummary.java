@@ -0,0 +1,23 @@
+package com.museumhistory.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * List view of an event: description cut to EXCERPT_LENGTH characters by the
+ * database and only the path of the first image. The full event is served by /api/events/{id}.
+ */
+public record EvenimentSummary(Integer id, String name, LocalDateTime startDate, LocalDateTime endDate,
+                               String location, String description, String coverImage) {
+
+    public static final int EXCERPT_LENGTH = 200;
+
+    // Repository projection; the cover image is looked up separately
+    public EvenimentSummary(Integer id, String name, LocalDateTime startDate, LocalDateTime endDate,
+                            String location, String description) {
+        this(id, name, startDate, endDate, location, description, null);
+    }
+
+    public EvenimentSummary withCoverImage(String coverImage) {
+        return new EvenimentSummary(id, name, startDate, endDate, location, description, coverImage);
+    }
+}
@@ -0,0 +1,33 @@
+package com.museumhistory.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDate;
+
+/**
+ * One row per day that has events, locked while an event is created on or moved
+ * to that day, so the per-day limit is checked and applied atomically across nodes.
+ */
+@Entity
+@Table(name = "event_day_lock", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_event_day_lock_date", columnNames = "event_date")
+})
+@NoArgsConstructor
+@Getter
+@Setter
+public class EventDayLock {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Integer id;
+
+    @Column(name = "event_date", nullable = false)
+    private LocalDate eventDate;
+
+    public EventDayLock(LocalDate eventDate) {
+        this.eventDate = eventDate;
+    }
+}
@@ -1,5 +1,6 @@
 package com.museumhistory.model;
 
+import jakarta.persistence.DiscriminatorValue;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
@@ -9,6 +10,7 @@ import lombok.Setter;
 @Getter
 @Setter
 @Entity
+@DiscriminatorValue("EXPOZITIE")
 public class Expozitie extends Eveniment {
     
     public enum TipExpozitie {
@@ -0,0 +1,21 @@
+package com.museumhistory.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * List view of an exhibition, see EvenimentSummary. The full exhibition is served by /api/exhibitions/{id}.
+ */
+public record ExpozitieSummary(Integer id, String name, LocalDateTime startDate, LocalDateTime endDate,
+                               String location, String description, Expozitie.TipExpozitie tip,
+                               String coverImage) {
+
+    // Repository projection; the cover image is looked up separately
+    public ExpozitieSummary(Integer id, String name, LocalDateTime startDate, LocalDateTime endDate,
+                            String location, String description, Expozitie.TipExpozitie tip) {
+        this(id, name, startDate, endDate, location, description, tip, null);
+    }
+
+    public ExpozitieSummary withCoverImage(String coverImage) {
+        return new ExpozitieSummary(id, name, startDate, endDate, location, description, tip, coverImage);
+    }
+}
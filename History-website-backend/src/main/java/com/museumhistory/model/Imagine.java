@@ -1,5 +1,6 @@
 package com.museumhistory.model;
 
+import jakarta.persistence.Convert;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
@@ -9,6 +10,9 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 
+import java.util.ArrayList;
+import java.util.List;
+
 @Entity
 @NoArgsConstructor
 @AllArgsConstructor
@@ -21,4 +25,8 @@ public class Imagine {
     private String path;
     private String description;
     private Integer position = 0; // Default position for ordering images
+
+    // Widths of the resized copies generated after upload, ascending
+    @Convert(converter = IntegerListConverter.class)
+    private List<Integer> availableWidths = new ArrayList<>();
 }
@@ -0,0 +1,35 @@
+package com.museumhistory.model;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Stores a short list of integers as a comma separated column, e.g. "320,800,1600".
+ */
+@Converter
+public class IntegerListConverter implements AttributeConverter<List<Integer>, String> {
+
+    @Override
+    public String convertToDatabaseColumn(List<Integer> values) {
+        if (values == null || values.isEmpty()) {
+            return null;
+        }
+        return values.stream().map(String::valueOf).collect(Collectors.joining(","));
+    }
+
+    @Override
+    public List<Integer> convertToEntityAttribute(String column) {
+        if (column == null || column.isBlank()) {
+            return new ArrayList<>();
+        }
+        return Arrays.stream(column.split(","))
+                .map(String::trim)
+                .map(Integer::valueOf)
+                .collect(Collectors.toCollection(ArrayList::new));
+    }
+}
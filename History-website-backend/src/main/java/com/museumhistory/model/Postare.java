@@ -11,6 +11,7 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity
+@Table(indexes = @Index(name = "idx_postare_sectiune_id", columnList = "sectiune_id"))
 @NoArgsConstructor
 @AllArgsConstructor
 @Getter
@@ -0,0 +1,22 @@
+package com.museumhistory.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * List view of a post: description cut to EXCERPT_LENGTH characters by the
+ * database and only the path of the first image. The full post is served by /api/posts/{id}.
+ */
+public record PostareSummary(Integer id, String description, LocalDateTime createdAt, Integer sectiuneId,
+                             String coverImage) {
+
+    public static final int EXCERPT_LENGTH = 200;
+
+    // Repository projection; the cover image is looked up separately
+    public PostareSummary(Integer id, String description, LocalDateTime createdAt, Integer sectiuneId) {
+        this(id, description, createdAt, sectiuneId, null);
+    }
+
+    public PostareSummary withCoverImage(String coverImage) {
+        return new PostareSummary(id, description, createdAt, sectiuneId, coverImage);
+    }
+}
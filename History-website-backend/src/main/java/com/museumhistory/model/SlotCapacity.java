@@ -0,0 +1,42 @@
+package com.museumhistory.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDate;
+
+/**
+ * Bookings taken in one visiting slot. Rows are only changed with conditional
+ * updates, see SlotCapacityRepository, so concurrent bookings of a slot queue
+ * on its row instead of on a global lock.
+ */
+@Entity
+@Table(name = "slot_capacity", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_slot_capacity_slot", columnNames = {"slot_date", "start_hour"})
+})
+@NoArgsConstructor
+@Getter
+@Setter
+public class SlotCapacity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Integer id;
+
+    @Column(name = "slot_date", nullable = false)
+    private LocalDate slotDate;
+
+    @Column(name = "start_hour", nullable = false)
+    private Integer startHour;
+
+    @Column(nullable = false)
+    private Integer booked;
+
+    public SlotCapacity(LocalDate slotDate, Integer startHour, Integer booked) {
+        this.slotDate = slotDate;
+        this.startHour = startHour;
+        this.booked = booked;
+    }
+}
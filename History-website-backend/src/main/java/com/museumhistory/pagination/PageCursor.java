@@ -0,0 +1,89 @@
+package com.museumhistory.pagination;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Opaque cursors for keyset pagination over ascending ids.
+ *
+ * Clients get the cursor as a URL-safe token and send it back unchanged;
+ * its content (the last id returned) is an implementation detail.
+ */
+public final class PageCursor {
+
+    public static final int DEFAULT_LIMIT = 20;
+    public static final int MAX_LIMIT = 100;
+
+    private static final String PREFIX = "id:";
+
+    private PageCursor() {
+    }
+
+    public static String encode(Integer lastId) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((PREFIX + lastId).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @return the last id of the previous page, or 0 when cursor is empty (first page)
+     * @throws IllegalArgumentException if the cursor was not produced by encode()
+     */
+    public static int decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return 0;
+        }
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (!value.startsWith(PREFIX)) {
+                throw new IllegalArgumentException("Cursor invalid: " + cursor);
+            }
+            int lastId = Integer.parseInt(value.substring(PREFIX.length()));
+            if (lastId < 0) {
+                throw new IllegalArgumentException("Cursor invalid: " + cursor);
+            }
+            return lastId;
+        } catch (IllegalArgumentException e) {
+            // NumberFormatException and Base64 errors are both IllegalArgumentExceptions
+            throw new IllegalArgumentException("Cursor invalid: " + cursor, e);
+        }
+    }
+
+    /**
+     * Clamp the requested page size to [1, MAX_LIMIT], DEFAULT_LIMIT when missing.
+     */
+    public static int resolveLimit(Integer requested) {
+        if (requested == null) {
+            return DEFAULT_LIMIT;
+        }
+        return Math.max(1, Math.min(requested, MAX_LIMIT));
+    }
+
+    /**
+     * Build a page from up to limit + 1 rows fetched in id order; the extra row
+     * only signals that another page exists.
+     */
+    public static <T> CursorPage<T> toPage(List<T> rows, int limit, Function<T, Integer> idOf) {
+        boolean hasMore = rows.size() > limit;
+        List<T> items = hasMore ? rows.subList(0, limit) : rows;
+        String nextCursor = hasMore ? encode(idOf.apply(items.get(items.size() - 1))) : null;
+        return new CursorPage<>(List.copyOf(items), nextCursor, hasMore);
+    }
+
+    /**
+     * Run a keyset query for the page after cursor. The query receives the last
+     * id of the previous page and a Pageable sized limit + 1.
+     */
+    public static <T> CursorPage<T> fetch(String cursor, Integer limit,
+                                          BiFunction<Integer, Pageable, List<T>> query,
+                                          Function<T, Integer> idOf) {
+        int afterId = decode(cursor);
+        int pageSize = resolveLimit(limit);
+        return toPage(query.apply(afterId, PageRequest.of(0, pageSize + 1)), pageSize, idOf);
+    }
+}
@@ -0,0 +1,44 @@
+package com.museumhistory.repository;
+
+import com.museumhistory.model.EmailOutbox;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface EmailOutboxRepository extends JpaRepository<EmailOutbox, Integer> {
+
+    @Query("SELECT o FROM EmailOutbox o WHERE o.status = com.museumhistory.model.EmailOutbox.Status.PENDING " +
+           "AND o.nextAttemptAt <= :now ORDER BY o.nextAttemptAt ASC, o.id ASC")
+    List<EmailOutbox> findDueMessages(@Param("now") LocalDateTime now, Pageable pageable);
+
+    long countByStatus(EmailOutbox.Status status);
+
+    // Conditional update so only one worker can take a message, even with several instances running
+    @Transactional
+    @Modifying
+    @Query("UPDATE EmailOutbox o SET o.status = com.museumhistory.model.EmailOutbox.Status.SENDING, o.claimedAt = :now " +
+           "WHERE o.id = :id AND o.status = com.museumhistory.model.EmailOutbox.Status.PENDING")
+    int claim(@Param("id") Integer id, @Param("now") LocalDateTime now);
+
+    // Messages left in SENDING by a crashed instance; recent claims may still be in delivery on a live one
+    @Transactional
+    @Modifying
+    @Query("UPDATE EmailOutbox o SET o.status = com.museumhistory.model.EmailOutbox.Status.PENDING " +
+           "WHERE o.status = com.museumhistory.model.EmailOutbox.Status.SENDING " +
+           "AND (o.claimedAt IS NULL OR o.claimedAt < :claimedBefore)")
+    int requeueInterrupted(@Param("claimedBefore") LocalDateTime claimedBefore);
+
+    // Messages of bookings removed by retention; the drain would only mark them FAILED
+    @Modifying
+    @Query("DELETE FROM EmailOutbox o WHERE o.bookingId IN :bookingIds")
+    int deleteByBookingIdIn(@Param("bookingIds") Collection<Integer> bookingIds);
+}
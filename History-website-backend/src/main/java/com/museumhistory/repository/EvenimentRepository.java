@@ -1,25 +1,67 @@
 package com.museumhistory.repository;
 
 import com.museumhistory.model.Eveniment;
+import com.museumhistory.model.EvenimentSummary;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface EvenimentRepository extends JpaRepository<Eveniment, Integer> {
+
+    String SUMMARY_SELECT = "SELECT new com.museumhistory.model.EvenimentSummary(e.id, e.name, e.startDate, " +
+            "e.endDate, e.location, SUBSTRING(e.description, 1, " + EvenimentSummary.EXCERPT_LENGTH + ")) " +
+            "FROM Eveniment e ";
     
-    @Query("SELECT COUNT(e) FROM Eveniment e WHERE DATE(e.startDate) = :date")
-    long countEventsByDate(@Param("date") LocalDate date);
-    
-    @Query("SELECT COUNT(e) FROM Eveniment e WHERE DATE(e.startDate) = :date AND e.id != :eventId")
-    long countEventsByDateExcludingEvent(@Param("date") LocalDate date, @Param("eventId") Integer eventId);
-    
-    @Query("SELECT e FROM Eveniment e WHERE DATE(e.startDate) = :date")
-    List<Eveniment> findEventsByDate(@Param("date") LocalDate date);
+    // Day lookups are half-open ranges on start_date, so they can use idx_evenimente_start_date
+    default long countEventsByDate(LocalDate date) {
+        return countEventsStartingBetween(date.atStartOfDay(), date.plusDays(1).atStartOfDay());
+    }
+
+    default long countEventsByDateExcludingEvent(LocalDate date, Integer eventId) {
+        return countEventsStartingBetweenExcludingEvent(date.atStartOfDay(), date.plusDays(1).atStartOfDay(), eventId);
+    }
+
+    default List<Eveniment> findEventsByDate(LocalDate date) {
+        return findEventsStartingBetween(date.atStartOfDay(), date.plusDays(1).atStartOfDay());
+    }
+
+    @Query("SELECT COUNT(e) FROM Eveniment e WHERE e.startDate >= :from AND e.startDate < :to")
+    long countEventsStartingBetween(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    @Query("SELECT COUNT(e) FROM Eveniment e WHERE e.startDate >= :from AND e.startDate < :to AND e.id <> :eventId")
+    long countEventsStartingBetweenExcludingEvent(
+            @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to,
+            @Param("eventId") Integer eventId);
+
+    @Query("SELECT e FROM Eveniment e WHERE e.startDate >= :from AND e.startDate < :to ORDER BY e.startDate")
+    List<Eveniment> findEventsStartingBetween(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    // Events overlapping [from, to) with their images, for a calendar view; an event without
+    // endDate lasts an instant. Each side of the overlap test has its own index.
+    @Query("SELECT DISTINCT e FROM Eveniment e LEFT JOIN FETCH e.images " +
+           "WHERE e.startDate < :to AND (e.endDate >= :from OR (e.endDate IS NULL AND e.startDate >= :from)) " +
+           "ORDER BY e.startDate, e.id")
+    List<Eveniment> findEventsOverlappingWithImages(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    // Ids of the next events starting at or after from; images are fetched separately so the limit applies to events
+    @Query("SELECT e.id FROM Eveniment e WHERE e.startDate >= :from ORDER BY e.startDate, e.id")
+    List<Integer> findIdsStartingFrom(@Param("from") LocalDateTime from, Pageable limit);
+
+    @Query("SELECT DISTINCT e FROM Eveniment e LEFT JOIN FETCH e.images WHERE e.id IN :ids ORDER BY e.startDate, e.id")
+    List<Eveniment> findWithImagesByIdIn(@Param("ids") Collection<Integer> ids);
     
     @Query("SELECT e FROM Eveniment e WHERE e.endDate < :cutoffDate")
     List<Eveniment> findEventsOlderThan(@Param("cutoffDate") LocalDate cutoffDate);
@@ -27,4 +69,23 @@ public interface EvenimentRepository extends JpaRepository<Eveniment, Integer> {
     @Query("DELETE FROM Eveniment e WHERE e.endDate < :cutoffDate")
     @org.springframework.data.jpa.repository.Modifying
     int deleteEventsOlderThan(@Param("cutoffDate") LocalDate cutoffDate);
+
+    List<Eveniment> findByIdGreaterThanOrderByIdAsc(Integer afterId, Pageable limit);
+
+    // Next retention batch: plain events (not exhibitions) that ended before the cutoff, in id order;
+    // an event without an end date ends on its start date
+    @Query("SELECT e.id FROM Eveniment e WHERE TYPE(e) = Eveniment AND COALESCE(e.endDate, e.startDate) < :cutoff " +
+           "AND e.id > :afterId ORDER BY e.id")
+    List<Integer> findEndedIdsAfterId(@Param("cutoff") LocalDateTime cutoff, @Param("afterId") int afterId, Pageable limit);
+
+    @Query(SUMMARY_SELECT + "ORDER BY e.id")
+    List<EvenimentSummary> findAllSummaries();
+
+    @Query(SUMMARY_SELECT + "WHERE e.id > :afterId ORDER BY e.id")
+    List<EvenimentSummary> findSummariesAfter(@Param("afterId") int afterId, Pageable limit);
+
+    // Must be consumed inside a transaction and closed afterwards
+    @Query("SELECT e FROM Eveniment e ORDER BY e.id")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "100"))
+    Stream<Eveniment> streamAllByOrderById();
 }
@@ -0,0 +1,28 @@
+package com.museumhistory.repository;
+
+import com.museumhistory.model.EventDayLock;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Optional;
+
+@Repository
+public interface EventDayLockRepository extends JpaRepository<EventDayLock, Integer> {
+
+    boolean existsByEventDate(LocalDate eventDate);
+
+    // SELECT ... FOR UPDATE on the row of one day; held until the transaction ends
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT d FROM EventDayLock d WHERE d.eventDate = :date")
+    Optional<EventDayLock> lockDay(@Param("date") LocalDate date);
+
+    @Modifying
+    @Query("DELETE FROM EventDayLock d WHERE d.eventDate < :date")
+    int deleteBefore(@Param("date") LocalDate date);
+}
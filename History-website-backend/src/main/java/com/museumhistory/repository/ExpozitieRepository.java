@@ -1,12 +1,49 @@
 package com.museumhistory.repository;
 
+import com.museumhistory.model.EvenimentSummary;
 import com.museumhistory.model.Expozitie;
+import com.museumhistory.model.ExpozitieSummary;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface ExpozitieRepository extends JpaRepository<Expozitie, Integer> {
+
+    String SUMMARY_SELECT = "SELECT new com.museumhistory.model.ExpozitieSummary(e.id, e.name, e.startDate, " +
+            "e.endDate, e.location, SUBSTRING(e.description, 1, " + EvenimentSummary.EXCERPT_LENGTH + "), e.tip) " +
+            "FROM Expozitie e ";
+
     List<Expozitie> findByTip(Expozitie.TipExpozitie tip);
+
+    List<Expozitie> findByIdGreaterThanOrderByIdAsc(Integer afterId, Pageable limit);
+
+    List<Expozitie> findByTipAndIdGreaterThanOrderByIdAsc(Expozitie.TipExpozitie tip, Integer afterId, Pageable limit);
+
+    @Query(SUMMARY_SELECT + "ORDER BY e.id")
+    List<ExpozitieSummary> findAllSummaries();
+
+    @Query(SUMMARY_SELECT + "WHERE e.tip = :tip ORDER BY e.id")
+    List<ExpozitieSummary> findSummariesByTip(@Param("tip") Expozitie.TipExpozitie tip);
+
+    @Query(SUMMARY_SELECT + "WHERE e.id > :afterId ORDER BY e.id")
+    List<ExpozitieSummary> findSummariesAfter(@Param("afterId") int afterId, Pageable limit);
+
+    @Query(SUMMARY_SELECT + "WHERE e.tip = :tip AND e.id > :afterId ORDER BY e.id")
+    List<ExpozitieSummary> findSummariesByTipAfter(@Param("tip") Expozitie.TipExpozitie tip,
+                                                   @Param("afterId") int afterId,
+                                                   Pageable limit);
+
+    // Must be consumed inside a transaction and closed afterwards
+    @Query("SELECT e FROM Expozitie e ORDER BY e.id")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "100"))
+    Stream<Expozitie> streamAllByOrderById();
 }
@@ -1,13 +1,31 @@
 package com.museumhistory.repository;
 
 import com.museumhistory.model.Imagine;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
-public interface ImagineRepository extends JpaRepository<Imagine, Integer> {
+public interface ImagineRepository extends JpaRepository<Imagine, Integer>, ImagineRepositoryCustom {
     List<Imagine> findAllByOrderByPositionAsc();
     List<Imagine> findAllByOrderByIdAsc(); // Fallback for existing queries
+
+    // Number of images sharing a stored file, see UploadStore
+    long countByPath(String path);
+
+    Optional<Imagine> findFirstByPathAndIdNot(String path, Integer id);
+
+    // [id, path] rows after afterId, to page through every stored path without loading the images
+    @Query("SELECT i.id, i.path FROM Imagine i WHERE i.id > :afterId ORDER BY i.id")
+    List<Object[]> findPathsAfterId(@Param("afterId") int afterId, Pageable limit);
+
+    // Owning post and event of each image: [id, postare_id, eveniment_id]
+    @Query(value = "SELECT id, postare_id, eveniment_id FROM imagine WHERE id IN (:ids)", nativeQuery = true)
+    List<Object[]> findOwnersByIdIn(@Param("ids") Collection<Integer> ids);
 }
@@ -0,0 +1,26 @@
+package com.museumhistory.repository;
+
+import java.util.Collection;
+import java.util.Map;
+
+public interface ImagineRepositoryCustom {
+
+    /**
+     * Set the position of every given image with a single UPDATE ... CASE statement.
+     * @param positions new position by image id
+     * @return number of rows updated
+     */
+    int updatePositions(Map<Integer, Integer> positions);
+
+    /**
+     * Path of the first image of each event or exhibition, for the list summaries.
+     * Events without images are absent from the map.
+     */
+    Map<Integer, String> findCoverPathsByEvenimentIdIn(Collection<Integer> ids);
+
+    /**
+     * Path of the first image of each post, for the list summaries.
+     * Posts without images are absent from the map.
+     */
+    Map<Integer, String> findCoverPathsByPostareIdIn(Collection<Integer> ids);
+}
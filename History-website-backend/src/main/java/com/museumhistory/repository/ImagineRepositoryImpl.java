@@ -0,0 +1,85 @@
+package com.museumhistory.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+class ImagineRepositoryImpl implements ImagineRepositoryCustom {
+
+    // Keeps each statement well below the bind parameter limits of PostgreSQL and H2
+    private static final int MAX_IMAGES_PER_STATEMENT = 500;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public int updatePositions(Map<Integer, Integer> positions) {
+        if (positions.isEmpty()) {
+            return 0;
+        }
+        entityManager.flush();
+
+        List<Map.Entry<Integer, Integer>> entries = new ArrayList<>(positions.entrySet());
+        int updated = 0;
+        for (int start = 0; start < entries.size(); start += MAX_IMAGES_PER_STATEMENT) {
+            List<Map.Entry<Integer, Integer>> batch =
+                    entries.subList(start, Math.min(start + MAX_IMAGES_PER_STATEMENT, entries.size()));
+
+            StringBuilder jpql = new StringBuilder("UPDATE Imagine i SET i.position = CASE i.id");
+            for (int index = 0; index < batch.size(); index++) {
+                jpql.append(" WHEN :id").append(index).append(" THEN :position").append(index);
+            }
+            jpql.append(" ELSE i.position END WHERE i.id IN :ids");
+
+            var query = entityManager.createQuery(jpql.toString());
+            List<Integer> ids = new ArrayList<>(batch.size());
+            for (int index = 0; index < batch.size(); index++) {
+                query.setParameter("id" + index, batch.get(index).getKey());
+                query.setParameter("position" + index, batch.get(index).getValue());
+                ids.add(batch.get(index).getKey());
+            }
+            query.setParameter("ids", ids);
+            updated += query.executeUpdate();
+        }
+
+        // Images loaded earlier in this persistence context still hold the old positions
+        entityManager.clear();
+        return updated;
+    }
+
+    @Override
+    public Map<Integer, String> findCoverPathsByEvenimentIdIn(Collection<Integer> ids) {
+        return findCoverPaths("eveniment_id", ids);
+    }
+
+    @Override
+    public Map<Integer, String> findCoverPathsByPostareIdIn(Collection<Integer> ids) {
+        return findCoverPaths("postare_id", ids);
+    }
+
+    // One row per owner, the first image in display order, instead of every image of every owner
+    private Map<Integer, String> findCoverPaths(String ownerColumn, Collection<Integer> ids) {
+        Map<Integer, String> covers = new HashMap<>();
+        List<Integer> ownerIds = new ArrayList<>(ids);
+        String sql = "SELECT owner_id, path FROM (" +
+                "SELECT " + ownerColumn + " AS owner_id, path, " +
+                "ROW_NUMBER() OVER (PARTITION BY " + ownerColumn + " ORDER BY position, id) AS image_rank " +
+                "FROM imagine WHERE " + ownerColumn + " IN (:ids)) ranked WHERE image_rank = 1";
+        for (int start = 0; start < ownerIds.size(); start += MAX_IMAGES_PER_STATEMENT) {
+            List<Integer> batch = ownerIds.subList(start, Math.min(start + MAX_IMAGES_PER_STATEMENT, ownerIds.size()));
+            @SuppressWarnings("unchecked")
+            List<Object[]> rows = entityManager.createNativeQuery(sql)
+                    .setParameter("ids", batch)
+                    .getResultList();
+            for (Object[] row : rows) {
+                covers.put(((Number) row[0]).intValue(), (String) row[1]);
+            }
+        }
+        return covers;
+    }
+}
@@ -1,9 +1,61 @@
 package com.museumhistory.repository;
 
 import com.museumhistory.model.Postare;
+import com.museumhistory.model.PostareSummary;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
 @Repository
 public interface PostareRepository extends JpaRepository<Postare, Integer> {
+
+    String SUMMARY_SELECT = "SELECT new com.museumhistory.model.PostareSummary(p.id, " +
+            "SUBSTRING(p.description, 1, " + PostareSummary.EXCERPT_LENGTH + "), p.createdAt, s.id) " +
+            "FROM Postare p LEFT JOIN p.sectiune s ";
+
+    // Posts of a section with their images in a single query, images ordered by position
+    @Query("SELECT DISTINCT p FROM Postare p LEFT JOIN FETCH p.images " +
+           "WHERE p.sectiune.id = :sectiuneId ORDER BY p.id")
+    List<Postare> findBySectiuneIdWithImages(@Param("sectiuneId") Integer sectiuneId);
+
+    // All posts with their images and section in a single query
+    @Query("SELECT DISTINCT p FROM Postare p LEFT JOIN FETCH p.images LEFT JOIN FETCH p.sectiune ORDER BY p.id")
+    List<Postare> findAllWithImages();
+
+    // Images of every post that belongs to a section, for the section list fetch plan
+    @Query("SELECT DISTINCT p FROM Postare p LEFT JOIN FETCH p.images WHERE p.sectiune IS NOT NULL")
+    List<Postare> findAllInSectiuniWithImages();
+
+    // Keyset page of post ids in a section; images are fetched separately so the limit applies to posts
+    @Query("SELECT p.id FROM Postare p WHERE p.sectiune.id = :sectiuneId AND p.id > :afterId ORDER BY p.id")
+    List<Integer> findIdsBySectiuneIdAfter(
+            @Param("sectiuneId") Integer sectiuneId,
+            @Param("afterId") int afterId,
+            Pageable limit);
+
+    @Query("SELECT p.id FROM Postare p WHERE p.id > :afterId ORDER BY p.id")
+    List<Integer> findIdsAfter(@Param("afterId") int afterId, Pageable limit);
+
+    @Query(SUMMARY_SELECT + "ORDER BY p.id")
+    List<PostareSummary> findAllSummaries();
+
+    @Query(SUMMARY_SELECT + "WHERE p.id > :afterId ORDER BY p.id")
+    List<PostareSummary> findSummariesAfter(@Param("afterId") int afterId, Pageable limit);
+
+    @Query("SELECT DISTINCT p FROM Postare p LEFT JOIN FETCH p.images WHERE p.id IN :ids ORDER BY p.id")
+    List<Postare> findWithImagesByIdIn(@Param("ids") Collection<Integer> ids);
+
+    // Must be consumed inside a transaction and closed afterwards
+    @Query("SELECT p FROM Postare p ORDER BY p.id")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "100"))
+    Stream<Postare> streamAllByOrderById();
 }
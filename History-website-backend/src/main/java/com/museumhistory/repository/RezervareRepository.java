@@ -1,24 +1,68 @@
 package com.museumhistory.repository;
 
 import com.museumhistory.model.Rezervare;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.stream.Stream;
 
 @Repository
 public interface RezervareRepository extends JpaRepository<Rezervare, Integer> {
-    @Query("SELECT COUNT(r) FROM Rezervare r WHERE DATE(r.datetime) = :date " +
-           "AND HOUR(r.datetime) >= :startHour AND HOUR(r.datetime) <= :endHour")
-    int countBookingsByDateAndTimeInterval(
-            @Param("date") LocalDate date, 
-            @Param("startHour") int startHour, 
-            @Param("endHour") int endHour);
+    // SELECT ... FOR UPDATE, so concurrent changes of one booking move its slot place one at a time
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM Rezervare r WHERE r.id = :id")
+    Optional<Rezervare> findByIdForUpdate(@Param("id") Integer id);
+
+    // Bookings from startHour:00 up to the end of endHour, as a range on datetime so idx_rezervare_datetime applies
+    default int countBookingsByDateAndTimeInterval(LocalDate date, int startHour, int endHour) {
+        return (int) countBookingsBetween(date.atTime(startHour, 0), date.atStartOfDay().plusHours(endHour + 1L));
+    }
+
+    @Query("SELECT COUNT(r) FROM Rezervare r WHERE r.datetime >= :from AND r.datetime < :to")
+    long countBookingsBetween(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    /**
+     * Booking counts per hour in [from, to), keyed by the start of each hour.
+     * Hours without bookings are absent.
+     */
+    default SortedMap<LocalDateTime, Integer> countByRange(LocalDateTime from, LocalDateTime to) {
+        SortedMap<LocalDateTime, Integer> counts = new TreeMap<>();
+        for (Object[] row : countBookingsPerHourBetween(from, to)) {
+            LocalDateTime hour = LocalDateTime.of(((Number) row[0]).intValue(), ((Number) row[1]).intValue(),
+                    ((Number) row[2]).intValue(), ((Number) row[3]).intValue(), 0);
+            counts.put(hour, ((Number) row[4]).intValue());
+        }
+        return counts;
+    }
+
+    // Per-hour booking counts for a datetime window, one row per (year, month, day, hour)
+    @Query("SELECT YEAR(r.datetime), MONTH(r.datetime), DAY(r.datetime), HOUR(r.datetime), COUNT(r) " +
+           "FROM Rezervare r WHERE r.datetime >= :from AND r.datetime < :to " +
+           "GROUP BY YEAR(r.datetime), MONTH(r.datetime), DAY(r.datetime), HOUR(r.datetime)")
+    List<Object[]> countBookingsPerHourBetween(
+            @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to);
+
+    // Per-hour booking counts for the whole table, used to warm up and reconcile the occupancy index
+    @Query("SELECT YEAR(r.datetime), MONTH(r.datetime), DAY(r.datetime), HOUR(r.datetime), COUNT(r) " +
+           "FROM Rezervare r WHERE r.datetime IS NOT NULL " +
+           "GROUP BY YEAR(r.datetime), MONTH(r.datetime), DAY(r.datetime), HOUR(r.datetime)")
+    List<Object[]> countAllBookingsPerHour();
     
     // Find reservations where visit datetime + 3 days is before current time
     @Query("SELECT r FROM Rezervare r WHERE r.datetime < :cutoffDateTime")
@@ -28,4 +72,21 @@ public interface RezervareRepository extends JpaRepository<Rezervare, Integer> {
     @Modifying
     @Query("DELETE FROM Rezervare r WHERE r.datetime < :cutoffDateTime")
     int deleteExpiredReservations(@Param("cutoffDateTime") LocalDateTime cutoffDateTime);
+
+    List<Rezervare> findByIdGreaterThanOrderByIdAsc(Integer afterId, Pageable limit);
+
+    // Next retention batch: expired bookings after afterId, in id order
+    @Query("SELECT r FROM Rezervare r WHERE r.datetime < :cutoffDateTime AND r.id > :afterId ORDER BY r.id")
+    List<Rezervare> findExpiredAfterId(@Param("cutoffDateTime") LocalDateTime cutoffDateTime,
+                                       @Param("afterId") int afterId, Pageable limit);
+
+    // Deletes one retention batch: only the archived rows, and only if they are still expired
+    @Modifying
+    @Query("DELETE FROM Rezervare r WHERE r.id IN :ids AND r.datetime < :cutoffDateTime")
+    int deleteExpiredByIdIn(@Param("ids") List<Integer> ids, @Param("cutoffDateTime") LocalDateTime cutoffDateTime);
+
+    // Must be consumed inside a transaction and closed afterwards
+    @Query("SELECT r FROM Rezervare r ORDER BY r.id")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "100"))
+    Stream<Rezervare> streamAllByOrderById();
 }
@@ -2,9 +2,25 @@ package com.museumhistory.repository;
 
 import com.museumhistory.model.Sectiune;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+import java.util.Optional;
+
 @Repository
 public interface SectiuneRepository extends JpaRepository<Sectiune, Integer> {
     Sectiune findByTitlu(String titlu);
+
+    // Sections with their posts; Hibernate cannot fetch the posts' images in the same
+    // query (two bags), so SectiuneService loads them with a second query
+    @Query("SELECT DISTINCT s FROM Sectiune s LEFT JOIN FETCH s.postari")
+    List<Sectiune> findAllWithPostari();
+
+    @Query("SELECT DISTINCT s FROM Sectiune s LEFT JOIN FETCH s.postari WHERE s.id = :id")
+    Optional<Sectiune> findByIdWithPostari(@Param("id") Integer id);
+
+    @Query("SELECT DISTINCT s FROM Sectiune s LEFT JOIN FETCH s.postari WHERE s.titlu = :titlu")
+    Optional<Sectiune> findByTitluWithPostari(@Param("titlu") String titlu);
 }
\ No newline at end of file
@@ -0,0 +1,32 @@
+package com.museumhistory.repository;
+
+import com.museumhistory.model.SlotCapacity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+
+@Repository
+public interface SlotCapacityRepository extends JpaRepository<SlotCapacity, Integer> {
+
+    boolean existsBySlotDateAndStartHour(LocalDate slotDate, Integer startHour);
+
+    // Takes a place only while the slot is below capacity; returns 0 when it is full.
+    // The row stays locked until the booking transaction ends.
+    @Modifying
+    @Query("UPDATE SlotCapacity s SET s.booked = s.booked + 1 " +
+           "WHERE s.slotDate = :date AND s.startHour = :hour AND s.booked < :capacity")
+    int incrementIfBelow(@Param("date") LocalDate date, @Param("hour") int hour, @Param("capacity") int capacity);
+
+    @Modifying
+    @Query("UPDATE SlotCapacity s SET s.booked = s.booked - 1 " +
+           "WHERE s.slotDate = :date AND s.startHour = :hour AND s.booked > 0")
+    int decrement(@Param("date") LocalDate date, @Param("hour") int hour);
+
+    @Modifying
+    @Query("DELETE FROM SlotCapacity s WHERE s.slotDate < :date")
+    int deleteBefore(@Param("date") LocalDate date);
+}
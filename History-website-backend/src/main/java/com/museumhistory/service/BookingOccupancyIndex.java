@@ -0,0 +1,245 @@
+package com.museumhistory.service;
+
+import com.museumhistory.repository.RezervareRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory index of booking counts per day and hour, so availability checks
+ * and calendar density do not need to query the rezervare table.
+ *
+ * The index is warmed up once the application is ready, kept up to date by
+ * RezervareService after each committed booking write and periodically reconciled
+ * against the database. Until the warm-up completes, isReady() returns false
+ * and callers should fall back to the repository queries.
+ */
+@Component
+public class BookingOccupancyIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(BookingOccupancyIndex.class);
+
+    private static final int HOURS_PER_DAY = 24;
+
+    @Autowired
+    private RezervareRepository rezervareRepository;
+
+    private final Map<LocalDate, AtomicIntegerArray> hourlyCounts = new ConcurrentHashMap<>();
+
+    // Writers share the read lock; a reconciliation pass takes the write lock to swap in fresh counters
+    private final ReentrantReadWriteLock reconcileLock = new ReentrantReadWriteLock();
+    private final AtomicLong writeVersion = new AtomicLong();
+
+    private volatile boolean ready = false;
+
+    // Days that differed from the database on the last pass, with the database counts seen then
+    private Map<LocalDate, int[]> suspectedDrift = new HashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        try {
+            Map<LocalDate, int[]> snapshot = loadSnapshot();
+            reconcileLock.writeLock().lock();
+            try {
+                hourlyCounts.clear();
+                snapshot.forEach((date, counts) -> hourlyCounts.put(date, new AtomicIntegerArray(counts)));
+                writeVersion.incrementAndGet();
+            } finally {
+                reconcileLock.writeLock().unlock();
+            }
+            ready = true;
+            logger.info("Booking occupancy index warmed up with {} days", snapshot.size());
+        } catch (Exception e) {
+            logger.error("Could not warm up booking occupancy index, falling back to database queries", e);
+        }
+    }
+
+    /**
+     * Re-verify the index against the rezervare table and replace any day whose
+     * counters drifted. A pass is skipped if bookings were written while the
+     * snapshot was being loaded; the next pass will pick it up.
+     *
+     * A booking committed just before the snapshot is only added to the index by
+     * its afterCommit hook, which may run after this pass. A day is therefore only
+     * replaced once it differs with the same database counts on two consecutive
+     * passes; replacing it on the first would count that booking twice.
+     */
+    @Scheduled(fixedDelayString = "${museum.bookings.occupancy-reconcile-ms:900000}",
+               initialDelayString = "${museum.bookings.occupancy-reconcile-ms:900000}")
+    public void reconcile() {
+        if (!ready) {
+            warmUp();
+            return;
+        }
+
+        try {
+            long versionBefore = writeVersion.get();
+            Map<LocalDate, int[]> snapshot = loadSnapshot();
+
+            reconcileLock.writeLock().lock();
+            try {
+                if (writeVersion.get() != versionBefore) {
+                    logger.debug("Bookings changed during reconciliation, skipping this pass");
+                    return;
+                }
+
+                Map<LocalDate, int[]> drifted = new HashMap<>();
+                for (Map.Entry<LocalDate, int[]> entry : snapshot.entrySet()) {
+                    if (!matches(hourlyCounts.get(entry.getKey()), entry.getValue())) {
+                        drifted.put(entry.getKey(), entry.getValue());
+                    }
+                }
+                for (Map.Entry<LocalDate, AtomicIntegerArray> entry : hourlyCounts.entrySet()) {
+                    if (!snapshot.containsKey(entry.getKey()) && !matches(entry.getValue(), new int[HOURS_PER_DAY])) {
+                        drifted.put(entry.getKey(), new int[HOURS_PER_DAY]);
+                    }
+                }
+
+                int replacedDays = 0;
+                for (Map.Entry<LocalDate, int[]> entry : drifted.entrySet()) {
+                    int[] previous = suspectedDrift.get(entry.getKey());
+                    if (previous != null && Arrays.equals(previous, entry.getValue())) {
+                        hourlyCounts.put(entry.getKey(), new AtomicIntegerArray(entry.getValue()));
+                        replacedDays++;
+                    }
+                }
+                hourlyCounts.keySet().removeIf(date -> !snapshot.containsKey(date)
+                        && matches(hourlyCounts.get(date), new int[HOURS_PER_DAY]));
+                suspectedDrift = drifted;
+
+                if (replacedDays > 0) {
+                    logger.warn("Booking occupancy index reconciled, {} days were out of sync", replacedDays);
+                }
+            } finally {
+                reconcileLock.writeLock().unlock();
+            }
+        } catch (Exception e) {
+            logger.error("Booking occupancy index reconciliation failed", e);
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public void recordBooking(LocalDateTime datetime) {
+        adjust(datetime, 1);
+    }
+
+    public void removeBooking(LocalDateTime datetime) {
+        adjust(datetime, -1);
+    }
+
+    /**
+     * Number of bookings on the given date with the hour between startHour and endHour, inclusive.
+     */
+    public int countBookings(LocalDate date, int startHour, int endHour) {
+        AtomicIntegerArray counts = hourlyCounts.get(date);
+        if (counts == null) {
+            return 0;
+        }
+        int total = 0;
+        for (int hour = Math.max(startHour, 0); hour <= Math.min(endHour, HOURS_PER_DAY - 1); hour++) {
+            total += counts.get(hour);
+        }
+        return total;
+    }
+
+    /**
+     * Copy of the per-hour counters for the given date (24 entries).
+     */
+    public int[] getHourlyCounts(LocalDate date) {
+        int[] copy = new int[HOURS_PER_DAY];
+        AtomicIntegerArray counts = hourlyCounts.get(date);
+        if (counts != null) {
+            for (int hour = 0; hour < HOURS_PER_DAY; hour++) {
+                copy[hour] = counts.get(hour);
+            }
+        }
+        return copy;
+    }
+
+    /**
+     * Drop the counters of all days before the given date and reload that date
+     * from the database, after bookings were deleted in bulk.
+     */
+    public void evictBefore(LocalDateTime cutoffDateTime) {
+        if (!ready) {
+            return;
+        }
+        LocalDate cutoffDate = cutoffDateTime.toLocalDate();
+        List<Object[]> rows = rezervareRepository.countBookingsPerHourBetween(
+                cutoffDate.atStartOfDay(), cutoffDate.plusDays(1).atStartOfDay());
+        int[] cutoffDayCounts = new int[HOURS_PER_DAY];
+        for (Object[] row : rows) {
+            cutoffDayCounts[((Number) row[3]).intValue()] += ((Number) row[4]).intValue();
+        }
+
+        reconcileLock.writeLock().lock();
+        try {
+            hourlyCounts.keySet().removeIf(date -> date.isBefore(cutoffDate));
+            hourlyCounts.put(cutoffDate, new AtomicIntegerArray(cutoffDayCounts));
+            writeVersion.incrementAndGet();
+        } finally {
+            reconcileLock.writeLock().unlock();
+        }
+    }
+
+    private void adjust(LocalDateTime datetime, int delta) {
+        if (datetime == null) {
+            return;
+        }
+        reconcileLock.readLock().lock();
+        try {
+            AtomicIntegerArray counts = hourlyCounts.computeIfAbsent(
+                    datetime.toLocalDate(), date -> new AtomicIntegerArray(HOURS_PER_DAY));
+            int hour = datetime.getHour();
+            if (delta < 0) {
+                counts.getAndUpdate(hour, count -> Math.max(count + delta, 0));
+            } else {
+                counts.addAndGet(hour, delta);
+            }
+            writeVersion.incrementAndGet();
+        } finally {
+            reconcileLock.readLock().unlock();
+        }
+    }
+
+    private Map<LocalDate, int[]> loadSnapshot() {
+        Map<LocalDate, int[]> snapshot = new HashMap<>();
+        for (Object[] row : rezervareRepository.countAllBookingsPerHour()) {
+            LocalDate date = LocalDate.of(
+                    ((Number) row[0]).intValue(), ((Number) row[1]).intValue(), ((Number) row[2]).intValue());
+            int[] counts = snapshot.computeIfAbsent(date, d -> new int[HOURS_PER_DAY]);
+            counts[((Number) row[3]).intValue()] += ((Number) row[4]).intValue();
+        }
+        return snapshot;
+    }
+
+    private static boolean matches(AtomicIntegerArray current, int[] expected) {
+        if (current == null) {
+            return false;
+        }
+        for (int hour = 0; hour < HOURS_PER_DAY; hour++) {
+            if (current.get(hour) != expected[hour]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
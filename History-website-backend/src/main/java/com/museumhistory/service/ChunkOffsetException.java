@@ -0,0 +1,17 @@
+package com.museumhistory.service;
+
+/**
+ * A chunk did not start at the offset its upload expects; carries the upload's progress.
+ */
+public class ChunkOffsetException extends RuntimeException {
+    private final ChunkedUploadService.UploadStatus status;
+
+    public ChunkOffsetException(ChunkedUploadService.UploadStatus status) {
+        super("Offset greșit: se așteaptă " + status.offset());
+        this.status = status;
+    }
+
+    public ChunkedUploadService.UploadStatus getStatus() {
+        return status;
+    }
+}
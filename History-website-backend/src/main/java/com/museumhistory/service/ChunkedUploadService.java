@@ -0,0 +1,226 @@
+package com.museumhistory.service;
+
+import com.museumhistory.model.Imagine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Resumable uploads for files too large for a single multipart request.
+ *
+ * A client opens an upload with the total size, sends the bytes in chunks at
+ * increasing offsets (each chunk is written straight from the request stream
+ * to a temp file through a FileChannel) and completes the upload with the
+ * SHA-256 of the whole file. After a dropped connection it asks for the
+ * current offset and continues from there. Uploads left idle longer than
+ * museum.uploads.chunked.session-ttl-ms are discarded.
+ */
+@Service
+public class ChunkedUploadService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChunkedUploadService.class);
+
+    private static final long TRANSFER_STEP = 1024 * 1024;
+
+    @Autowired
+    private UploadStore uploadStore;
+
+    @Autowired
+    private ImagineService imagineService;
+
+    @Value("${museum.uploads.chunked.max-size:2147483648}")
+    private long maxSize = 2147483648L;
+
+    @Value("${museum.uploads.chunked.session-ttl-ms:86400000}")
+    private long sessionTtlMs = 86400000L;
+
+    private final Map<String, UploadSession> sessions = new ConcurrentHashMap<>();
+
+    /**
+     * Progress of an open upload; offset is where the next chunk must start.
+     */
+    public record UploadStatus(String uploadId, long offset, long size) {
+    }
+
+    private static final class UploadSession {
+        private final String id;
+        private final String filename;
+        private final long size;
+        private final String description;
+        private final Integer position;
+        private final Path tempFile;
+        private volatile long received;
+        private volatile long lastActivity = System.currentTimeMillis();
+        // Serialises the chunks and the completion of one upload; held while the body is read and the image row is saved
+        private final ReentrantLock lock = new ReentrantLock();
+
+        private UploadSession(String id, String filename, long size, String description, Integer position, Path tempFile) {
+            this.id = id;
+            this.filename = filename;
+            this.size = size;
+            this.description = description;
+            this.position = position;
+            this.tempFile = tempFile;
+        }
+
+        private UploadStatus status() {
+            return new UploadStatus(id, received, size);
+        }
+    }
+
+    public UploadStatus start(String filename, long size, String description, Integer position) throws IOException {
+        if (size <= 0 || size > maxSize) {
+            throw new IllegalArgumentException("Dimensiunea fișierului trebuie să fie între 1 și " + maxSize + " octeți");
+        }
+        Path tempDir = uploadStore.tempDir();
+        Files.createDirectories(tempDir);
+
+        String id = UUID.randomUUID().toString();
+        Path tempFile = Files.createFile(tempDir.resolve("chunked-" + id + ".part"));
+        UploadSession session = new UploadSession(id, filename, size, description, position == null ? 0 : position, tempFile);
+        sessions.put(id, session);
+        return session.status();
+    }
+
+    public UploadStatus getStatus(String uploadId) {
+        return findSession(uploadId).status();
+    }
+
+    /**
+     * Write the request body at the given offset. The offset has to match the
+     * bytes received so far; whatever was written before a broken connection
+     * is kept, so the client can resume from getStatus().
+     * @return the progress after this chunk
+     */
+    public UploadStatus appendChunk(String uploadId, long offset, InputStream content) throws IOException {
+        UploadSession session = findSession(uploadId);
+        session.lock.lock();
+        try {
+            ensureOpen(session);
+            if (offset != session.received) {
+                throw new ChunkOffsetException(session.status());
+            }
+
+            try (FileChannel channel = FileChannel.open(session.tempFile, StandardOpenOption.WRITE);
+                 ReadableByteChannel source = Channels.newChannel(content)) {
+                try {
+                    long remaining = session.size - session.received;
+                    while (remaining > 0) {
+                        long written = channel.transferFrom(source, session.received, Math.min(TRANSFER_STEP, remaining));
+                        if (written <= 0) {
+                            break;
+                        }
+                        session.received += written;
+                        remaining -= written;
+                    }
+                    if (remaining == 0 && content.read() != -1) {
+                        throw new IllegalArgumentException("Fragmentul depășește dimensiunea declarată a fișierului");
+                    }
+                } finally {
+                    // Drop anything past the last completed transfer
+                    channel.truncate(session.received);
+                    session.lastActivity = System.currentTimeMillis();
+                }
+            }
+            return session.status();
+        } finally {
+            session.lock.unlock();
+        }
+    }
+
+    /**
+     * Check the received file against the client's SHA-256 and create its Imagine row.
+     * The upload stays open until the row is created.
+     */
+    public Imagine complete(String uploadId, String sha256) throws IOException {
+        UploadSession session = findSession(uploadId);
+        session.lock.lock();
+        try {
+            ensureOpen(session);
+            if (session.received != session.size) {
+                throw new IllegalStateException("Încărcarea nu este completă: " + session.received + " din " + session.size + " octeți");
+            }
+
+            MessageDigest digest = UploadStore.sha256();
+            try (InputStream in = new DigestInputStream(Files.newInputStream(session.tempFile), digest)) {
+                in.transferTo(OutputStream.nullOutputStream());
+            }
+            String actual = HexFormat.of().formatHex(digest.digest());
+            if (sha256 == null || !actual.equalsIgnoreCase(sha256.trim())) {
+                throw new IllegalArgumentException("Suma de control SHA-256 nu corespunde");
+            }
+
+            UploadStore.ReceivedUpload upload = new UploadStore.ReceivedUpload(
+                    session.tempFile, actual, session.size, UploadStore.extensionOf(session.filename));
+            // On failure the session and its file stay, so the client can call complete again
+            Imagine image = imagineService.createImageFromUpload(upload, session.description, session.position);
+            sessions.remove(uploadId);
+            Files.deleteIfExists(session.tempFile);
+            return image;
+        } finally {
+            session.lock.unlock();
+        }
+    }
+
+    public void abort(String uploadId) throws IOException {
+        UploadSession session = findSession(uploadId);
+        session.lock.lock();
+        try {
+            sessions.remove(uploadId);
+            Files.deleteIfExists(session.tempFile);
+        } finally {
+            session.lock.unlock();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${museum.uploads.chunked.cleanup-ms:3600000}")
+    public void discardExpiredUploads() {
+        long cutoff = System.currentTimeMillis() - sessionTtlMs;
+        for (UploadSession session : sessions.values()) {
+            if (session.lastActivity < cutoff) {
+                try {
+                    abort(session.id);
+                    logger.info("Discarded chunked upload {} after {} idle ms", session.id, sessionTtlMs);
+                } catch (NoSuchElementException | IOException e) {
+                    logger.warn("Could not discard chunked upload {}", session.id, e);
+                }
+            }
+        }
+    }
+
+    // Another request may have completed or aborted the upload while this one waited for the lock
+    private void ensureOpen(UploadSession session) {
+        if (sessions.get(session.id) != session) {
+            throw new NoSuchElementException("Încărcarea " + session.id + " nu există");
+        }
+    }
+
+    private UploadSession findSession(String uploadId) {
+        UploadSession session = sessions.get(uploadId);
+        if (session == null) {
+            throw new NoSuchElementException("Încărcarea " + uploadId + " nu există");
+        }
+        return session;
+    }
+}
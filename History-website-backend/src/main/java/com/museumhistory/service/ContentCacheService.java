@@ -0,0 +1,56 @@
+package com.museumhistory.service;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.museumhistory.config.PublicResponseCacheFilter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Counters of the content caches declared in CacheConfig, and eviction for
+ * writes that do not go through an annotated service method or a request
+ * (the latter also drops the cached JSON responses).
+ */
+@Service
+public class ContentCacheService {
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private PublicResponseCacheFilter responseCache;
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new TreeMap<>();
+        for (String name : cacheManager.getCacheNames()) {
+            Cache cache = cacheManager.getCache(name);
+            if (!(cache instanceof CaffeineCache caffeineCache)) {
+                continue;
+            }
+            CacheStats cacheStats = caffeineCache.getNativeCache().stats();
+            Map<String, Object> entry = new TreeMap<>();
+            entry.put("size", caffeineCache.getNativeCache().estimatedSize());
+            entry.put("hits", cacheStats.hitCount());
+            entry.put("misses", cacheStats.missCount());
+            entry.put("hitRate", cacheStats.hitRate());
+            entry.put("evictions", cacheStats.evictionCount());
+            stats.put(name, entry);
+        }
+        return stats;
+    }
+
+    public void evict(String... cacheNames) {
+        for (String name : cacheNames) {
+            Cache cache = cacheManager.getCache(name);
+            if (cache != null) {
+                cache.clear();
+            }
+        }
+        responseCache.invalidate();
+    }
+}
@@ -0,0 +1,268 @@
+package com.museumhistory.service;
+
+import com.museumhistory.model.EmailOutbox;
+import com.museumhistory.model.Rezervare;
+import com.museumhistory.repository.EmailOutboxRepository;
+import com.museumhistory.repository.RezervareRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Outbox-backed delivery of booking emails.
+ *
+ * Bookings only write an EmailOutbox row in their own transaction; a scheduled
+ * drain claims due rows and sends them on a bounded pool of virtual threads,
+ * retrying failures with exponential backoff until museum.email.outbox.max-attempts
+ * is reached.
+ */
+@Service
+public class EmailOutboxService {
+
+    private static final Logger logger = LoggerFactory.getLogger(EmailOutboxService.class);
+
+    @Autowired
+    private EmailOutboxRepository outboxRepository;
+
+    @Autowired
+    private RezervareRepository rezervareRepository;
+
+    @Autowired
+    private EmailService emailService;
+
+    @Value("${museum.email.outbox.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${museum.email.outbox.workers:4}")
+    private int workers = 4;
+
+    @Value("${museum.email.outbox.batch-size:20}")
+    private int batchSize = 20;
+
+    @Value("${museum.email.outbox.max-attempts:5}")
+    private int maxAttempts = 5;
+
+    @Value("${museum.email.outbox.initial-backoff-ms:30000}")
+    private long initialBackoffMs = 30000;
+
+    @Value("${museum.email.outbox.max-backoff-ms:3600000}")
+    private long maxBackoffMs = 3600000;
+
+    // A message still SENDING this long after its claim is taken to be lost with its instance
+    @Value("${museum.email.outbox.sending-timeout-ms:600000}")
+    private long sendingTimeoutMs = 600000;
+
+    private ExecutorService executor;
+    private Semaphore workerPermits;
+
+    private final LongAdder sentCount = new LongAdder();
+    private final LongAdder failedAttempts = new LongAdder();
+    private final LongAdder totalSendNanos = new LongAdder();
+    private final AtomicLong maxSendNanos = new AtomicLong();
+    private final AtomicLong lastSendNanos = new AtomicLong();
+
+    @PostConstruct
+    public void start() {
+        executor = Executors.newVirtualThreadPerTaskExecutor();
+        workerPermits = new Semaphore(workers);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        executor.shutdown();
+        if (!executor.awaitTermination(30, TimeUnit.SECONDS)) {
+            executor.shutdownNow();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${museum.email.outbox.requeue-interval-ms:60000}",
+               initialDelayString = "${museum.email.outbox.requeue-interval-ms:60000}")
+    public void requeueInterruptedMessages() {
+        if (!enabled) {
+            return;
+        }
+        int requeued = outboxRepository.requeueInterrupted(LocalDateTime.now().minus(Duration.ofMillis(sendingTimeoutMs)));
+        if (requeued > 0) {
+            logger.info("Requeued {} emails left in delivery for more than {} ms", requeued, sendingTimeoutMs);
+        }
+    }
+
+    /**
+     * Queue an email for a booking. Joins the caller's transaction, so the
+     * message is only visible to the drain once the booking itself is committed.
+     */
+    @Transactional
+    public void enqueue(EmailOutbox.EmailType type, Integer bookingId) {
+        outboxRepository.save(new EmailOutbox(bookingId, type));
+    }
+
+    @Scheduled(fixedDelayString = "${museum.email.outbox.poll-interval-ms:2000}")
+    public void scheduledDrain() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            drain();
+        } catch (Exception e) {
+            logger.error("Email outbox drain failed", e);
+        }
+    }
+
+    /**
+     * Claim due messages and hand them to the worker pool.
+     * @return number of messages dispatched
+     */
+    public int drain() throws InterruptedException {
+        List<EmailOutbox> dueMessages = outboxRepository.findDueMessages(
+                LocalDateTime.now(), PageRequest.of(0, batchSize));
+
+        int dispatched = 0;
+        for (EmailOutbox message : dueMessages) {
+            LocalDateTime claimedAt = LocalDateTime.now();
+            if (outboxRepository.claim(message.getId(), claimedAt) != 1) {
+                continue;
+            }
+            message.setStatus(EmailOutbox.Status.SENDING);
+            message.setClaimedAt(claimedAt);
+
+            workerPermits.acquire();
+            try {
+                executor.execute(() -> {
+                    try {
+                        deliver(message);
+                    } finally {
+                        workerPermits.release();
+                    }
+                });
+            } catch (RuntimeException e) {
+                workerPermits.release();
+                throw e;
+            }
+            dispatched++;
+        }
+        return dispatched;
+    }
+
+    /**
+     * Wait until all dispatched messages have been processed.
+     */
+    public boolean awaitIdle(long timeout, TimeUnit unit) throws InterruptedException {
+        if (!workerPermits.tryAcquire(workers, timeout, unit)) {
+            return false;
+        }
+        workerPermits.release(workers);
+        return true;
+    }
+
+    public Map<String, Object> getStats() {
+        long sent = sentCount.sum();
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("pending", outboxRepository.countByStatus(EmailOutbox.Status.PENDING));
+        stats.put("sending", outboxRepository.countByStatus(EmailOutbox.Status.SENDING));
+        stats.put("failed", outboxRepository.countByStatus(EmailOutbox.Status.FAILED));
+        stats.put("sent", sent);
+        stats.put("failedAttempts", failedAttempts.sum());
+        stats.put("lastSendMillis", TimeUnit.NANOSECONDS.toMillis(lastSendNanos.get()));
+        stats.put("maxSendMillis", TimeUnit.NANOSECONDS.toMillis(maxSendNanos.get()));
+        stats.put("averageSendMillis", sent == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(totalSendNanos.sum() / sent));
+        return stats;
+    }
+
+    private void deliver(EmailOutbox message) {
+        long started = System.nanoTime();
+        try {
+            Optional<Rezervare> booking = rezervareRepository.findById(message.getBookingId());
+            if (booking.isEmpty()) {
+                message.setStatus(EmailOutbox.Status.FAILED);
+                message.setLastError("Rezervarea " + message.getBookingId() + " nu mai exista");
+                outboxRepository.save(message);
+                return;
+            }
+
+            send(message.getType(), booking.get());
+            recordLatency(System.nanoTime() - started);
+
+            message.setStatus(EmailOutbox.Status.SENT);
+            message.setSentAt(LocalDateTime.now());
+            message.setLastError(null);
+            outboxRepository.save(message);
+        } catch (Exception e) {
+            failedAttempts.increment();
+            scheduleRetry(message, e);
+        }
+    }
+
+    private void send(EmailOutbox.EmailType type, Rezervare booking) {
+        switch (type) {
+            case APPROVAL -> emailService.sendApprovalEmail(booking);
+            case REMINDER -> emailService.sendReminderEmail(booking);
+            case CANCELLATION -> emailService.sendCancellationEmail(booking);
+        }
+    }
+
+    private void scheduleRetry(EmailOutbox message, Exception error) {
+        int attempts = message.getAttempts() + 1;
+        message.setAttempts(attempts);
+        message.setLastError(truncate(rootCauseMessage(error)));
+
+        if (attempts >= maxAttempts) {
+            message.setStatus(EmailOutbox.Status.FAILED);
+            logger.error("Giving up on email {} for booking {} after {} attempts",
+                    message.getId(), message.getBookingId(), attempts, error);
+        } else {
+            long backoffMs = Math.min(initialBackoffMs << Math.min(attempts - 1, 20), maxBackoffMs);
+            message.setStatus(EmailOutbox.Status.PENDING);
+            message.setNextAttemptAt(LocalDateTime.now().plusNanos(TimeUnit.MILLISECONDS.toNanos(backoffMs)));
+            logger.warn("Email {} for booking {} failed (attempt {}), retrying in {} ms: {}",
+                    message.getId(), message.getBookingId(), attempts, backoffMs, message.getLastError());
+        }
+
+        try {
+            outboxRepository.save(message);
+        } catch (Exception e) {
+            logger.error("Could not record failed attempt for email {}", message.getId(), e);
+        }
+    }
+
+    private void recordLatency(long nanos) {
+        sentCount.increment();
+        totalSendNanos.add(nanos);
+        lastSendNanos.set(nanos);
+        maxSendNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    private static String rootCauseMessage(Throwable error) {
+        Throwable cause = error;
+        while (cause.getCause() != null && cause.getCause() != cause) {
+            cause = cause.getCause();
+        }
+        return cause.getClass().getSimpleName() + ": " + cause.getMessage();
+    }
+
+    private static String truncate(String value) {
+        return value.length() <= 1000 ? value : value.substring(0, 1000);
+    }
+}
@@ -1,57 +1,163 @@
 package com.museumhistory.service;
 
+import com.museumhistory.config.CacheConfig;
 import com.museumhistory.model.Eveniment;
+import com.museumhistory.model.EvenimentSummary;
+import com.museumhistory.pagination.CursorPage;
+import com.museumhistory.pagination.PageCursor;
 import com.museumhistory.repository.EvenimentRepository;
+import com.museumhistory.repository.ImagineRepository;
+import org.hibernate.Hibernate;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
 import java.util.Map;
 import java.util.HashMap;
+import java.util.stream.Stream;
 
 @Service
 public class EvenimentService {
     @Autowired
     EvenimentRepository evenimentRepository;
+
+    @Autowired
+    ImagineRepository imagineRepository;
+
+    @Autowired
+    EventDayLockService eventDayLockService;
     
     
-    private static final int MAX_EVENTS_PER_DAY = 3;
+    static final int MAX_EVENTS_PER_DAY = 3;
 
+    public static final int MAX_RANGE_DAYS = 366;
+    public static final int MAX_UPCOMING = 50;
+
+    @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheConfig.EVENTS, key = "'all'")
     public List<Eveniment> getAllEvents(){
-        return evenimentRepository.findAll();
+        List<Eveniment> events = evenimentRepository.findAll();
+        events.forEach(event -> Hibernate.initialize(event.getImages()));
+        return events;
+    }
+
+    /**
+     * Keyset page of all events in id order.
+     * @throws IllegalArgumentException if the cursor is not valid
+     */
+    public CursorPage<Eveniment> getEventsPage(String cursor, Integer limit) {
+        return PageCursor.fetch(cursor, limit, evenimentRepository::findByIdGreaterThanOrderByIdAsc, Eveniment::getId);
+    }
+
+    /**
+     * Events overlapping the days [from, to), with their images; one call covers a calendar month.
+     * @throws IllegalArgumentException if the range is empty or longer than MAX_RANGE_DAYS
+     */
+    @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheConfig.EVENTS, key = "'range:' + #from + ':' + #to")
+    public List<Eveniment> getEventsBetween(LocalDate from, LocalDate to) {
+        if (!from.isBefore(to)) {
+            throw new IllegalArgumentException("Data de inceput trebuie sa fie inaintea datei de sfarsit");
+        }
+        if (ChronoUnit.DAYS.between(from, to) > MAX_RANGE_DAYS) {
+            throw new IllegalArgumentException("Intervalul poate avea cel mult " + MAX_RANGE_DAYS + " zile");
+        }
+        return evenimentRepository.findEventsOverlappingWithImages(from.atStartOfDay(), to.atStartOfDay());
+    }
+
+    /**
+     * The next events starting at or after from, soonest first, with their images.
+     * The limit is clamped to [1, MAX_UPCOMING].
+     */
+    @Transactional(readOnly = true)
+    public List<Eveniment> getUpcomingEvents(LocalDateTime from, Integer limit) {
+        int size = limit == null ? 10 : Math.max(1, Math.min(limit, MAX_UPCOMING));
+        List<Integer> ids = evenimentRepository.findIdsStartingFrom(from, PageRequest.of(0, size));
+        return ids.isEmpty() ? List.of() : evenimentRepository.findWithImagesByIdIn(ids);
     }
 
+    @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheConfig.EVENTS, key = "'summaries'")
+    public List<EvenimentSummary> getEventSummaries() {
+        return withCoverImages(evenimentRepository.findAllSummaries());
+    }
+
+    /**
+     * Keyset page of event summaries in id order.
+     * @throws IllegalArgumentException if the cursor is not valid
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<EvenimentSummary> getEventSummariesPage(String cursor, Integer limit) {
+        return PageCursor.fetch(cursor, limit,
+                (afterId, pageable) -> withCoverImages(evenimentRepository.findSummariesAfter(afterId, pageable)),
+                EvenimentSummary::id);
+    }
+
+    private List<EvenimentSummary> withCoverImages(List<EvenimentSummary> summaries) {
+        Map<Integer, String> covers = imagineRepository.findCoverPathsByEvenimentIdIn(
+                summaries.stream().map(EvenimentSummary::id).toList());
+        return summaries.stream().map(summary -> summary.withCoverImage(covers.get(summary.id()))).toList();
+    }
+
+    // Must be consumed inside a transaction, see NdjsonExporter
+    public Stream<Eveniment> streamAllEvents() {
+        return evenimentRepository.streamAllByOrderById();
+    }
+
+    /**
+     * Save a new event; the day check and the save hold the lock of the event's day.
+     * @throws EventDayLimitException if the day already has MAX_EVENTS_PER_DAY events
+     */
+    @CacheEvict(cacheNames = {CacheConfig.EVENTS, CacheConfig.EXHIBITIONS, CacheConfig.IMAGES}, allEntries = true)
     public void createEvent(Eveniment newEvent){
         LocalDate eventDate = newEvent.getStartDate().toLocalDate();
-        long existingEventsCount = evenimentRepository.countEventsByDate(eventDate);
-        
-        if (existingEventsCount >= MAX_EVENTS_PER_DAY) {
-            throw new RuntimeException("Limita maxima de " + MAX_EVENTS_PER_DAY + " evenimente pe zi a fost atinsa pentru data " + eventDate);
-        }
-        
-        evenimentRepository.save(newEvent);
+        eventDayLockService.runLocked(eventDate, () -> {
+            long existingEventsCount = evenimentRepository.countEventsByDate(eventDate);
+            checkDayLimit(eventDate, existingEventsCount);
+            evenimentRepository.save(newEvent);
+        });
     }
 
+    /**
+     * Save an event; only the day it moves to is locked, leaving a day can not exceed the limit.
+     * @throws EventDayLimitException if that day already has MAX_EVENTS_PER_DAY other events
+     */
+    @CacheEvict(cacheNames = {CacheConfig.EVENTS, CacheConfig.EXHIBITIONS, CacheConfig.IMAGES}, allEntries = true)
     public void updateEvent(Eveniment updatedEvent){
         LocalDate eventDate = updatedEvent.getStartDate().toLocalDate();
-        long existingEventsCount = evenimentRepository.countEventsByDateExcludingEvent(eventDate, updatedEvent.getId());
-        
+        eventDayLockService.runLocked(eventDate, () -> {
+            long existingEventsCount = evenimentRepository.countEventsByDateExcludingEvent(eventDate, updatedEvent.getId());
+            checkDayLimit(eventDate, existingEventsCount);
+            evenimentRepository.save(updatedEvent);
+        });
+    }
+
+    private void checkDayLimit(LocalDate eventDate, long existingEventsCount) {
         if (existingEventsCount >= MAX_EVENTS_PER_DAY) {
-            throw new RuntimeException("Limita maxima de " + MAX_EVENTS_PER_DAY + " evenimente pe zi a fost atinsa pentru data " + eventDate);
+            throw new EventDayLimitException("Limita maxima de " + MAX_EVENTS_PER_DAY + " evenimente pe zi a fost atinsa pentru data " + eventDate);
         }
-        
-        evenimentRepository.save(updatedEvent);
     }
 
+    @CacheEvict(cacheNames = {CacheConfig.EVENTS, CacheConfig.EXHIBITIONS, CacheConfig.IMAGES}, allEntries = true)
     public void deleteEvent(Integer eventId){
         evenimentRepository.deleteById(eventId);
     }
 
+    @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheConfig.EVENTS, key = "#eventId")
     public Eveniment findEventById(Integer eventId){
-        return evenimentRepository.findById(eventId)
+        Eveniment event = evenimentRepository.findById(eventId)
                 .orElseThrow(()
                 -> new RuntimeException("Nu s-a gasit eveniment cu ID-ul:" + eventId));
+        Hibernate.initialize(event.getImages());
+        return event;
     }
 
 }
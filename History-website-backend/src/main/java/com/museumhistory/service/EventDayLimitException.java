@@ -0,0 +1,10 @@
+package com.museumhistory.service;
+
+/**
+ * The day of an event already has MAX_EVENTS_PER_DAY events.
+ */
+public class EventDayLimitException extends RuntimeException {
+    public EventDayLimitException(String message) {
+        super(message);
+    }
+}
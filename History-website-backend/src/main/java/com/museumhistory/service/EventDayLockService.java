@@ -0,0 +1,70 @@
+package com.museumhistory.service;
+
+import com.museumhistory.model.EventDayLock;
+import com.museumhistory.repository.EventDayLockRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Serializes event writes per day, so a count-then-save check such as the
+ * per-day event limit can not be raced. Writes for different days run in
+ * parallel.
+ *
+ * Within this instance, writers of a day queue on a striped lock before taking
+ * a connection. Across instances, they queue on the day's event_day_lock row,
+ * locked with SELECT ... FOR UPDATE in the write transaction.
+ */
+@Service
+public class EventDayLockService {
+
+    private static final int LOCK_STRIPES = 64;
+
+    @Autowired
+    EventDayLockRepository eventDayLockRepository;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    // Striped by day; serialises the count-and-insert of events on one day within this instance
+    private final ReentrantLock[] locks = new ReentrantLock[LOCK_STRIPES];
+
+    public EventDayLockService() {
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Run action in a transaction holding the lock of day.
+     */
+    public void runLocked(LocalDate day, Runnable action) {
+        ReentrantLock lock = locks[Math.floorMod(day.hashCode(), LOCK_STRIPES)];
+        lock.lock();
+        try {
+            ensureDay(day);
+            transactionTemplate.executeWithoutResult(status -> {
+                eventDayLockRepository.lockDay(day);
+                action.run();
+            });
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // In its own transaction: a unique-key race lost inside the write transaction would abort it
+    private void ensureDay(LocalDate day) {
+        if (eventDayLockRepository.existsByEventDate(day)) {
+            return;
+        }
+        try {
+            eventDayLockRepository.saveAndFlush(new EventDayLock(day));
+        } catch (DataIntegrityViolationException e) {
+            // Created by another instance
+        }
+    }
+}
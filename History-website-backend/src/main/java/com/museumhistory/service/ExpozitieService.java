@@ -1,25 +1,93 @@
 package com.museumhistory.service;
 
+import com.museumhistory.config.CacheConfig;
 import com.museumhistory.model.Expozitie;
+import com.museumhistory.model.ExpozitieSummary;
+import com.museumhistory.pagination.CursorPage;
+import com.museumhistory.pagination.PageCursor;
 import com.museumhistory.repository.ExpozitieRepository;
+import com.museumhistory.repository.ImagineRepository;
+import org.hibernate.Hibernate;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
 
 @Service
 public class ExpozitieService {
     @Autowired
     ExpozitieRepository expozitieRepository;
 
+    @Autowired
+    ImagineRepository imagineRepository;
+
+    @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheConfig.EXHIBITIONS, key = "'all'")
     public List<Expozitie> getAllExhibitions(){
-        return expozitieRepository.findAll();
+        List<Expozitie> exhibitions = expozitieRepository.findAll();
+        exhibitions.forEach(exhibition -> Hibernate.initialize(exhibition.getImages()));
+        return exhibitions;
     }
     
+    @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheConfig.EXHIBITIONS, key = "'tip:' + #tip")
     public List<Expozitie> getExhibitionsByTip(Expozitie.TipExpozitie tip) {
-        return expozitieRepository.findByTip(tip);
+        List<Expozitie> exhibitions = expozitieRepository.findByTip(tip);
+        exhibitions.forEach(exhibition -> Hibernate.initialize(exhibition.getImages()));
+        return exhibitions;
+    }
+
+    /**
+     * Keyset page of exhibitions in id order, optionally filtered by tip.
+     * @throws IllegalArgumentException if the cursor is not valid
+     */
+    public CursorPage<Expozitie> getExhibitionsPage(Expozitie.TipExpozitie tip, String cursor, Integer limit) {
+        if (tip != null) {
+            return PageCursor.fetch(cursor, limit,
+                    (afterId, pageable) -> expozitieRepository.findByTipAndIdGreaterThanOrderByIdAsc(tip, afterId, pageable),
+                    Expozitie::getId);
+        }
+        return PageCursor.fetch(cursor, limit, expozitieRepository::findByIdGreaterThanOrderByIdAsc, Expozitie::getId);
+    }
+
+    @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheConfig.EXHIBITIONS, key = "'summaries:' + #tip")
+    public List<ExpozitieSummary> getExhibitionSummaries(Expozitie.TipExpozitie tip) {
+        List<ExpozitieSummary> summaries = tip != null
+                ? expozitieRepository.findSummariesByTip(tip)
+                : expozitieRepository.findAllSummaries();
+        return withCoverImages(summaries);
+    }
+
+    /**
+     * Keyset page of exhibition summaries in id order, optionally filtered by tip.
+     * @throws IllegalArgumentException if the cursor is not valid
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<ExpozitieSummary> getExhibitionSummariesPage(Expozitie.TipExpozitie tip, String cursor, Integer limit) {
+        return PageCursor.fetch(cursor, limit, (afterId, pageable) -> withCoverImages(tip != null
+                        ? expozitieRepository.findSummariesByTipAfter(tip, afterId, pageable)
+                        : expozitieRepository.findSummariesAfter(afterId, pageable)),
+                ExpozitieSummary::id);
+    }
+
+    private List<ExpozitieSummary> withCoverImages(List<ExpozitieSummary> summaries) {
+        Map<Integer, String> covers = imagineRepository.findCoverPathsByEvenimentIdIn(
+                summaries.stream().map(ExpozitieSummary::id).toList());
+        return summaries.stream().map(summary -> summary.withCoverImage(covers.get(summary.id()))).toList();
+    }
+
+    // Must be consumed inside a transaction, see NdjsonExporter
+    public Stream<Expozitie> streamAllExhibitions() {
+        return expozitieRepository.streamAllByOrderById();
     }
 
+    @CacheEvict(cacheNames = {CacheConfig.EVENTS, CacheConfig.EXHIBITIONS, CacheConfig.IMAGES}, allEntries = true)
     public void createExhibition(Expozitie newExhibition){
         if (newExhibition.getTip() == null) {
             newExhibition.setTip(Expozitie.TipExpozitie.TEMPORARA);
@@ -27,6 +95,7 @@ public class ExpozitieService {
         expozitieRepository.save(newExhibition);
     }
 
+    @CacheEvict(cacheNames = {CacheConfig.EVENTS, CacheConfig.EXHIBITIONS, CacheConfig.IMAGES}, allEntries = true)
     public void updateExhibition(Expozitie updatedExhibition){
         Expozitie existingExhibition = findExhibitionById(updatedExhibition.getId());
         
@@ -37,13 +106,18 @@ public class ExpozitieService {
         expozitieRepository.save(updatedExhibition);
     }
 
+    @CacheEvict(cacheNames = {CacheConfig.EVENTS, CacheConfig.EXHIBITIONS, CacheConfig.IMAGES}, allEntries = true)
     public void deleteExhibition(Integer exhibitionId){
         expozitieRepository.deleteById(exhibitionId);
     }
 
+    @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheConfig.EXHIBITIONS, key = "#exhibitionId")
     public Expozitie findExhibitionById(Integer exhibitionId){
-        return expozitieRepository.findById(exhibitionId)
+        Expozitie exhibition = expozitieRepository.findById(exhibitionId)
                 .orElseThrow(()
                 -> new RuntimeException("Nu s-a gasit expozitie cu ID-ul " + exhibitionId));
+        Hibernate.initialize(exhibition.getImages());
+        return exhibition;
     }
 }
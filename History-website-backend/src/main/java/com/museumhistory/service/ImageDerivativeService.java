@@ -0,0 +1,315 @@
+package com.museumhistory.service;
+
+import com.museumhistory.config.CacheConfig;
+import com.museumhistory.model.Imagine;
+import com.museumhistory.repository.ImagineRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Resized copies of uploaded images, so galleries can download a width close
+ * to the one they display instead of the full-resolution original.
+ *
+ * Derivatives are written as uploads/derivatives/{width}/{path}.jpg (or .png
+ * for images with transparency), where {path} is the original's whole relative
+ * path with its extension, so two originals never share a derivative. They are
+ * generated by a small bounded pool after the upload has been saved; the widths
+ * that were produced are recorded on Imagine.
+ *
+ * Originals are decoded subsampled to about twice the largest width, and
+ * originals above museum.images.max-source-pixels are not resized at all, so
+ * a large scan cannot take a worker's heap.
+ */
+@Service
+public class ImageDerivativeService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ImageDerivativeService.class);
+
+    static final String DERIVATIVES_DIR = "derivatives";
+
+    @Autowired
+    private ImagineRepository imagineRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ContentCacheService contentCacheService;
+
+    @Value("${museum.uploads.dir:uploads}")
+    private String uploadDir = "uploads";
+
+    @Value("${museum.images.derivative-widths:320,800,1600}")
+    private int[] widths = {320, 800, 1600};
+
+    @Value("${museum.images.derivative-workers:2}")
+    private int workers = 2;
+
+    @Value("${museum.images.derivative-queue-size:100}")
+    private int queueSize = 100;
+
+    @Value("${museum.images.max-source-pixels:100000000}")
+    private long maxSourcePixels = 100_000_000L;
+
+    private ThreadPoolExecutor executor;
+
+    @PostConstruct
+    public void start() {
+        widths = Arrays.stream(widths).sorted().distinct().toArray();
+        AtomicInteger threadCount = new AtomicInteger();
+        executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueSize),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "image-derivatives-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    // Resizing is CPU bound, keep it behind request handling threads
+                    thread.setPriority(Thread.NORM_PRIORITY - 1);
+                    return thread;
+                });
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        executor.shutdown();
+        if (!executor.awaitTermination(30, TimeUnit.SECONDS)) {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Queue derivative generation for a saved image. If the queue is full the
+     * image is only served at its original size.
+     */
+    public void scheduleDerivatives(Imagine image) {
+        if (image.getId() == null || image.getPath() == null) {
+            return;
+        }
+        Integer imageId = image.getId();
+        String path = image.getPath();
+        try {
+            executor.execute(() -> generateAndRecord(imageId, path));
+        } catch (RejectedExecutionException e) {
+            logger.warn("Derivative queue is full, image {} will be served at original size", path);
+        }
+    }
+
+    /**
+     * Generate the derivatives of one file and store the produced widths on the image row.
+     */
+    public List<Integer> generateAndRecord(Integer imageId, String path) {
+        List<Integer> produced;
+        try {
+            produced = generateDerivatives(path);
+        } catch (Exception e) {
+            logger.error("Could not generate derivatives for image {}", path, e);
+            return List.of();
+        }
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                imagineRepository.findById(imageId).ifPresent(imagine -> {
+                    imagine.setAvailableWidths(new ArrayList<>(produced));
+                    imagineRepository.save(imagine);
+                }));
+        // The widths are part of every cached graph that contains the image
+        contentCacheService.evict(CacheConfig.IMAGES, CacheConfig.POSTS, CacheConfig.SECTIUNI,
+                CacheConfig.EVENTS, CacheConfig.EXHIBITIONS);
+        logger.debug("Generated derivatives {} for image {}", produced, path);
+        return produced;
+    }
+
+    /**
+     * Write one resized copy per configured width smaller than the original.
+     * @return the widths that were written, ascending
+     */
+    public List<Integer> generateDerivatives(String path) throws IOException {
+        Path original = Paths.get(uploadDir).resolve(path).normalize();
+        int sourceWidth;
+        BufferedImage source;
+        try (ImageInputStream input = ImageIO.createImageInputStream(original.toFile())) {
+            Iterator<ImageReader> readers = input == null ? null : ImageIO.getImageReaders(input);
+            if (readers == null || !readers.hasNext()) {
+                // Not a format ImageIO can decode (e.g. SVG), keep the original only
+                return List.of();
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                // Read from the header, before any pixel is decoded
+                sourceWidth = reader.getWidth(0);
+                long pixels = (long) sourceWidth * reader.getHeight(0);
+                if (pixels > maxSourcePixels) {
+                    logger.warn("Image {} has {} pixels, above {}; serving it at original size only",
+                            path, pixels, maxSourcePixels);
+                    return List.of();
+                }
+                int largest = largestWidthBelow(sourceWidth);
+                if (largest < 0) {
+                    return List.of();
+                }
+                ImageReadParam param = reader.getDefaultReadParam();
+                // Keeps at least twice the largest width, so the bilinear downscale still has pixels to average
+                int step = Math.max(1, sourceWidth / (2 * largest));
+                param.setSourceSubsampling(step, step, 0, 0);
+                source = reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+
+        String format = isTransparentFormat(path) ? "png" : "jpg";
+        List<Integer> produced = new ArrayList<>();
+        BufferedImage current = source;
+        // Largest width first: each derivative is scaled down from the previous one, which is cheaper and smoother
+        for (int i = widths.length - 1; i >= 0; i--) {
+            int width = widths[i];
+            if (width >= sourceWidth) {
+                continue;
+            }
+            current = resize(current, width, format.equals("png"));
+            Path target = derivativePath(path, width);
+            Files.createDirectories(target.getParent());
+            Path temp = Files.createTempFile(target.getParent(), ".derivative", ".tmp");
+            try {
+                if (!ImageIO.write(current, format, temp.toFile())) {
+                    throw new IOException("Nu exista writer ImageIO pentru " + format);
+                }
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+            produced.add(0, width);
+        }
+        return produced;
+    }
+
+    private int largestWidthBelow(int sourceWidth) {
+        for (int i = widths.length - 1; i >= 0; i--) {
+            if (widths[i] < sourceWidth) {
+                return widths[i];
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Smallest derivative at least as wide as requested, if one was generated.
+     */
+    public Optional<Path> findDerivative(String path, int requestedWidth) {
+        for (int width : widths) {
+            if (width >= requestedWidth) {
+                Path candidate = derivativePath(path, width);
+                if (Files.isReadable(candidate)) {
+                    return Optional.of(candidate);
+                }
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Delete every resized copy of an upload.
+     * @return bytes freed
+     */
+    public long deleteDerivatives(String path) {
+        long freed = 0;
+        for (int width : widths) {
+            for (String extension : new String[]{".jpg", ".png"}) {
+                Path derivative = derivativeFile(path, width, extension);
+                try {
+                    long size = Files.exists(derivative) ? Files.size(derivative) : 0;
+                    if (Files.deleteIfExists(derivative)) {
+                        freed += size;
+                    }
+                } catch (IOException e) {
+                    logger.warn("Could not delete derivative {}w of {}", width, path, e);
+                }
+            }
+        }
+        return freed;
+    }
+
+    Path derivativePath(String path, int width) {
+        return derivativeFile(path, width, isTransparentFormat(path) ? ".png" : ".jpg");
+    }
+
+    private Path derivativeFile(String path, int width, String extension) {
+        Path dir = derivativeDir(width);
+        Path file = dir.resolve(derivativeKey(path) + extension).normalize();
+        if (!file.startsWith(dir.normalize())) {
+            throw new IllegalArgumentException("Cale invalida: " + path);
+        }
+        return file;
+    }
+
+    private Path derivativeDir(int width) {
+        return Paths.get(uploadDir, DERIVATIVES_DIR, String.valueOf(width));
+    }
+
+    private static BufferedImage resize(BufferedImage source, int width, boolean alpha) {
+        int height = Math.max(1, (int) Math.round((double) source.getHeight() * width / source.getWidth()));
+        BufferedImage target = new BufferedImage(width, height,
+                alpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = target.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        return target;
+    }
+
+    // PNG and GIF sources may carry transparency, which JPEG cannot store
+    private static boolean isTransparentFormat(String path) {
+        String lower = path.toLowerCase();
+        return lower.endsWith(".png") || lower.endsWith(".gif");
+    }
+
+    /**
+     * Name of the derivatives of an original below derivatives/{width}/, without
+     * the derivative's own extension: the original's relative path, extension included.
+     */
+    static String derivativeKey(String path) {
+        return Paths.get(path.replaceFirst("^/+", "")).normalize().toString().replace(File.separatorChar, '/');
+    }
+
+    /**
+     * The derivativeKey a derivative file was written under, from its path below derivatives/{width}/.
+     */
+    static String keyOfDerivative(String derivativePath) {
+        int dot = derivativePath.lastIndexOf('.');
+        return dot > derivativePath.lastIndexOf('/') + 1 ? derivativePath.substring(0, dot) : derivativePath;
+    }
+}
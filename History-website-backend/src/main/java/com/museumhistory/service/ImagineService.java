@@ -1,51 +1,156 @@
 package com.museumhistory.service;
 
+import com.museumhistory.config.CacheConfig;
 import com.museumhistory.model.Imagine;
 import com.museumhistory.repository.ImagineRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 
 @Service
 public class ImagineService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ImagineService.class);
     
     @Autowired
     ImagineRepository imagineRepository;
 
+    @Autowired
+    ImageDerivativeService imageDerivativeService;
+
+    @Autowired
+    UploadStore uploadStore;
+
+    @Cacheable(cacheNames = CacheConfig.IMAGES, key = "'all'")
     public List<Imagine> getAllImages(){
         return imagineRepository.findAllByOrderByPositionAsc();
     }
 
+    @CacheEvict(cacheNames = {CacheConfig.IMAGES, CacheConfig.POSTS, CacheConfig.SECTIUNI, CacheConfig.EVENTS, CacheConfig.EXHIBITIONS}, allEntries = true)
     public void createImage(Imagine newImage){
         imagineRepository.save(newImage);
     }
 
+    @CacheEvict(cacheNames = {CacheConfig.IMAGES, CacheConfig.POSTS, CacheConfig.SECTIUNI, CacheConfig.EVENTS, CacheConfig.EXHIBITIONS}, allEntries = true)
     public void updateImage(Imagine updatedImage){
+        // Clients do not send the generated widths back, keep the ones already recorded
+        if (updatedImage.getId() != null
+                && (updatedImage.getAvailableWidths() == null || updatedImage.getAvailableWidths().isEmpty())) {
+            imagineRepository.findById(updatedImage.getId())
+                    .ifPresent(existing -> updatedImage.setAvailableWidths(existing.getAvailableWidths()));
+        }
         imagineRepository.save(updatedImage);
     }
 
+    /**
+     * Apply all position changes of a gallery in one transaction and one bulk update.
+     * The images must exist and belong to the same post or event.
+     * @param positions new position by image id
+     */
+    @CacheEvict(cacheNames = {CacheConfig.IMAGES, CacheConfig.POSTS, CacheConfig.SECTIUNI, CacheConfig.EVENTS, CacheConfig.EXHIBITIONS}, allEntries = true)
+    @Transactional
+    public void reorderImages(Map<Integer, Integer> positions) {
+        if (positions.isEmpty()) {
+            return;
+        }
+
+        List<Object[]> owners = imagineRepository.findOwnersByIdIn(positions.keySet());
+        if (owners.size() != positions.size()) {
+            Set<Integer> missing = new HashSet<>(positions.keySet());
+            owners.forEach(row -> missing.remove(((Number) row[0]).intValue()));
+            throw new IllegalArgumentException("Nu s-a gasit imagine cu ID-ul:" + missing.iterator().next());
+        }
+        long distinctOwners = owners.stream()
+                .map(row -> Arrays.asList(row[1], row[2]))
+                .distinct()
+                .count();
+        if (distinctOwners > 1) {
+            throw new IllegalArgumentException("Imaginile trebuie să aparțină aceleiași postări sau aceluiași eveniment");
+        }
+
+        imagineRepository.updatePositions(positions);
+    }
+
+    /**
+     * Store an uploaded file (deduplicated by content) and create its Imagine row.
+     */
+    @CacheEvict(cacheNames = {CacheConfig.IMAGES, CacheConfig.POSTS, CacheConfig.SECTIUNI, CacheConfig.EVENTS, CacheConfig.EXHIBITIONS}, allEntries = true)
+    public Imagine createUploadedImage(InputStream content, String originalFilename,
+                                       String description, Integer position) throws IOException {
+        UploadStore.ReceivedUpload upload = uploadStore.receive(content, originalFilename);
+        try {
+            return createImageFromUpload(upload, description, position);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(upload.tempFile());
+            throw e;
+        }
+    }
+
+    /**
+     * Create the Imagine row for a file already received into the upload store's temp directory.
+     * If the row cannot be saved the temp file is kept, and removing it is up to the caller.
+     */
+    @CacheEvict(cacheNames = {CacheConfig.IMAGES, CacheConfig.POSTS, CacheConfig.SECTIUNI, CacheConfig.EVENTS, CacheConfig.EXHIBITIONS}, allEntries = true)
+    public Imagine createImageFromUpload(UploadStore.ReceivedUpload upload,
+                                         String description, Integer position) throws IOException {
+        Imagine image = new Imagine();
+        image.setDescription(description);
+        image.setPosition(position);
+
+        UploadStore.StoredUpload stored = uploadStore.commit(upload, path -> {
+            image.setPath(path);
+            imagineRepository.save(image);
+        });
+
+        // Same content already uploaded: reuse its resized copies instead of generating them again
+        Optional<Imagine> sameFile = stored.deduplicated()
+                ? imagineRepository.findFirstByPathAndIdNot(stored.path(), image.getId())
+                : Optional.empty();
+        if (sameFile.isPresent() && !sameFile.get().getAvailableWidths().isEmpty()) {
+            image.setAvailableWidths(new ArrayList<>(sameFile.get().getAvailableWidths()));
+            imagineRepository.save(image);
+        } else {
+            imageDerivativeService.scheduleDerivatives(image);
+        }
+        return image;
+    }
+
+    @CacheEvict(cacheNames = {CacheConfig.IMAGES, CacheConfig.POSTS, CacheConfig.SECTIUNI, CacheConfig.EVENTS, CacheConfig.EXHIBITIONS}, allEntries = true)
     public void deleteImage(Integer imageId){
         Imagine imagine = findImageById(imageId);
         
-        if (imagine.getPath() != null && !imagine.getPath().trim().isEmpty()) {
+        imagineRepository.deleteById(imageId);
+
+        // The file may be shared with other images; it is only unlinked with its last reference
+        String path = imagine.getPath();
+        if (path != null && !path.trim().isEmpty()) {
             try {
-                Path filePath = Paths.get("uploads/").resolve(imagine.getPath()).normalize();
-                Files.deleteIfExists(filePath);
-                System.out.println("Fișier șters de pe disk: " + filePath);
-            } catch (IOException e) {
-                System.err.println("Eroare la ștergerea fișierului: " + imagine.getPath());
-                e.printStackTrace();
+                if (uploadStore.release(path, () -> imagineRepository.countByPath(path) > 0)) {
+                    imageDerivativeService.deleteDerivatives(path);
+                    logger.info("Fișier șters de pe disk: {}", path);
+                }
+            } catch (IllegalArgumentException e) {
+                logger.warn("Eroare la ștergerea fișierului: {}", path, e);
             }
         }
-        
-        imagineRepository.deleteById(imageId);
     }
 
+    @Cacheable(cacheNames = CacheConfig.IMAGES, key = "#imageId")
     public Imagine findImageById(Integer imageId){
         return imagineRepository.findById(imageId)
                 .orElseThrow(()
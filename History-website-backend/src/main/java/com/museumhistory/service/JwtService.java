@@ -1,29 +1,74 @@
 package com.museumhistory.service;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 
 @Service
 public class JwtService {
-    
+
     @Value("${jwt.secret:mySecretKeyForMuseumHistoryWebsiteApplicationThatShouldBeAtLeast256BitsLong}")
     private String secret;
-    
+
     @Value("${jwt.expiration:86400000}") // 24 hours in milliseconds
     private Long expiration;
 
+    @Value("${jwt.verified-cache-size:1000}")
+    private int verifiedCacheSize = 1000;
+
+    /**
+     * Subject and expiry of a token whose signature has been verified.
+     */
+    public record VerifiedToken(String username, Date expiration) {
+        boolean isExpired() {
+            return expiration == null || !expiration.after(new Date());
+        }
+    }
+
+    // Built lazily: the secret is injected after construction
+    private volatile SecretKey signingKey;
+    private volatile JwtParser parser;
+
+    // Verified tokens keyed by the SHA-256 of the token, so raw tokens are not kept in memory
+    private final Map<String, VerifiedToken> verifiedTokens = new ConcurrentHashMap<>();
+
     private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(secret.getBytes());
+        SecretKey key = signingKey;
+        if (key == null) {
+            key = Keys.hmacShaKeyFor(secret.getBytes());
+            signingKey = key;
+        }
+        return key;
+    }
+
+    private JwtParser getParser() {
+        JwtParser jwtParser = parser;
+        if (jwtParser == null) {
+            jwtParser = Jwts.parser()
+                    .verifyWith(getSigningKey())
+                    .build();
+            parser = jwtParser;
+        }
+        return jwtParser;
     }
 
     public String generateToken(String username) {
@@ -31,7 +76,7 @@ public class JwtService {
         claims.put("sub", username);
         claims.put("iat", new Date());
         claims.put("exp", new Date(System.currentTimeMillis() + expiration));
-        
+
         return Jwts.builder()
                 .claims(claims)
                 .subject(username)
@@ -41,6 +86,68 @@ public class JwtService {
                 .compact();
     }
 
+    /**
+     * Verify the token once and return its subject and expiry together.
+     * Successful verifications are cached until the token expires, so repeated
+     * requests with the same token skip parsing and the HMAC check.
+     * @return empty if the token is malformed, badly signed, expired or has no subject
+     */
+    public Optional<VerifiedToken> verifyToken(String token) {
+        if (token == null || token.isEmpty()) {
+            return Optional.empty();
+        }
+
+        String cacheKey = hashToken(token);
+        VerifiedToken cached = verifiedTokens.get(cacheKey);
+        if (cached != null) {
+            if (!cached.isExpired()) {
+                return Optional.of(cached);
+            }
+            verifiedTokens.remove(cacheKey);
+            return Optional.empty();
+        }
+
+        VerifiedToken verified;
+        try {
+            Claims claims = extractAllClaims(token);
+            verified = new VerifiedToken(claims.getSubject(), claims.getExpiration());
+        } catch (Exception e) {
+            return Optional.empty();
+        }
+        if (verified.isExpired() || verified.username() == null || verified.username().isBlank()) {
+            return Optional.empty();
+        }
+
+        if (verifiedTokens.size() >= verifiedCacheSize) {
+            evictExpiredTokens();
+            trimCache();
+        }
+        verifiedTokens.put(cacheKey, verified);
+        return Optional.of(verified);
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.verified-cache-cleanup-ms:60000}")
+    public void evictExpiredTokens() {
+        verifiedTokens.values().removeIf(VerifiedToken::isExpired);
+    }
+
+    private void trimCache() {
+        Iterator<String> keys = verifiedTokens.keySet().iterator();
+        while (verifiedTokens.size() >= verifiedCacheSize && keys.hasNext()) {
+            keys.next();
+            keys.remove();
+        }
+    }
+
+    private static String hashToken(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return Base64.getEncoder().encodeToString(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponibil", e);
+        }
+    }
+
     public String extractUsername(String token) {
         return extractClaim(token, Claims::getSubject);
     }
@@ -56,9 +163,7 @@ public class JwtService {
 
     private Claims extractAllClaims(String token) {
         try {
-            return Jwts.parser()
-                    .verifyWith(getSigningKey())
-                    .build()
+            return getParser()
                     .parseSignedClaims(token)
                     .getPayload();
         } catch (Exception e) {
@@ -66,28 +171,13 @@ public class JwtService {
         }
     }
 
-    private Boolean isTokenExpired(String token) {
-        try {
-            return extractExpiration(token).before(new Date());
-        } catch (Exception e) {
-            return true;
-        }
-    }
-
     public Boolean validateToken(String token, String username) {
-        try {
-            final String extractedUsername = extractUsername(token);
-            return (extractedUsername.equals(username) && !isTokenExpired(token));
-        } catch (Exception e) {
-            return false;
-        }
+        return verifyToken(token)
+                .map(verified -> Objects.equals(verified.username(), username))
+                .orElse(false);
     }
 
     public Boolean validateToken(String token) {
-        try {
-            return !isTokenExpired(token);
-        } catch (Exception e) {
-            return false;
-        }
+        return verifyToken(token).isPresent();
     }
-}
\ No newline at end of file
+}
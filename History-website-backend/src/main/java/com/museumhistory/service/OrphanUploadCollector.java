@@ -0,0 +1,315 @@
+package com.museumhistory.service;
+
+import com.museumhistory.repository.ImagineRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Removes files under the upload directory that no Imagine references: files
+ * left by images deleted through a cascade from their event or post, by failed
+ * uploads, and resized copies of such files.
+ *
+ * A file is only considered once it has not been modified for
+ * museum.uploads.gc.orphan-grace-ms, which covers uploads whose row is not
+ * committed yet. Orphans are first moved to uploads/.quarantine and deleted
+ * after museum.uploads.gc.quarantine-retention-ms; a quarantined file that is
+ * referenced again by then is put back.
+ */
+@Service
+public class OrphanUploadCollector {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrphanUploadCollector.class);
+
+    @Autowired
+    private ImagineRepository imagineRepository;
+
+    @Autowired
+    private UploadStore uploadStore;
+
+    @Value("${museum.uploads.gc.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${museum.uploads.gc.orphan-grace-ms:86400000}")
+    private long orphanGraceMs = 86400000;
+
+    @Value("${museum.uploads.gc.quarantine-retention-ms:604800000}")
+    private long quarantineRetentionMs = 604800000;
+
+    @Value("${museum.uploads.gc.page-size:1000}")
+    private int pageSize = 1000;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    private final LongAdder totalQuarantined = new LongAdder();
+    private final LongAdder totalRestored = new LongAdder();
+    private final LongAdder totalDeleted = new LongAdder();
+    private final LongAdder totalBytesReclaimed = new LongAdder();
+
+    private volatile CollectionReport lastReport;
+
+    /**
+     * What one run found and removed.
+     */
+    public record CollectionReport(LocalDateTime startedAt, long durationMs, int referencedPaths, int filesScanned,
+                                   int filesQuarantined, long bytesQuarantined,
+                                   int filesRestored, int filesDeleted, long bytesReclaimed) {
+    }
+
+    @Scheduled(cron = "${museum.uploads.gc.cron:0 0 4 * * *}")
+    public void scheduledCollect() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            collect();
+        } catch (Exception e) {
+            logger.error("Orphan upload collection failed", e);
+        }
+    }
+
+    /**
+     * Quarantine new orphans and empty the quarantine of expired ones.
+     * @return the report, or null if a run is already in progress
+     */
+    public CollectionReport collect() throws IOException {
+        if (!running.compareAndSet(false, true)) {
+            logger.info("Orphan upload collection skipped, another run is in progress");
+            return null;
+        }
+        try {
+            LocalDateTime startedAt = LocalDateTime.now();
+            long started = System.nanoTime();
+            Path root = uploadStore.root();
+            Path quarantineDir = uploadStore.quarantineDir();
+
+            // Swept first, so files quarantined by this run get their full retention
+            Sweep sweep = Files.isDirectory(quarantineDir) ? sweepQuarantine(quarantineDir) : new Sweep();
+
+            Set<Path> referenced = new HashSet<>();
+            Set<String> referencedDerivativeKeys = new HashSet<>();
+            loadReferencedPaths(root, referenced, referencedDerivativeKeys);
+
+            Scan scan = Files.isDirectory(root)
+                    ? scan(root, quarantineDir, referenced, referencedDerivativeKeys)
+                    : new Scan();
+            int quarantined = 0;
+            long bytesQuarantined = 0;
+            for (Map.Entry<Path, Long> orphan : scan.orphans.entrySet()) {
+                String path = relative(root, orphan.getKey());
+                try {
+                    boolean moved = uploadStore.quarantine(path,
+                            () -> !isDerivative(path) && imagineRepository.countByPath(path) > 0);
+                    if (moved) {
+                        quarantined++;
+                        bytesQuarantined += orphan.getValue();
+                        logger.info("Quarantined orphaned upload {}", path);
+                    }
+                } catch (IOException e) {
+                    logger.warn("Could not quarantine orphaned upload {}", path, e);
+                }
+            }
+
+            totalQuarantined.add(quarantined);
+            totalRestored.add(sweep.restored);
+            totalDeleted.add(sweep.deleted);
+            totalBytesReclaimed.add(sweep.bytes);
+
+            CollectionReport report = new CollectionReport(startedAt, (System.nanoTime() - started) / 1_000_000,
+                    referenced.size(), scan.scanned, quarantined, bytesQuarantined,
+                    sweep.restored, sweep.deleted, sweep.bytes);
+            lastReport = report;
+            logger.info("Orphan upload collection finished: {}", report);
+            return report;
+        } finally {
+            running.set(false);
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("filesQuarantined", totalQuarantined.sum());
+        stats.put("filesRestored", totalRestored.sum());
+        stats.put("filesDeleted", totalDeleted.sum());
+        stats.put("bytesReclaimed", totalBytesReclaimed.sum());
+        stats.put("lastRun", lastReport);
+        return stats;
+    }
+
+    private static final class Scan {
+        int scanned;
+        final Map<Path, Long> orphans = new HashMap<>();
+    }
+
+    private static final class Sweep {
+        int restored;
+        int deleted;
+        long bytes;
+    }
+
+    // Resolved like UploadStore.resolve, so legacy file names and content addresses compare equal
+    private void loadReferencedPaths(Path root, Set<Path> referenced, Set<String> referencedDerivativeKeys) {
+        int afterId = 0;
+        while (true) {
+            List<Object[]> page = imagineRepository.findPathsAfterId(afterId, PageRequest.of(0, pageSize));
+            for (Object[] row : page) {
+                String path = (String) row[1];
+                if (path == null || path.isBlank()) {
+                    continue;
+                }
+                // Paths posted by clients may also carry the /uploads/ URL prefix; both readings are kept
+                String trimmed = path.replaceFirst("^/+", "").replaceFirst("^uploads/", "");
+                for (String candidate : new String[]{path, trimmed}) {
+                    Path file = root.resolve(candidate).normalize();
+                    if (file.startsWith(root)) {
+                        referenced.add(file);
+                    }
+                }
+                // Derivatives are named after the path generateDerivatives was given
+                referencedDerivativeKeys.add(ImageDerivativeService.derivativeKey(path));
+                referencedDerivativeKeys.add(ImageDerivativeService.derivativeKey(trimmed));
+            }
+            if (page.size() < pageSize) {
+                return;
+            }
+            afterId = ((Number) page.get(page.size() - 1)[0]).intValue();
+        }
+    }
+
+    private Scan scan(Path root, Path quarantineDir, Set<Path> referenced, Set<String> referencedDerivativeKeys)
+            throws IOException {
+        Path tempDir = uploadStore.tempDir();
+        Path derivativesDir = root.resolve(ImageDerivativeService.DERIVATIVES_DIR);
+        Instant graceLimit = Instant.now().minusMillis(orphanGraceMs);
+        Scan scan = new Scan();
+
+        Files.walkFileTree(root, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+                // Uploads in progress and the quarantine itself are not candidates
+                return dir.equals(tempDir) || dir.equals(quarantineDir)
+                        ? FileVisitResult.SKIP_SUBTREE
+                        : FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                if (!attrs.isRegularFile()) {
+                    return FileVisitResult.CONTINUE;
+                }
+                scan.scanned++;
+                if (attrs.lastModifiedTime().toInstant().isAfter(graceLimit)) {
+                    return FileVisitResult.CONTINUE;
+                }
+                boolean orphan = file.startsWith(derivativesDir)
+                        ? !referencedDerivativeKeys.contains(derivativeKeyOf(derivativesDir, file))
+                        : !referenced.contains(file);
+                if (orphan) {
+                    scan.orphans.put(file, attrs.size());
+                }
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFileFailed(Path file, IOException e) {
+                logger.warn("Could not read {} while collecting orphaned uploads", file, e);
+                return FileVisitResult.CONTINUE;
+            }
+        });
+        return scan;
+    }
+
+    private Sweep sweepQuarantine(Path quarantineDir) throws IOException {
+        Instant retentionLimit = Instant.now().minusMillis(quarantineRetentionMs);
+        Set<Path> expired = new HashSet<>();
+        List<Path> all = new ArrayList<>();
+        Files.walkFileTree(quarantineDir, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                if (attrs.isRegularFile()) {
+                    all.add(file);
+                    if (!attrs.lastModifiedTime().toInstant().isAfter(retentionLimit)) {
+                        expired.add(file);
+                    }
+                }
+                return FileVisitResult.CONTINUE;
+            }
+        });
+
+        Sweep sweep = new Sweep();
+        for (Path file : all) {
+            String path = relative(quarantineDir, file);
+            boolean referencedAgain = !isDerivative(path) && imagineRepository.countByPath(path) > 0;
+            if (!referencedAgain && !expired.contains(file)) {
+                continue;
+            }
+            try {
+                long size = Files.size(file);
+                // Also deletes a quarantined copy of content that has been uploaded again
+                if (uploadStore.discardQuarantined(path, () -> referencedAgain)) {
+                    sweep.deleted++;
+                    sweep.bytes += size;
+                } else {
+                    sweep.restored++;
+                }
+            } catch (IOException e) {
+                logger.warn("Could not remove quarantined upload {}", path, e);
+            }
+        }
+        deleteEmptyDirectories(quarantineDir);
+        return sweep;
+    }
+
+    private static void deleteEmptyDirectories(Path quarantineDir) throws IOException {
+        Files.walkFileTree(quarantineDir, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult postVisitDirectory(Path dir, IOException e) throws IOException {
+                if (!dir.equals(quarantineDir)) {
+                    try (var entries = Files.list(dir)) {
+                        if (entries.findAny().isEmpty()) {
+                            Files.delete(dir);
+                        }
+                    }
+                }
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    // derivatives/{width}/{key}.{jpg|png} -> key
+    private static String derivativeKeyOf(Path derivativesDir, Path file) {
+        String belowDir = relative(derivativesDir, file);
+        return ImageDerivativeService.keyOfDerivative(belowDir.substring(belowDir.indexOf('/') + 1));
+    }
+
+    private static boolean isDerivative(String path) {
+        return path.startsWith(ImageDerivativeService.DERIVATIVES_DIR + "/");
+    }
+
+    private static String relative(Path base, Path file) {
+        return base.relativize(file).toString().replace(File.separatorChar, '/');
+    }
+}
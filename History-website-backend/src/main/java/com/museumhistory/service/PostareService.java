@@ -1,40 +1,104 @@
 package com.museumhistory.service;
 
+import com.museumhistory.config.CacheConfig;
 import com.museumhistory.model.Postare;
+import com.museumhistory.model.PostareSummary;
 import com.museumhistory.model.Sectiune;
+import com.museumhistory.pagination.CursorPage;
+import com.museumhistory.pagination.PageCursor;
+import com.museumhistory.repository.ImagineRepository;
 import com.museumhistory.repository.PostareRepository;
+import org.hibernate.Hibernate;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.repository.ListCrudRepository;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class PostareService {
     @Autowired
     PostareRepository postareRepository;
 
+    @Autowired
+    ImagineRepository imagineRepository;
+
+    @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheConfig.POSTS, key = "'all'")
     public List<Postare> getAllPosts(){
-        return postareRepository.findAll();
+        return postareRepository.findAllWithImages();
+    }
+
+    /**
+     * Keyset page of all posts in id order, with their images loaded.
+     * @throws IllegalArgumentException if the cursor is not valid
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<Postare> getPostsPage(String cursor, Integer limit) {
+        return PageCursor.fetch(cursor, limit, (afterId, pageable) -> {
+            List<Integer> ids = postareRepository.findIdsAfter(afterId, pageable);
+            return ids.isEmpty() ? List.of() : postareRepository.findWithImagesByIdIn(ids);
+        }, Postare::getId);
+    }
+
+    @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheConfig.POSTS, key = "'summaries'")
+    public List<PostareSummary> getPostSummaries() {
+        return withCoverImages(postareRepository.findAllSummaries());
+    }
+
+    /**
+     * Keyset page of post summaries in id order.
+     * @throws IllegalArgumentException if the cursor is not valid
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<PostareSummary> getPostSummariesPage(String cursor, Integer limit) {
+        return PageCursor.fetch(cursor, limit,
+                (afterId, pageable) -> withCoverImages(postareRepository.findSummariesAfter(afterId, pageable)),
+                PostareSummary::id);
+    }
+
+    private List<PostareSummary> withCoverImages(List<PostareSummary> summaries) {
+        Map<Integer, String> covers = imagineRepository.findCoverPathsByPostareIdIn(
+                summaries.stream().map(PostareSummary::id).toList());
+        return summaries.stream().map(summary -> summary.withCoverImage(covers.get(summary.id()))).toList();
+    }
+
+    // Must be consumed inside a transaction, see NdjsonExporter
+    public Stream<Postare> streamAllPosts() {
+        return postareRepository.streamAllByOrderById();
     }
     
+    @Cacheable(cacheNames = CacheConfig.POSTS, key = "'sectiune:' + #sectiune.id")
     public List<Postare> getPostsBySectiune(Sectiune sectiune) {
-        return postareRepository.findAll().stream()
-                .filter(postare -> postare.getSectiune() != null && 
-                        postare.getSectiune().getId().equals(sectiune.getId()))
-                .collect(Collectors.toList());
+        return getPostsBySectiuneId(sectiune.getId());
     }
     
+    @Cacheable(cacheNames = CacheConfig.POSTS, key = "'sectiune:' + #sectiuneId")
     public List<Postare> getPostsBySectiuneId(Integer sectiuneId) {
-        return postareRepository.findAll().stream()
-                .filter(postare -> postare.getSectiune() != null && 
-                        postare.getSectiune().getId().equals(sectiuneId))
-                .collect(Collectors.toList());
+        return postareRepository.findBySectiuneIdWithImages(sectiuneId);
+    }
+
+    /**
+     * Keyset page of the posts of a section, in id order, with their images loaded.
+     * @throws IllegalArgumentException if the cursor is not valid
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<Postare> getPostsBySectiuneIdPage(Integer sectiuneId, String cursor, Integer limit) {
+        return PageCursor.fetch(cursor, limit, (afterId, pageable) -> {
+            List<Integer> ids = postareRepository.findIdsBySectiuneIdAfter(sectiuneId, afterId, pageable);
+            return ids.isEmpty() ? List.of() : postareRepository.findWithImagesByIdIn(ids);
+        }, Postare::getId);
     }
 
+    @CacheEvict(cacheNames = {CacheConfig.POSTS, CacheConfig.SECTIUNI, CacheConfig.IMAGES}, allEntries = true)
     public void createPost(Postare newPost){
         if (newPost.getCreatedAt() == null) {
             newPost.setCreatedAt(LocalDateTime.now());
@@ -42,6 +106,7 @@ public class PostareService {
         postareRepository.save(newPost);
     }
 
+    @CacheEvict(cacheNames = {CacheConfig.POSTS, CacheConfig.SECTIUNI, CacheConfig.IMAGES}, allEntries = true)
     public void updatePost(Postare updatedPost){
         Postare existent = findPostByID(updatedPost.getId());
         if (updatedPost.getSectiune() == null) {
@@ -50,13 +115,18 @@ public class PostareService {
         postareRepository.save(updatedPost);
     }
 
+    @CacheEvict(cacheNames = {CacheConfig.POSTS, CacheConfig.SECTIUNI, CacheConfig.IMAGES}, allEntries = true)
     public void deletePost(Integer postId){
         postareRepository.deleteById(postId);
     }
 
+    @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheConfig.POSTS, key = "#postId")
     public Postare findPostByID(Integer postId){
-        return postareRepository.findById(postId)
+        Postare post = postareRepository.findById(postId)
                 .orElseThrow(()
                 -> new RuntimeException("Nu s-a gasit postare cu ID-ul:" + postId));
+        Hibernate.initialize(post.getImages());
+        return post;
     }
 }
@@ -0,0 +1,297 @@
+package com.museumhistory.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.museumhistory.config.CacheConfig;
+import com.museumhistory.model.Eveniment;
+import com.museumhistory.model.Imagine;
+import com.museumhistory.model.Rezervare;
+import com.museumhistory.repository.EmailOutboxRepository;
+import com.museumhistory.repository.EvenimentRepository;
+import com.museumhistory.repository.EventDayLockRepository;
+import com.museumhistory.repository.ImagineRepository;
+import com.museumhistory.repository.RezervareRepository;
+import com.museumhistory.repository.SlotCapacityRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Nightly purge of expired bookings and, when enabled, of past events.
+ *
+ * Rows are deleted in batches of museum.retention.batch-size, by id,
+ * each in its own short transaction, with museum.retention.batch-pause-ms between
+ * batches, so a purge never holds locks over a large range. Bookings are written
+ * to a gzipped NDJSON file in museum.retention.archive-dir in the same transaction
+ * as their delete. Deleted events take their images with them; the files are
+ * unlinked once no image references them any more.
+ */
+@Service
+public class RetentionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RetentionService.class);
+
+    private static final DateTimeFormatter ARCHIVE_TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    @Autowired
+    private RezervareRepository rezervareRepository;
+
+    @Autowired
+    private EvenimentRepository evenimentRepository;
+
+    @Autowired
+    private ImagineRepository imagineRepository;
+
+    @Autowired
+    private EmailOutboxRepository emailOutboxRepository;
+
+    @Autowired
+    private SlotCapacityRepository slotCapacityRepository;
+
+    @Autowired
+    private EventDayLockRepository eventDayLockRepository;
+
+    @Autowired
+    private BookingOccupancyIndex occupancyIndex;
+
+    @Autowired
+    private UploadStore uploadStore;
+
+    @Autowired
+    private ImageDerivativeService imageDerivativeService;
+
+    @Autowired
+    private ContentCacheService contentCacheService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${museum.retention.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${museum.retention.batch-size:500}")
+    private int batchSize = 500;
+
+    @Value("${museum.retention.batch-pause-ms:200}")
+    private long batchPauseMs = 200;
+
+    // Bookings are kept for this many days after the visit
+    @Value("${museum.retention.booking-grace-days:3}")
+    private int bookingGraceDays = 3;
+
+    // Events are deleted this many days after they end; 0 keeps them forever
+    @Value("${museum.retention.event-age-days:0}")
+    private int eventAgeDays = 0;
+
+    @Value("${museum.retention.archive-dir:archive}")
+    private String archiveDir = "archive";
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    private volatile RetentionReport lastReport;
+
+    /**
+     * What one run removed. archiveFile is null if no booking was archived.
+     */
+    public record RetentionReport(LocalDateTime startedAt, long durationMs,
+                                  int bookingsDeleted, int emailsDeleted, String archiveFile, long archiveBytes,
+                                  int eventsDeleted, int imagesDeleted, int filesDeleted, long bytesReclaimed) {
+    }
+
+    @Scheduled(cron = "${museum.retention.cron:0 30 3 * * *}")
+    public void scheduledPurge() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            purge();
+        } catch (Exception e) {
+            logger.error("Retention run failed", e);
+        }
+    }
+
+    /**
+     * Run the purge now.
+     * @return the report, or null if a run is already in progress
+     */
+    public RetentionReport purge() throws IOException, InterruptedException {
+        if (!running.compareAndSet(false, true)) {
+            logger.info("Retention run skipped, another run is in progress");
+            return null;
+        }
+        try {
+            LocalDateTime startedAt = LocalDateTime.now();
+            long started = System.nanoTime();
+
+            BookingPurge bookings = purgeBookings(startedAt.minusDays(bookingGraceDays), startedAt);
+            EventPurge events = eventAgeDays > 0
+                    ? purgeEvents(startedAt.minusDays(eventAgeDays))
+                    : new EventPurge();
+
+            RetentionReport report = new RetentionReport(startedAt,
+                    (System.nanoTime() - started) / 1_000_000,
+                    bookings.deleted, bookings.emailsDeleted,
+                    bookings.archive != null ? bookings.archive.toString() : null, bookings.archiveBytes,
+                    events.deleted, events.images, events.files, events.bytes);
+            lastReport = report;
+            logger.info("Retention run finished: {}", report);
+            return report;
+        } finally {
+            running.set(false);
+        }
+    }
+
+    public RetentionReport getLastReport() {
+        return lastReport;
+    }
+
+    private static final class BookingPurge {
+        int deleted;
+        int emailsDeleted;
+        Path archive;
+        long archiveBytes;
+    }
+
+    private static final class EventPurge {
+        int deleted;
+        int images;
+        int files;
+        long bytes;
+    }
+
+    private BookingPurge purgeBookings(LocalDateTime cutoff, LocalDateTime startedAt) throws IOException, InterruptedException {
+        BookingPurge purge = new BookingPurge();
+        // Runs with nothing to purge leave no archive file
+        if (!rezervareRepository.findExpiredAfterId(cutoff, 0, PageRequest.of(0, 1)).isEmpty()) {
+            ObjectWriter writer = objectMapper.writer();
+            purge.archive = newArchive(startedAt);
+            // Sync flush, so every batch is on disk before its delete commits
+            try (OutputStream archive = new GZIPOutputStream(Files.newOutputStream(purge.archive), true)) {
+                int afterId = 0;
+                while (true) {
+                    int lastId = afterId;
+                    Integer batchEnd = transactionTemplate.execute(status -> {
+                        List<Rezervare> batch = rezervareRepository.findExpiredAfterId(
+                                cutoff, lastId, PageRequest.of(0, batchSize));
+                        if (batch.isEmpty()) {
+                            return null;
+                        }
+                        List<Integer> ids = new ArrayList<>(batch.size());
+                        try {
+                            for (Rezervare rezervare : batch) {
+                                archive.write(writer.writeValueAsBytes(rezervare));
+                                archive.write('\n');
+                                ids.add(rezervare.getId());
+                            }
+                            archive.flush();
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                        // By the archived ids, so a row that was not written to the archive is never deleted
+                        purge.deleted += rezervareRepository.deleteExpiredByIdIn(ids, cutoff);
+                        purge.emailsDeleted += emailOutboxRepository.deleteByBookingIdIn(ids);
+                        return ids.get(ids.size() - 1);
+                    });
+                    if (batchEnd == null) {
+                        break;
+                    }
+                    afterId = batchEnd;
+                    pause();
+                }
+            }
+        }
+
+        if (purge.archive != null) {
+            purge.archiveBytes = Files.size(purge.archive);
+        }
+        transactionTemplate.executeWithoutResult(status -> slotCapacityRepository.deleteBefore(cutoff.toLocalDate()));
+        occupancyIndex.evictBefore(cutoff);
+        return purge;
+    }
+
+    private EventPurge purgeEvents(LocalDateTime cutoff) throws InterruptedException {
+        EventPurge purge = new EventPurge();
+        int afterId = 0;
+        while (true) {
+            List<Integer> ids = evenimentRepository.findEndedIdsAfterId(cutoff, afterId, PageRequest.of(0, batchSize));
+            if (ids.isEmpty()) {
+                break;
+            }
+            Set<String> paths = new LinkedHashSet<>();
+            transactionTemplate.executeWithoutResult(status -> {
+                List<Eveniment> events = evenimentRepository.findWithImagesByIdIn(ids);
+                for (Eveniment event : events) {
+                    for (Imagine image : event.getImages()) {
+                        purge.images++;
+                        if (image.getPath() != null && !image.getPath().isBlank()) {
+                            paths.add(image.getPath());
+                        }
+                    }
+                }
+                // Cascades to the images of each event
+                evenimentRepository.deleteAll(events);
+                purge.deleted += events.size();
+            });
+            for (String path : paths) {
+                releaseFile(path, purge);
+            }
+            afterId = ids.get(ids.size() - 1);
+            pause();
+        }
+
+        if (purge.deleted > 0) {
+            contentCacheService.evict(CacheConfig.EVENTS, CacheConfig.EXHIBITIONS, CacheConfig.IMAGES);
+        }
+        transactionTemplate.executeWithoutResult(status -> eventDayLockRepository.deleteBefore(cutoff.toLocalDate()));
+        return purge;
+    }
+
+    // Same rule as ImagineService.deleteImage: the file goes with its last reference
+    private void releaseFile(String path, EventPurge purge) {
+        try {
+            Path file = uploadStore.resolve(path);
+            long size = Files.exists(file) ? Files.size(file) : 0;
+            if (uploadStore.release(path, () -> imagineRepository.countByPath(path) > 0)) {
+                purge.files++;
+                purge.bytes += size + imageDerivativeService.deleteDerivatives(path);
+            }
+        } catch (IllegalArgumentException | IOException e) {
+            logger.warn("Could not release upload {} of a purged event", path, e);
+        }
+    }
+
+    private Path newArchive(LocalDateTime startedAt) throws IOException {
+        Path dir = Paths.get(archiveDir).toAbsolutePath().normalize();
+        Files.createDirectories(dir);
+        return dir.resolve("rezervari-" + ARCHIVE_TIMESTAMP.format(startedAt) + ".ndjson.gz");
+    }
+
+    private void pause() throws InterruptedException {
+        if (batchPauseMs > 0) {
+            Thread.sleep(batchPauseMs);
+        }
+    }
+}
@@ -1,15 +1,24 @@
 package com.museumhistory.service;
 
+import com.museumhistory.model.EmailOutbox;
 import com.museumhistory.model.Rezervare;
+import com.museumhistory.pagination.CursorPage;
+import com.museumhistory.pagination.PageCursor;
 import com.museumhistory.repository.RezervareRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Service
 public class RezervareService {
@@ -18,28 +27,95 @@ public class RezervareService {
     RezervareRepository rezervareRepository;
     
     @Autowired
-    EmailService emailService;
+    EmailOutboxService emailOutboxService;
+
+    @Autowired
+    BookingOccupancyIndex occupancyIndex;
+
+    @Autowired
+    SlotCapacityService slotCapacityService;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    // Program zilnic: sloturi de 2 ore intre 08:00 si 18:00, maxim 2 rezervari pe slot
+    static final int FIRST_SLOT_HOUR = 8;
+    static final int LAST_SLOT_HOUR = 18;
+    static final int SLOT_LENGTH_HOURS = 2;
+    private static final int SLOT_COUNT = (LAST_SLOT_HOUR - FIRST_SLOT_HOUR) / SLOT_LENGTH_HOURS;
+    static final int SLOT_CAPACITY = 2;
 
     public List<Rezervare> getAllBookings(){
         return rezervareRepository.findAll();
     }
 
+    /**
+     * Keyset page of all bookings in id order.
+     * @throws IllegalArgumentException if the cursor is not valid
+     */
+    public CursorPage<Rezervare> getBookingsPage(String cursor, Integer limit) {
+        return PageCursor.fetch(cursor, limit, rezervareRepository::findByIdGreaterThanOrderByIdAsc, Rezervare::getId);
+    }
+
+    // Must be consumed inside a transaction, see NdjsonExporter
+    public Stream<Rezervare> streamAllBookings() {
+        return rezervareRepository.streamAllByOrderById();
+    }
+
+    /**
+     * Save a new booking, taking a place in its slot.
+     * @throws SlotFullException if the slot already has SLOT_CAPACITY bookings
+     */
     public void createBooking(Rezervare newBooking){
-        Rezervare savedReservation = rezervareRepository.save(newBooking);
-        
-        try {
-            emailService.sendApprovalEmail(savedReservation);
-        } catch (Exception e) {
-            System.err.println("Eroare la trimiterea email-ului de confirmare: " + e.getMessage());
-        }
+        // The slot row is created in its own short transaction, the booking takes the place in the next one
+        slotCapacityService.ensureSlot(newBooking.getDatetime());
+        transactionTemplate.executeWithoutResult(status -> {
+            slotCapacityService.reserve(newBooking.getDatetime());
+            Rezervare savedReservation = rezervareRepository.save(newBooking);
+            // Email-ul de confirmare este trimis asincron, din outbox, dupa commit
+            emailOutboxService.enqueue(EmailOutbox.EmailType.APPROVAL, savedReservation.getId());
+
+            LocalDateTime datetime = savedReservation.getDatetime();
+            afterCommit(() -> occupancyIndex.recordBooking(datetime));
+        });
     }
 
+    /**
+     * Save a booking, moving it to another slot if its datetime changed.
+     * @throws SlotFullException if the new slot already has SLOT_CAPACITY bookings
+     */
     public void updateBooking(Rezervare updatedBooking){
-        rezervareRepository.save(updatedBooking);
+        LocalDateTime newDatetime = updatedBooking.getDatetime();
+        // Only a lookup when the slot row already exists
+        slotCapacityService.ensureSlot(newDatetime);
+        transactionTemplate.executeWithoutResult(status -> {
+            // The slot places move from the locked row, not from a read a concurrent change may have overtaken
+            LocalDateTime previousDatetime = lockBookingDatetime(updatedBooking.getId());
+            if (!SlotCapacityService.sameSlot(previousDatetime, newDatetime)) {
+                slotCapacityService.reserve(newDatetime);
+                slotCapacityService.release(previousDatetime);
+            }
+            Rezervare savedReservation = rezervareRepository.save(updatedBooking);
+
+            LocalDateTime datetime = savedReservation.getDatetime();
+            afterCommit(() -> {
+                occupancyIndex.removeBooking(previousDatetime);
+                occupancyIndex.recordBooking(datetime);
+            });
+        });
     }
 
+    @Transactional
     public void deleteBooking(Integer bookingId){
-        rezervareRepository.deleteById(bookingId);
+        Rezervare booking = bookingId == null ? null : rezervareRepository.findByIdForUpdate(bookingId).orElse(null);
+        if (booking == null) {
+            // Already deleted by a concurrent request, which released its place
+            return;
+        }
+        LocalDateTime previousDatetime = booking.getDatetime();
+        rezervareRepository.delete(booking);
+        slotCapacityService.release(previousDatetime);
+        afterCommit(() -> occupancyIndex.removeBooking(previousDatetime));
     }
 
     public Rezervare findBookingById(Integer bookingId){
@@ -50,68 +126,141 @@ public class RezervareService {
     
     
     
+    /**
+     * Run the action once the current transaction commits, or right away when
+     * there is no transaction, so the occupancy index never sees rolled back writes.
+     */
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+    
+    // Must run inside the booking transaction; the row stays locked until it ends
+    private LocalDateTime lockBookingDatetime(Integer bookingId) {
+        if (bookingId == null) {
+            return null;
+        }
+        return rezervareRepository.findByIdForUpdate(bookingId)
+                .map(Rezervare::getDatetime)
+                .orElseThrow(() -> new RuntimeException("Nu s-a gasit rezervare cu ID-ul" + bookingId));
+    }
+    
     public int getBookingsCountForTimeInterval(LocalDate date, int startHour, int endHour) {
+        if (occupancyIndex.isReady()) {
+            return occupancyIndex.countBookings(date, startHour, endHour);
+        }
         return rezervareRepository.countBookingsByDateAndTimeInterval(date, startHour, endHour);
     }
     
     public Map<String, Integer> getBookingsCountByTimeSlots(LocalDate date) {
-        Map<String, Integer> counters = new HashMap<>();
-        for (int hour = 8; hour < 18; hour += 2) {
-            // Pentru un slot de 2 ore (ex: 08:00-10:00), verificăm orele 8 și 9
-            int count = rezervareRepository.countBookingsByDateAndTimeInterval(date, hour, hour + 1);
-            String timeSlot = String.format("%02d:00-%02d:00", hour, hour + 2);
-            counters.put(timeSlot, count);
-        }
-        
-        return counters;
+        return toTimeSlotCounters(countBookingsPerSlot(date, 1)[0]);
     }
     
     public Map<String, Map<String, Object>> getCalendarDensityForMonth(int year, int month) {
         Map<String, Map<String, Object>> calendarData = new HashMap<>();
         LocalDate firstDay = LocalDate.of(year, month, 1);
-        LocalDate lastDay = firstDay.withDayOfMonth(firstDay.lengthOfMonth());
+        int daysInMonth = firstDay.lengthOfMonth();
+        
+        // O singura interogare agregata pentru toata luna, in loc de 5 interogari pe zi
+        int[][] slotCounts = countBookingsPerSlot(firstDay, daysInMonth);
+        
+        for (int day = 0; day < daysInMonth; day++) {
+            Map<String, Integer> timeSlots = toTimeSlotCounters(slotCounts[day]);
+            calendarData.put(firstDay.plusDays(day).toString(), buildDayDensity(timeSlots));
+        }
         
-        for (LocalDate date = firstDay; !date.isAfter(lastDay); date = date.plusDays(1)) {
-            Map<String, Integer> timeSlots = getBookingsCountByTimeSlots(date);
-            
-            int totalSlots = timeSlots.size();
-            int fullSlots = 0;
-            int partialSlots = 0;
-            int emptySlots = 0;
-            
-            for (Integer count : timeSlots.values()) {
-                if (count >= 2) {
-                    fullSlots++;
-                } else if (count == 1) {
-                    partialSlots++;
-                } else {
-                    emptySlots++;
+        return calendarData;
+    }
+    
+    /**
+     * Count bookings per 2-hour slot for consecutive days starting at firstDay.
+     * @return counters indexed by [day offset][slot index]
+     */
+    private int[][] countBookingsPerSlot(LocalDate firstDay, int days) {
+        int[][] slotCounts = new int[days][SLOT_COUNT];
+        
+        if (occupancyIndex.isReady()) {
+            for (int dayOffset = 0; dayOffset < days; dayOffset++) {
+                int[] hourlyCounts = occupancyIndex.getHourlyCounts(firstDay.plusDays(dayOffset));
+                for (int hour = FIRST_SLOT_HOUR; hour < LAST_SLOT_HOUR; hour++) {
+                    addHourlyCount(slotCounts[dayOffset], hour, hourlyCounts[hour]);
                 }
             }
-            
-            String dayStatus;
-            if (fullSlots == totalSlots) {
-                dayStatus = "full";
-            } else if (partialSlots > 0 || fullSlots > 0) {
-                dayStatus = "partial";
+            return slotCounts;
+        }
+        
+        List<Object[]> hourlyCounts = rezervareRepository.countBookingsPerHourBetween(
+                firstDay.atStartOfDay(), firstDay.plusDays(days).atStartOfDay());
+        for (Object[] row : hourlyCounts) {
+            LocalDate date = LocalDate.of(
+                    ((Number) row[0]).intValue(), ((Number) row[1]).intValue(), ((Number) row[2]).intValue());
+            int dayOffset = (int) ChronoUnit.DAYS.between(firstDay, date);
+            addHourlyCount(slotCounts[dayOffset], ((Number) row[3]).intValue(), ((Number) row[4]).intValue());
+        }
+        
+        return slotCounts;
+    }
+    
+    private void addHourlyCount(int[] daySlotCounts, int hour, int count) {
+        if (hour < FIRST_SLOT_HOUR || hour >= LAST_SLOT_HOUR) {
+            return;
+        }
+        daySlotCounts[(hour - FIRST_SLOT_HOUR) / SLOT_LENGTH_HOURS] += count;
+    }
+    
+    private Map<String, Integer> toTimeSlotCounters(int[] slotCounts) {
+        Map<String, Integer> counters = new HashMap<>();
+        for (int slot = 0; slot < SLOT_COUNT; slot++) {
+            int hour = FIRST_SLOT_HOUR + slot * SLOT_LENGTH_HOURS;
+            String timeSlot = String.format("%02d:00-%02d:00", hour, hour + SLOT_LENGTH_HOURS);
+            counters.put(timeSlot, slotCounts[slot]);
+        }
+        return counters;
+    }
+    
+    private Map<String, Object> buildDayDensity(Map<String, Integer> timeSlots) {
+        int totalSlots = timeSlots.size();
+        int fullSlots = 0;
+        int partialSlots = 0;
+        int emptySlots = 0;
+        
+        for (Integer count : timeSlots.values()) {
+            if (count >= SLOT_CAPACITY) {
+                fullSlots++;
+            } else if (count > 0) {
+                partialSlots++;
             } else {
-                dayStatus = "available";
+                emptySlots++;
             }
-            
-            int availableSlots = (emptySlots * 2) + partialSlots;
-            Map<String, Object> dayData = new HashMap<>();
-            dayData.put("status", dayStatus);
-            dayData.put("availableSlots", availableSlots);
-            dayData.put("totalSlots", totalSlots * 2);
-            dayData.put("timeSlots", timeSlots);
-            dayData.put("fullSlots", fullSlots);
-            dayData.put("partialSlots", partialSlots);
-            dayData.put("emptySlots", emptySlots);
-            
-            calendarData.put(date.toString(), dayData);
         }
         
-        return calendarData;
+        String dayStatus;
+        if (fullSlots == totalSlots) {
+            dayStatus = "full";
+        } else if (partialSlots > 0 || fullSlots > 0) {
+            dayStatus = "partial";
+        } else {
+            dayStatus = "available";
+        }
+        
+        int availableSlots = (emptySlots * SLOT_CAPACITY) + partialSlots;
+        Map<String, Object> dayData = new HashMap<>();
+        dayData.put("status", dayStatus);
+        dayData.put("availableSlots", availableSlots);
+        dayData.put("totalSlots", totalSlots * SLOT_CAPACITY);
+        dayData.put("timeSlots", timeSlots);
+        dayData.put("fullSlots", fullSlots);
+        dayData.put("partialSlots", partialSlots);
+        dayData.put("emptySlots", emptySlots);
+        return dayData;
     }
     
     /**
@@ -128,7 +277,9 @@ public class RezervareService {
      */
     public int deleteExpiredReservations() {
         LocalDateTime cutoffDateTime = LocalDateTime.now().minusDays(3);
-        return rezervareRepository.deleteExpiredReservations(cutoffDateTime);
+        int deleted = rezervareRepository.deleteExpiredReservations(cutoffDateTime);
+        occupancyIndex.evictBefore(cutoffDateTime);
+        return deleted;
     }
 }
 
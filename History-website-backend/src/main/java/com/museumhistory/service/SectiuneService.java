@@ -1,10 +1,15 @@
 package com.museumhistory.service;
 
+import com.museumhistory.config.CacheConfig;
 import com.museumhistory.model.Postare;
 import com.museumhistory.model.Sectiune;
+import com.museumhistory.repository.PostareRepository;
 import com.museumhistory.repository.SectiuneRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
@@ -16,23 +21,53 @@ public class SectiuneService {
     @Autowired
     PostareService postareService;
 
+    @Autowired
+    PostareRepository postareRepository;
+
+    @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheConfig.SECTIUNI, key = "'all'")
     public List<Sectiune> getAllSectiuni() {
-        return sectiuneRepository.findAll();
+        // Two queries whatever the number of sections: sections with posts, then the posts' images
+        List<Sectiune> sectiuni = sectiuneRepository.findAllWithPostari();
+        if (sectiuni.stream().anyMatch(sectiune -> !sectiune.getPostari().isEmpty())) {
+            postareRepository.findAllInSectiuniWithImages();
+        }
+        return sectiuni;
     }
 
+    @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheConfig.SECTIUNI, key = "#id")
     public Sectiune getSectiuneById(Integer id) {
-        return sectiuneRepository.findById(id)
+        Sectiune sectiune = sectiuneRepository.findByIdWithPostari(id)
                 .orElseThrow(() -> new RuntimeException("Nu s-a găsit secțiunea cu ID-ul: " + id));
+        loadPostImages(sectiune);
+        return sectiune;
     }
     
+    @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheConfig.SECTIUNI, key = "'titlu:' + #titlu", unless = "#result == null")
     public Sectiune getSectiuneByTitlu(String titlu) {
-        return sectiuneRepository.findByTitlu(titlu);
+        Sectiune sectiune = sectiuneRepository.findByTitluWithPostari(titlu).orElse(null);
+        if (sectiune != null) {
+            loadPostImages(sectiune);
+        }
+        return sectiune;
+    }
+
+    // Fills the images of the section's posts, already in this persistence context, with one query.
+    // Cached sections are served outside the session that loaded them, so the graph must be complete.
+    private void loadPostImages(Sectiune sectiune) {
+        if (!sectiune.getPostari().isEmpty()) {
+            postareRepository.findBySectiuneIdWithImages(sectiune.getId());
+        }
     }
 
+    @CacheEvict(cacheNames = {CacheConfig.SECTIUNI, CacheConfig.POSTS, CacheConfig.IMAGES}, allEntries = true)
     public Sectiune createSectiune(Sectiune sectiune) {
         return sectiuneRepository.save(sectiune);
     }
 
+    @CacheEvict(cacheNames = {CacheConfig.SECTIUNI, CacheConfig.POSTS, CacheConfig.IMAGES}, allEntries = true)
     public Sectiune updateSectiune(Integer id, Sectiune sectiune) {
         Sectiune existingSectiune = getSectiuneById(id);
         existingSectiune.setTitlu(sectiune.getTitlu());
@@ -41,10 +76,12 @@ public class SectiuneService {
         return sectiuneRepository.save(existingSectiune);
     }
 
+    @CacheEvict(cacheNames = {CacheConfig.SECTIUNI, CacheConfig.POSTS, CacheConfig.IMAGES}, allEntries = true)
     public void deleteSectiune(Integer id) {
         sectiuneRepository.deleteById(id);
     }
     
+    @CacheEvict(cacheNames = {CacheConfig.SECTIUNI, CacheConfig.POSTS, CacheConfig.IMAGES}, allEntries = true)
     public Sectiune adaugaPostare(Integer sectiuneId, Postare postare) {
         Sectiune sectiune = getSectiuneById(sectiuneId);
         postare.setSectiune(sectiune);
@@ -52,6 +89,7 @@ public class SectiuneService {
         return getSectiuneById(sectiuneId);
     }
     
+    @CacheEvict(cacheNames = {CacheConfig.SECTIUNI, CacheConfig.POSTS, CacheConfig.IMAGES}, allEntries = true)
     public Sectiune stergePostare(Integer sectiuneId, Integer postareId) {
         Sectiune sectiune = getSectiuneById(sectiuneId);
         postareService.deletePost(postareId);
@@ -0,0 +1,95 @@
+package com.museumhistory.service;
+
+import com.museumhistory.model.SlotCapacity;
+import com.museumhistory.repository.RezervareRepository;
+import com.museumhistory.repository.SlotCapacityRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Admission control for bookings: one slot_capacity row per (date, slot) and a
+ * conditional increment per booking, in the booking's transaction. Bookings of
+ * different slots never wait on each other, and a slot can not be overbooked
+ * however many requests arrive at once. Bookings outside the visiting slots
+ * are not limited.
+ */
+@Service
+public class SlotCapacityService {
+
+    @Autowired
+    SlotCapacityRepository slotCapacityRepository;
+
+    @Autowired
+    RezervareRepository rezervareRepository;
+
+    /**
+     * Start hour of the slot containing datetime, or -1 outside the visiting slots.
+     */
+    public static int slotStartHour(LocalDateTime datetime) {
+        int hour = datetime.getHour();
+        if (hour < RezervareService.FIRST_SLOT_HOUR || hour >= RezervareService.LAST_SLOT_HOUR) {
+            return -1;
+        }
+        return hour - (hour - RezervareService.FIRST_SLOT_HOUR) % RezervareService.SLOT_LENGTH_HOURS;
+    }
+
+    public static boolean sameSlot(LocalDateTime a, LocalDateTime b) {
+        return a != null && b != null && a.toLocalDate().equals(b.toLocalDate())
+                && slotStartHour(a) == slotStartHour(b);
+    }
+
+    /**
+     * Create the row of the slot if it does not exist yet, counting the bookings
+     * made before slots were tracked. Must run outside the booking transaction:
+     * when two requests create the same row, the loser's failed insert would
+     * otherwise abort its booking.
+     */
+    public void ensureSlot(LocalDateTime datetime) {
+        int startHour = datetime == null ? -1 : slotStartHour(datetime);
+        if (startHour < 0) {
+            return;
+        }
+        LocalDate date = datetime.toLocalDate();
+        if (slotCapacityRepository.existsBySlotDateAndStartHour(date, startHour)) {
+            return;
+        }
+        long existing = rezervareRepository.countBookingsBetween(
+                date.atTime(startHour, 0), date.atTime(startHour, 0).plusHours(RezervareService.SLOT_LENGTH_HOURS));
+        try {
+            slotCapacityRepository.saveAndFlush(new SlotCapacity(date, startHour, (int) existing));
+        } catch (DataIntegrityViolationException e) {
+            // Created by a concurrent booking of the same slot
+        }
+    }
+
+    /**
+     * Take a place in the slot of datetime, after ensureSlot.
+     * @throws SlotFullException if the slot is already full
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void reserve(LocalDateTime datetime) {
+        int startHour = datetime == null ? -1 : slotStartHour(datetime);
+        if (startHour < 0) {
+            return;
+        }
+        LocalDate date = datetime.toLocalDate();
+        if (slotCapacityRepository.incrementIfBelow(date, startHour, RezervareService.SLOT_CAPACITY) == 0) {
+            throw new SlotFullException(String.format("Intervalul %02d:00-%02d:00 din %s este complet",
+                    startHour, startHour + RezervareService.SLOT_LENGTH_HOURS, date));
+        }
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void release(LocalDateTime datetime) {
+        int startHour = datetime == null ? -1 : slotStartHour(datetime);
+        if (startHour >= 0) {
+            slotCapacityRepository.decrement(datetime.toLocalDate(), startHour);
+        }
+    }
+}
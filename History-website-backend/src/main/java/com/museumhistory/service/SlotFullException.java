@@ -0,0 +1,10 @@
+package com.museumhistory.service;
+
+/**
+ * The visiting slot of a booking already has SLOT_CAPACITY bookings.
+ */
+public class SlotFullException extends RuntimeException {
+    public SlotFullException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,257 @@
+package com.museumhistory.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+/**
+ * Content-addressed storage for uploaded files.
+ *
+ * Each upload is hashed (SHA-256) while it is streamed to a temp file and then
+ * stored once as uploads/{aa}/{bb}/{digest}.{ext}; identical uploads share the
+ * same file. Imagine.path holds this relative path. Registering a new reference
+ * and releasing the last one run under the same per-file lock, so a file is
+ * never unlinked while an upload of the same content is being registered
+ * (within this application instance).
+ */
+@Service
+public class UploadStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(UploadStore.class);
+
+    private static final Pattern SAFE_EXTENSION = Pattern.compile("[a-z0-9]{1,5}");
+    private static final int LOCK_STRIPES = 64;
+
+    @Value("${museum.uploads.dir:uploads}")
+    private String uploadDir = "uploads";
+
+    // Striped by path; held while register/stillReferenced query the image table
+    private final ReentrantLock[] locks = new ReentrantLock[LOCK_STRIPES];
+
+    public UploadStore() {
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * A fully received upload waiting in the temp directory.
+     */
+    public record ReceivedUpload(Path tempFile, String digest, long size, String extension) {
+    }
+
+    /**
+     * Where an upload ended up; deduplicated is true if the content was already stored.
+     */
+    public record StoredUpload(String path, String digest, boolean deduplicated) {
+    }
+
+    /**
+     * Stream and hash an upload into the temp directory.
+     */
+    public ReceivedUpload receive(InputStream content, String originalFilename) throws IOException {
+        Path tempDir = tempDir();
+        Files.createDirectories(tempDir);
+        Path tempFile = Files.createTempFile(tempDir, "upload", ".part");
+        MessageDigest digest = sha256();
+        try (InputStream in = content;
+             OutputStream out = new DigestOutputStream(Files.newOutputStream(tempFile), digest)) {
+            long size = in.transferTo(out);
+            return new ReceivedUpload(tempFile, HexFormat.of().formatHex(digest.digest()), size,
+                    extensionOf(originalFilename));
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(tempFile);
+            throw e;
+        }
+    }
+
+    /**
+     * Move a received upload to its content address, or drop it if that content
+     * is already stored, then let the caller record its reference while the file
+     * is still locked. If register fails the temp file is left in place, so the
+     * same upload can be committed again.
+     */
+    public StoredUpload commit(ReceivedUpload upload, Consumer<String> register) throws IOException {
+        String path = relativePath(upload.digest(), upload.extension());
+        Path target = resolve(path);
+        ReentrantLock lock = lockFor(path);
+        lock.lock();
+        try {
+            boolean deduplicated = Files.exists(target);
+            if (!deduplicated) {
+                Files.createDirectories(target.getParent());
+                Files.move(upload.tempFile(), target, StandardCopyOption.ATOMIC_MOVE);
+            }
+            try {
+                register.accept(path);
+            } catch (RuntimeException e) {
+                // Still under the lock, so nothing else can have referenced the file yet
+                if (!deduplicated) {
+                    Files.move(target, upload.tempFile(), StandardCopyOption.ATOMIC_MOVE);
+                }
+                throw e;
+            }
+            if (deduplicated) {
+                Files.deleteIfExists(upload.tempFile());
+            }
+            return new StoredUpload(path, upload.digest(), deduplicated);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public StoredUpload store(InputStream content, String originalFilename, Consumer<String> register) throws IOException {
+        ReceivedUpload upload = receive(content, originalFilename);
+        try {
+            return commit(upload, register);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(upload.tempFile());
+            throw e;
+        }
+    }
+
+    /**
+     * Unlink a stored file once nothing references it any more.
+     * @return true if the file was deleted
+     */
+    public boolean release(String path, BooleanSupplier stillReferenced) {
+        Path file = resolve(path);
+        ReentrantLock lock = lockFor(path);
+        lock.lock();
+        try {
+            if (stillReferenced.getAsBoolean()) {
+                logger.debug("Upload {} is still referenced, keeping it", path);
+                return false;
+            }
+            try {
+                return Files.deleteIfExists(file);
+            } catch (IOException e) {
+                logger.warn("Could not delete upload {}", path, e);
+                return false;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Move a stored file that nothing references to the quarantine directory,
+     * under the same lock as register and release. Its modification time is
+     * reset, so the quarantine period starts with the move.
+     * @return true if the file was moved
+     */
+    public boolean quarantine(String path, BooleanSupplier stillReferenced) throws IOException {
+        Path file = resolve(path);
+        Path quarantined = quarantineDir().resolve(path).normalize();
+        ReentrantLock lock = lockFor(path);
+        lock.lock();
+        try {
+            if (stillReferenced.getAsBoolean() || !Files.exists(file)) {
+                return false;
+            }
+            Files.createDirectories(quarantined.getParent());
+            Files.move(file, quarantined, StandardCopyOption.REPLACE_EXISTING);
+            Files.setLastModifiedTime(quarantined, FileTime.from(Instant.now()));
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Delete a quarantined file, or put it back if it is referenced again.
+     * A copy stored again meanwhile wins over the quarantined one.
+     * @return true if the file was deleted, false if it was restored
+     */
+    public boolean discardQuarantined(String path, BooleanSupplier stillReferenced) throws IOException {
+        Path file = resolve(path);
+        Path quarantined = quarantineDir().resolve(path).normalize();
+        ReentrantLock lock = lockFor(path);
+        lock.lock();
+        try {
+            if (stillReferenced.getAsBoolean() && !Files.exists(file)) {
+                Files.createDirectories(file.getParent());
+                Files.move(quarantined, file);
+                logger.info("Restored quarantined upload {}, it is referenced again", path);
+                return false;
+            }
+            Files.deleteIfExists(quarantined);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Absolute location of a stored path; rejects paths leaving the upload directory.
+     */
+    public Path resolve(String path) {
+        Path root = root();
+        Path file = root.resolve(path).normalize();
+        if (!file.startsWith(root)) {
+            throw new IllegalArgumentException("Cale invalida: " + path);
+        }
+        return file;
+    }
+
+    public Path root() {
+        return Paths.get(uploadDir).toAbsolutePath().normalize();
+    }
+
+    Path tempDir() {
+        return root().resolve(".tmp");
+    }
+
+    Path quarantineDir() {
+        return root().resolve(".quarantine");
+    }
+
+    static String relativePath(String digest, String extension) {
+        String fileName = extension.isEmpty() ? digest : digest + "." + extension;
+        return digest.substring(0, 2) + "/" + digest.substring(2, 4) + "/" + fileName;
+    }
+
+    static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponibil", e);
+        }
+    }
+
+    private ReentrantLock lockFor(String path) {
+        return locks[Math.floorMod(path.hashCode(), LOCK_STRIPES)];
+    }
+
+    static String extensionOf(String filename) {
+        if (filename == null) {
+            return "";
+        }
+        int dot = filename.lastIndexOf('.');
+        if (dot < 0 || dot == filename.length() - 1) {
+            return "";
+        }
+        String extension = filename.substring(dot + 1).toLowerCase(Locale.ROOT);
+        return SAFE_EXTENSION.matcher(extension).matches() ? extension : "";
+    }
+}
@@ -0,0 +1,9 @@
+package com.museumhistory.service.email;
+
+import com.museumhistory.model.Rezervare;
+
+/**
+ * Values available to the email templates: the booking plus the museum settings.
+ */
+public record EmailContext(Rezervare rezervare, String museumName, String contactEmail) {
+}
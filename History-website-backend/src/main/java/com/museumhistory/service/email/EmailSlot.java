@@ -0,0 +1,99 @@
+package com.museumhistory.service.email;
+
+import com.museumhistory.model.Rezervare;
+
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Placeholders that can appear in an email template as {{key}}.
+ * Each slot knows how to produce its (unescaped) text from an EmailContext.
+ */
+public enum EmailSlot {
+    MUSEUM_NAME("museumName") {
+        @Override
+        String value(EmailContext context) {
+            return context.museumName();
+        }
+    },
+    NUME("nume") {
+        @Override
+        String value(EmailContext context) {
+            return context.rezervare().getNume();
+        }
+    },
+    PRENUME("prenume") {
+        @Override
+        String value(EmailContext context) {
+            return context.rezervare().getPrenume();
+        }
+    },
+    DATETIME("datetime") {
+        @Override
+        String value(EmailContext context) {
+            Rezervare rezervare = context.rezervare();
+            return rezervare.getDatetime() == null ? "" : rezervare.getDatetime().format(DATE_FORMATTER);
+        }
+    },
+    PERSONS("persons") {
+        @Override
+        String value(EmailContext context) {
+            return String.valueOf(context.rezervare().getNumberOfPersons());
+        }
+    },
+    AGE_GROUP("ageGroup") {
+        @Override
+        String value(EmailContext context) {
+            return getAgeGroupDisplayName(context.rezervare().getAgeGroup());
+        }
+    },
+    GUIDE("guide") {
+        @Override
+        String value(EmailContext context) {
+            return context.rezervare().isGuideRequired() ? "Da" : "Nu";
+        }
+    },
+    CONTACT_EMAIL("contactEmail") {
+        @Override
+        String value(EmailContext context) {
+            return context.contactEmail();
+        }
+    };
+
+    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("dd MMMM yyyy, HH:mm");
+
+    private final String key;
+
+    EmailSlot(String key) {
+        this.key = key;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    abstract String value(EmailContext context);
+
+    public static EmailSlot fromKey(String key) {
+        for (EmailSlot slot : values()) {
+            if (slot.key.equals(key)) {
+                return slot;
+            }
+        }
+        throw new IllegalArgumentException("Placeholder necunoscut in template: {{" + key + "}}");
+    }
+
+    private static String getAgeGroupDisplayName(String ageGroup) {
+        if (ageGroup == null || ageGroup.trim().isEmpty()) {
+            return "Nespecificată";
+        }
+        
+        switch (ageGroup) {
+            case "COPII": return "Copii (0-12 ani)";
+            case "ADOLESCENTI": return "Adolescenți (13-17 ani)";
+            case "ADULTI": return "Adulți (18-64 ani)";
+            case "SENIORI": return "Seniori (65+ ani)";
+            case "MIXT": return "Grup mixt";
+            default: return ageGroup;
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.museumhistory.service.email;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * An email template parsed once into UTF-8 encoded static segments and slots.
+ * Rendering only copies the pre-encoded bytes and writes the escaped slot values.
+ */
+public final class EmailTemplate {
+
+    private static final String OPEN = "{{";
+    private static final String CLOSE = "}}";
+
+    // staticSegments[i] is written before slots[i]; the last static segment closes the template
+    private final byte[][] staticSegments;
+    private final EmailSlot[] slots;
+    private final int staticLength;
+
+    private EmailTemplate(byte[][] staticSegments, EmailSlot[] slots) {
+        this.staticSegments = staticSegments;
+        this.slots = slots;
+        int length = 0;
+        for (byte[] segment : staticSegments) {
+            length += segment.length;
+        }
+        this.staticLength = length;
+    }
+
+    public static EmailTemplate parse(String source) {
+        List<byte[]> segments = new ArrayList<>();
+        List<EmailSlot> slots = new ArrayList<>();
+
+        int position = 0;
+        while (true) {
+            int open = source.indexOf(OPEN, position);
+            if (open < 0) {
+                break;
+            }
+            int close = source.indexOf(CLOSE, open + OPEN.length());
+            if (close < 0) {
+                throw new IllegalArgumentException("Placeholder neinchis la pozitia " + open);
+            }
+            segments.add(source.substring(position, open).getBytes(StandardCharsets.UTF_8));
+            slots.add(EmailSlot.fromKey(source.substring(open + OPEN.length(), close).trim()));
+            position = close + CLOSE.length();
+        }
+        segments.add(source.substring(position).getBytes(StandardCharsets.UTF_8));
+
+        return new EmailTemplate(segments.toArray(new byte[0][]), slots.toArray(new EmailSlot[0]));
+    }
+
+    /**
+     * Size of the static part, used to size render buffers.
+     */
+    public int getStaticLength() {
+        return staticLength;
+    }
+
+    public void renderTo(EmailContext context, ByteArrayOutputStream out) {
+        for (int i = 0; i < slots.length; i++) {
+            out.write(staticSegments[i], 0, staticSegments[i].length);
+            writeEscaped(slots[i].value(context), out);
+        }
+        byte[] last = staticSegments[slots.length];
+        out.write(last, 0, last.length);
+    }
+
+    private static void writeEscaped(String value, ByteArrayOutputStream out) {
+        if (value == null) {
+            return;
+        }
+        int start = 0;
+        for (int i = 0; i < value.length(); i++) {
+            String replacement = switch (value.charAt(i)) {
+                case '&' -> "&amp;";
+                case '<' -> "&lt;";
+                case '>' -> "&gt;";
+                case '"' -> "&quot;";
+                case '\'' -> "&#39;";
+                default -> null;
+            };
+            if (replacement != null) {
+                writeUtf8(value.substring(start, i), out);
+                writeUtf8(replacement, out);
+                start = i + 1;
+            }
+        }
+        writeUtf8(start == 0 ? value : value.substring(start), out);
+    }
+
+    private static void writeUtf8(String text, ByteArrayOutputStream out) {
+        if (!text.isEmpty()) {
+            byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+            out.write(bytes, 0, bytes.length);
+        }
+    }
+}
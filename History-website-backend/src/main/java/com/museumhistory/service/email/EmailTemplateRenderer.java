@@ -0,0 +1,71 @@
+package com.museumhistory.service.email;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Loads the email templates from the classpath once and renders them into
+ * pooled buffers. A pool is used instead of a ThreadLocal because mails are
+ * sent from short-lived virtual threads.
+ */
+@Component
+public class EmailTemplateRenderer {
+
+    private static final int MAX_POOLED_BUFFERS = 16;
+    private static final int SLOT_HEADROOM = 512;
+
+    private final Map<EmailTemplateType, EmailTemplate> templates = new EnumMap<>(EmailTemplateType.class);
+    private final ConcurrentLinkedQueue<ByteArrayOutputStream> bufferPool = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pooledBuffers = new AtomicInteger();
+
+    @PostConstruct
+    public void loadTemplates() {
+        for (EmailTemplateType type : EmailTemplateType.values()) {
+            try (InputStream in = new ClassPathResource(type.getResourcePath()).getInputStream()) {
+                templates.put(type, EmailTemplate.parse(new String(in.readAllBytes(), StandardCharsets.UTF_8)));
+            } catch (IOException e) {
+                throw new UncheckedIOException("Nu s-a putut incarca template-ul " + type.getResourcePath(), e);
+            }
+        }
+    }
+
+    public String render(EmailTemplateType type, EmailContext context) {
+        EmailTemplate template = templates.get(type);
+        ByteArrayOutputStream buffer = borrowBuffer(template);
+        try {
+            template.renderTo(context, buffer);
+            return buffer.toString(StandardCharsets.UTF_8);
+        } finally {
+            returnBuffer(buffer);
+        }
+    }
+
+    private ByteArrayOutputStream borrowBuffer(EmailTemplate template) {
+        ByteArrayOutputStream buffer = bufferPool.poll();
+        if (buffer == null) {
+            return new ByteArrayOutputStream(template.getStaticLength() + SLOT_HEADROOM);
+        }
+        pooledBuffers.decrementAndGet();
+        buffer.reset();
+        return buffer;
+    }
+
+    private void returnBuffer(ByteArrayOutputStream buffer) {
+        if (pooledBuffers.incrementAndGet() <= MAX_POOLED_BUFFERS) {
+            bufferPool.offer(buffer);
+        } else {
+            pooledBuffers.decrementAndGet();
+        }
+    }
+}
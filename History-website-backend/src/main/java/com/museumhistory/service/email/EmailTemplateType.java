@@ -0,0 +1,17 @@
+package com.museumhistory.service.email;
+
+public enum EmailTemplateType {
+    APPROVAL("templates/email/approval.html"),
+    REMINDER("templates/email/reminder.html"),
+    CANCELLATION("templates/email/cancellation.html");
+
+    private final String resourcePath;
+
+    EmailTemplateType(String resourcePath) {
+        this.resourcePath = resourcePath;
+    }
+
+    public String getResourcePath() {
+        return resourcePath;
+    }
+}
@@ -0,0 +1,20 @@
+-- Outbox of booking emails drained by EmailOutboxService.
+-- PostgreSQL. The prod profile only validates the schema; run once before deploying.
+-- Also safe on a database whose email_outbox predates claimed_at: the column is added if missing.
+
+CREATE TABLE IF NOT EXISTS email_outbox (
+    id              SERIAL PRIMARY KEY,
+    booking_id      INTEGER,
+    type            VARCHAR(255) CHECK (type IN ('APPROVAL', 'REMINDER', 'CANCELLATION')),
+    status          VARCHAR(255) CHECK (status IN ('PENDING', 'SENDING', 'SENT', 'FAILED')),
+    attempts        INTEGER NOT NULL,
+    next_attempt_at TIMESTAMP(6),
+    claimed_at      TIMESTAMP(6),
+    last_error      VARCHAR(1000),
+    created_at      TIMESTAMP(6),
+    sent_at         TIMESTAMP(6)
+);
+
+ALTER TABLE email_outbox ADD COLUMN IF NOT EXISTS claimed_at TIMESTAMP(6);
+
+CREATE INDEX IF NOT EXISTS idx_email_outbox_status_next_attempt ON email_outbox (status, next_attempt_at);
@@ -0,0 +1,5 @@
+-- Indexes behind the event day lookups and the /api/events/range and /upcoming queries.
+-- PostgreSQL. The prod profile does not create indexes; run once, in any order with the other scripts.
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_evenimente_start_date ON evenimente (start_date);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_evenimente_end_date ON evenimente (end_date);
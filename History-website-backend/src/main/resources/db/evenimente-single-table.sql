@@ -0,0 +1,28 @@
+-- Moves Expozitie from the JOINED mapping (evenimente + expozitie) to SINGLE_TABLE on evenimente.
+-- PostgreSQL. Run once, before starting the first version that maps Eveniment with SINGLE_TABLE:
+-- the prod profile only validates the schema, and rows without a discriminator cannot be loaded.
+
+BEGIN;
+
+ALTER TABLE evenimente ADD COLUMN IF NOT EXISTS tip_eveniment VARCHAR(31);
+ALTER TABLE evenimente ADD COLUMN IF NOT EXISTS tip VARCHAR(255);
+
+UPDATE evenimente e
+SET tip_eveniment = 'EXPOZITIE',
+    tip = x.tip
+FROM expozitie x
+WHERE x.id = e.id;
+
+UPDATE evenimente SET tip_eveniment = 'EVENIMENT' WHERE tip_eveniment IS NULL;
+
+ALTER TABLE evenimente ALTER COLUMN tip_eveniment SET NOT NULL;
+ALTER TABLE evenimente ADD CONSTRAINT evenimente_tip_check
+    CHECK (tip IN ('TEMPORARA', 'PERMANENTA'));
+
+CREATE INDEX IF NOT EXISTS idx_evenimente_tip_eveniment_tip ON evenimente (tip_eveniment, tip);
+
+DROP TABLE expozitie;
+
+COMMIT;
+
+ANALYZE evenimente;
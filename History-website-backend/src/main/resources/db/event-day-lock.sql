@@ -0,0 +1,8 @@
+-- Per-day lock rows used by EventDayLockService to enforce the daily event limit.
+-- PostgreSQL. The prod profile only validates the schema; run once before deploying.
+
+CREATE TABLE IF NOT EXISTS event_day_lock (
+    id         SERIAL PRIMARY KEY,
+    event_date DATE NOT NULL,
+    CONSTRAINT uk_event_day_lock_date UNIQUE (event_date)
+);
@@ -0,0 +1,5 @@
+-- Widths of the resized copies recorded by ImageDerivativeService on each image.
+-- PostgreSQL. The prod profile only validates the schema; run once before deploying.
+-- Existing images keep an empty list and are served at their original size.
+
+ALTER TABLE imagine ADD COLUMN IF NOT EXISTS available_widths VARCHAR(255);
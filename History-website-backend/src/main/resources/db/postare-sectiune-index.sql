@@ -0,0 +1,4 @@
+-- Index behind the posts of a section (/api/posts/sectiune/{id} and the section graphs).
+-- PostgreSQL. The prod profile does not create indexes; run once.
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_postare_sectiune_id ON postare (sectiune_id);
@@ -0,0 +1,4 @@
+-- Index behind the booking counts, which filter rezervare on half-open datetime ranges.
+-- PostgreSQL. The prod profile does not create indexes; run once.
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_rezervare_datetime ON rezervare (datetime);
@@ -0,0 +1,11 @@
+-- Per-slot booking counters used by SlotCapacityService to admit bookings.
+-- PostgreSQL. The prod profile only validates the schema; run once before deploying.
+-- Rows are created on the first booking of each slot, seeded from the existing bookings.
+
+CREATE TABLE IF NOT EXISTS slot_capacity (
+    id         SERIAL PRIMARY KEY,
+    slot_date  DATE    NOT NULL,
+    start_hour INTEGER NOT NULL,
+    booked     INTEGER NOT NULL,
+    CONSTRAINT uk_slot_capacity_slot UNIQUE (slot_date, start_hour)
+);
@@ -0,0 +1,132 @@
+package com.museumhistory.config;
+
+import com.museumhistory.model.Administrator;
+import com.museumhistory.model.Sectiune;
+import com.museumhistory.repository.AdministratorRepository;
+import com.museumhistory.repository.PostareRepository;
+import com.museumhistory.repository.SectiuneRepository;
+import com.museumhistory.service.JwtService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.endsWith;
+import static org.hamcrest.Matchers.hasItem;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+// The response cache is off in the test profile; this context turns it on, against its own database
+@SpringBootTest(properties = {
+        "museum.response-cache.enabled=true",
+        "museum.response-cache.gzip-min-bytes=64",
+        "spring.datasource.url=jdbc:h2:mem:responsecachetest;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class PublicResponseCacheIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private SectiuneRepository sectiuneRepository;
+
+    @Autowired
+    private PostareRepository postareRepository;
+
+    @Autowired
+    private AdministratorRepository administratorRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private PublicResponseCacheFilter responseCache;
+
+    private String validToken;
+
+    @BeforeEach
+    void setUp() {
+        postareRepository.deleteAll();
+        sectiuneRepository.deleteAll();
+        administratorRepository.deleteAll();
+        responseCache.invalidate();
+
+        Administrator admin = new Administrator();
+        admin.setFirstName("Test");
+        admin.setLastName("Admin");
+        admin.setUsername("cacheadmin");
+        admin.setPassword(passwordEncoder.encode("testpassword"));
+        admin.setEmail("cache@admin.com");
+        administratorRepository.save(admin);
+        validToken = jwtService.generateToken("cacheadmin");
+
+        sectiuneRepository.save(section("Istoric"));
+    }
+
+    private Sectiune section(String titlu) {
+        Sectiune sectiune = new Sectiune();
+        sectiune.setTitlu(titlu);
+        sectiune.setDescriere("Descriere suficient de lunga pentru a fi comprimata cu gzip");
+        sectiune.setOrdine(1);
+        return sectiune;
+    }
+
+    @Test
+    void get_ShouldAnswerMatchingIfNoneMatchWithNotModified() throws Exception {
+        // Given
+        String etag = mockMvc.perform(get("/api/sectiuni"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // When & Then
+        mockMvc.perform(get("/api/sectiuni").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    void get_ShouldServeCachedBytes_UntilAWriteThroughTheApi() throws Exception {
+        // Given
+        String first = mockMvc.perform(get("/api/sectiuni"))
+                .andReturn().getResponse().getContentAsString();
+        sectiuneRepository.save(section("Scrisa direct in baza de date"));
+
+        // When
+        String cached = mockMvc.perform(get("/api/sectiuni"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        mockMvc.perform(post("/api/sectiuni")
+                        .header("Authorization", "Bearer " + validToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"titlu\":\"Arhiva\",\"descriere\":\"Documente\",\"ordine\":2}"))
+                .andExpect(status().is2xxSuccessful());
+
+        // Then
+        assertEquals(first, cached);
+        mockMvc.perform(get("/api/sectiuni"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(3));
+    }
+
+    @Test
+    void get_ShouldServeGzippedBody_WhenClientAcceptsIt() throws Exception {
+        mockMvc.perform(get("/api/sectiuni").header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andExpect(header().stringValues(HttpHeaders.VARY, hasItem(HttpHeaders.ACCEPT_ENCODING)))
+                .andExpect(header().string(HttpHeaders.ETAG, endsWith("-gzip\"")));
+    }
+}
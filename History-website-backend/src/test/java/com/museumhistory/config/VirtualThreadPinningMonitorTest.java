@@ -0,0 +1,54 @@
+package com.museumhistory.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VirtualThreadPinningMonitorTest {
+
+    private final Object monitor = new Object();
+
+    private VirtualThreadPinningMonitor pinningMonitor;
+
+    @BeforeEach
+    void setUp() {
+        pinningMonitor = new VirtualThreadPinningMonitor();
+        pinningMonitor.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        pinningMonitor.stop();
+    }
+
+    private void sleepWhileHoldingMonitor() {
+        synchronized (monitor) {
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    @Test
+    void blockingInsideSynchronized_ShouldBeCountedAtTheApplicationFrame() throws InterruptedException {
+        // When
+        Thread.ofVirtual().start(this::sleepWhileHoldingMonitor).join();
+
+        // Then: JFR streams events with a delay of about a second
+        Map<String, Long> pinned = Map.of();
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (pinned.isEmpty() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(200);
+            pinned = pinningMonitor.getPinnedCounts();
+        }
+        assertTrue(pinned.keySet().stream().anyMatch(site ->
+                        site.startsWith(VirtualThreadPinningMonitorTest.class.getName() + ".sleepWhileHoldingMonitor")),
+                pinned.toString());
+    }
+}
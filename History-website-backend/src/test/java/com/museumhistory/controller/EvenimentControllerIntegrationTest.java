@@ -0,0 +1,215 @@
+package com.museumhistory.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.museumhistory.model.Eveniment;
+import com.museumhistory.model.EvenimentSummary;
+import com.museumhistory.model.Imagine;
+import com.museumhistory.repository.EvenimentRepository;
+import com.museumhistory.service.JwtService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.Matchers.hasLength;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+// Not @Transactional: the NDJSON export reads in its own transaction and must see the seeded rows
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class EvenimentControllerIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EvenimentRepository evenimentRepository;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    void setUp() {
+        evenimentRepository.deleteAll();
+        for (int i = 1; i <= 3; i++) {
+            Eveniment eveniment = new Eveniment();
+            eveniment.setName("Eveniment " + i);
+            eveniment.setStartDate(LocalDateTime.of(2025, 9, i, 10, 0));
+            eveniment.setEndDate(LocalDateTime.of(2025, 9, i, 12, 0));
+            eveniment.setLocation("Nasaud");
+            evenimentRepository.save(eveniment);
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        evenimentRepository.deleteAll();
+    }
+
+    @Test
+    void getAllEvents_WithoutCursor_ShouldReturnPlainArray() throws Exception {
+        mockMvc.perform(get("/api/events"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(3));
+    }
+
+    @Test
+    void getAllEvents_WithLimit_ShouldPageThroughAllEvents() throws Exception {
+        // When
+        String firstPage = mockMvc.perform(get("/api/events").param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(2))
+                .andExpect(jsonPath("$.hasMore").value(true))
+                .andReturn().getResponse().getContentAsString();
+        String cursor = objectMapper.readTree(firstPage).get("nextCursor").asText();
+
+        // Then
+        mockMvc.perform(get("/api/events").param("cursor", cursor).param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(1))
+                .andExpect(jsonPath("$.items[0].name").value("Eveniment 3"))
+                .andExpect(jsonPath("$.hasMore").value(false));
+    }
+
+    @Test
+    void getAllEvents_WithSummaryView_ShouldReturnExcerptAndCoverImageOnly() throws Exception {
+        // Given
+        Eveniment eveniment = evenimentRepository.findAll().stream()
+                .filter(e -> e.getName().equals("Eveniment 1"))
+                .findFirst().orElseThrow();
+        eveniment.setDescription("a".repeat(EvenimentSummary.EXCERPT_LENGTH + 100));
+        List<Imagine> images = new ArrayList<>();
+        for (int position : new int[]{1, 0}) {
+            Imagine imagine = new Imagine();
+            imagine.setPath("poza-" + position + ".jpg");
+            imagine.setPosition(position);
+            images.add(imagine);
+        }
+        eveniment.setImages(images);
+        evenimentRepository.save(eveniment);
+
+        // When & Then
+        mockMvc.perform(get("/api/events").param("view", "summary"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(3))
+                .andExpect(jsonPath("$[0].name").value("Eveniment 1"))
+                .andExpect(jsonPath("$[0].description").value(hasLength(EvenimentSummary.EXCERPT_LENGTH)))
+                .andExpect(jsonPath("$[0].coverImage").value("poza-0.jpg"))
+                .andExpect(jsonPath("$[0].images").doesNotExist())
+                .andExpect(jsonPath("$[1].coverImage").doesNotExist());
+    }
+
+    @Test
+    void getAllEvents_WithSummaryViewAndLimit_ShouldPageSummaries() throws Exception {
+        mockMvc.perform(get("/api/events").param("view", "summary").param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(2))
+                .andExpect(jsonPath("$.items[0].name").value("Eveniment 1"))
+                .andExpect(jsonPath("$.hasMore").value(true));
+    }
+
+    @Test
+    void getEventsBetween_ShouldReturnEventsOverlappingHalfOpenRange() throws Exception {
+        mockMvc.perform(get("/api/events/range").param("from", "2025-09-02").param("to", "2025-09-03"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].name").value("Eveniment 2"));
+    }
+
+    @Test
+    void getEventsBetween_ShouldIncludeEventsStartedBeforeRange() throws Exception {
+        // Given
+        Eveniment expozitie = new Eveniment();
+        expozitie.setName("Expozitie de vara");
+        expozitie.setStartDate(LocalDateTime.of(2025, 8, 1, 9, 0));
+        expozitie.setEndDate(LocalDateTime.of(2025, 9, 30, 18, 0));
+        evenimentRepository.save(expozitie);
+
+        // When & Then
+        mockMvc.perform(get("/api/events/range").param("from", "2025-09-03").param("to", "2025-10-01"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].name").value("Expozitie de vara"))
+                .andExpect(jsonPath("$[1].name").value("Eveniment 3"));
+    }
+
+    @Test
+    void getEventsBetween_WithEmptyRange_ShouldReturnBadRequest() throws Exception {
+        mockMvc.perform(get("/api/events/range").param("from", "2025-09-03").param("to", "2025-09-03"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.status").value("error"));
+    }
+
+    @Test
+    void getUpcomingEvents_ShouldReturnOnlyFutureEventsSoonestFirst() throws Exception {
+        // Given
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        for (int i = 2; i >= 1; i--) {
+            Eveniment eveniment = new Eveniment();
+            eveniment.setName("Viitor " + i);
+            eveniment.setStartDate(start.plusDays(i));
+            eveniment.setEndDate(start.plusDays(i).plusHours(2));
+            evenimentRepository.save(eveniment);
+        }
+
+        // When & Then
+        mockMvc.perform(get("/api/events/upcoming").param("limit", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].name").value("Viitor 1"))
+                .andExpect(jsonPath("$[1].name").value("Viitor 2"));
+    }
+
+    @Test
+    void getAllEvents_WithInvalidCursor_ShouldReturnBadRequest() throws Exception {
+        mockMvc.perform(get("/api/events").param("cursor", "bad"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.status").value("error"));
+    }
+
+    @Test
+    void exportEvents_WithoutToken_ShouldBeRejected() throws Exception {
+        mockMvc.perform(get("/api/events/export"))
+                .andExpect(status().is4xxClientError());
+    }
+
+    @Test
+    void exportEvents_AsAdmin_ShouldWriteOneJsonObjectPerLine() throws Exception {
+        // Given
+        String token = jwtService.generateToken("admin");
+
+        // When
+        MvcResult asyncResult = mockMvc.perform(get("/api/events/export")
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String body = mockMvc.perform(asyncDispatch(asyncResult))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", "application/x-ndjson"))
+                .andReturn().getResponse().getContentAsString();
+
+        // Then
+        String[] lines = body.strip().split("\n");
+        assertEquals(3, lines.length);
+        for (String line : lines) {
+            JsonNode event = objectMapper.readTree(line);
+            assertTrue(event.get("name").asText().startsWith("Eveniment "));
+        }
+    }
+}
@@ -21,6 +21,10 @@ import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.HexFormat;
+
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 import static org.hamcrest.Matchers.*;
@@ -147,12 +151,41 @@ class ImagineControllerIntegrationTest {
                 .param("position", "5")
                 .header("Authorization", "Bearer " + validToken))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$.imagePath").value(containsString("test-upload.jpg")));
+                .andExpect(jsonPath("$.imagePath").value(matchesPattern("[0-9a-f]{2}/[0-9a-f]{2}/[0-9a-f]{64}\\.jpg")));
 
         // Verify image was saved to database
         assert imagineRepository.count() == 2; // testImage + uploaded image
     }
 
+    @Test
+    void uploadImage_WithSameContentTwice_ShouldShareStoredFile() throws Exception {
+        // Given
+        byte[] content = "same scan content".getBytes();
+        MockMultipartFile first = new MockMultipartFile("image", "coperta.jpg", MediaType.IMAGE_JPEG_VALUE, content);
+        MockMultipartFile second = new MockMultipartFile("image", "coperta-copie.jpg", MediaType.IMAGE_JPEG_VALUE, content);
+
+        // When
+        String firstPath = objectMapper.readTree(mockMvc.perform(multipart("/api/images/upload-image")
+                        .file(first)
+                        .param("description", "Prima postare")
+                        .header("Authorization", "Bearer " + validToken))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString()).get("imagePath").asText();
+        String secondPath = objectMapper.readTree(mockMvc.perform(multipart("/api/images/upload-image")
+                        .file(second)
+                        .param("description", "A doua postare")
+                        .header("Authorization", "Bearer " + validToken))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString()).get("imagePath").asText();
+
+        // Then
+        assert firstPath.equals(secondPath);
+        assert imagineRepository.countByPath(firstPath) == 2;
+        mockMvc.perform(get("/api/images/uploads/" + firstPath))
+                .andExpect(status().isOk())
+                .andExpect(content().bytes(content));
+    }
+
     @Test
     void uploadImage_WithoutToken_ShouldReturnForbidden() throws Exception {
         // Given
@@ -210,7 +243,7 @@ class ImagineControllerIntegrationTest {
 
         // Verify position defaults to 0
         Imagine uploadedImage = imagineRepository.findAll().stream()
-                .filter(img -> img.getPath().contains("default-position.jpg"))
+                .filter(img -> "Image with default position".equals(img.getDescription()))
                 .findFirst()
                 .orElse(null);
         
@@ -218,6 +251,120 @@ class ImagineControllerIntegrationTest {
         assert uploadedImage.getPosition() == 0;
     }
 
+    @Test
+    void chunkedUpload_ShouldAssembleChunksAndCreateImage() throws Exception {
+        // Given
+        byte[] content = "scan de inalta rezolutie al copertei".getBytes();
+        String sha256 = HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+        String uploadId = objectMapper.readTree(mockMvc.perform(post("/api/images/upload-image/chunked")
+                        .header("Authorization", "Bearer " + validToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"filename\":\"coperta.tif\",\"size\":" + content.length
+                                + ",\"description\":\"Coperta Arhiva Somesana\",\"position\":4}"))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.offset").value(0))
+                .andReturn().getResponse().getContentAsString()).get("uploadId").asText();
+        String chunkUrl = "/api/images/upload-image/chunked/" + uploadId;
+
+        // When
+        mockMvc.perform(put(chunkUrl).param("offset", "0")
+                        .header("Authorization", "Bearer " + validToken)
+                        .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                        .content(Arrays.copyOfRange(content, 0, 10)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.offset").value(10));
+        mockMvc.perform(put(chunkUrl).param("offset", "10")
+                        .header("Authorization", "Bearer " + validToken)
+                        .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                        .content(Arrays.copyOfRange(content, 10, content.length)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.offset").value(content.length));
+
+        // Then
+        mockMvc.perform(post(chunkUrl + "/complete")
+                        .header("Authorization", "Bearer " + validToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"sha256\":\"" + sha256 + "\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imagePath").value(sha256.substring(0, 2) + "/" + sha256.substring(2, 4) + "/" + sha256 + ".tif"));
+
+        Imagine created = imagineRepository.findAll().stream()
+                .filter(img -> "Coperta Arhiva Somesana".equals(img.getDescription()))
+                .findFirst()
+                .orElseThrow();
+        assert created.getPosition() == 4;
+    }
+
+    @Test
+    void chunkedUpload_ShouldRejectWrongOffsetAndChecksum() throws Exception {
+        // Given
+        byte[] content = "fragment".getBytes();
+        String uploadId = objectMapper.readTree(mockMvc.perform(post("/api/images/upload-image/chunked")
+                        .header("Authorization", "Bearer " + validToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"filename\":\"scan.jpg\",\"size\":" + content.length + ",\"description\":\"Scan\"}"))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString()).get("uploadId").asText();
+        String chunkUrl = "/api/images/upload-image/chunked/" + uploadId;
+
+        // When / Then
+        mockMvc.perform(put(chunkUrl).param("offset", "3")
+                        .header("Authorization", "Bearer " + validToken)
+                        .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                        .content(content))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.offset").value(0));
+        mockMvc.perform(put(chunkUrl).param("offset", "0")
+                        .header("Authorization", "Bearer " + validToken)
+                        .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                        .content(content))
+                .andExpect(status().isOk());
+        mockMvc.perform(post(chunkUrl + "/complete")
+                        .header("Authorization", "Bearer " + validToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"sha256\":\"" + "0".repeat(64) + "\"}"))
+                .andExpect(status().isUnprocessableEntity());
+        mockMvc.perform(get(chunkUrl).header("Authorization", "Bearer " + validToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.offset").value(content.length));
+    }
+
+    @Test
+    void reorderImages_WithValidToken_ShouldUpdateAllPositions() throws Exception {
+        // Given
+        Imagine second = new Imagine();
+        second.setPath("second.jpg");
+        second.setDescription("Second image");
+        second.setPosition(1);
+        second = imagineRepository.save(second);
+        String body = "[{\"id\":" + second.getId() + ",\"position\":0},"
+                + "{\"id\":" + testImage.getId() + ",\"position\":1}]";
+
+        // When
+        mockMvc.perform(post("/api/images/reorder")
+                        .header("Authorization", "Bearer " + validToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("success"));
+
+        // Then
+        mockMvc.perform(get("/api/images"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(second.getId()))
+                .andExpect(jsonPath("$[1].id").value(testImage.getId()));
+    }
+
+    @Test
+    void reorderImages_WithUnknownImage_ShouldReturnBadRequest() throws Exception {
+        mockMvc.perform(post("/api/images/reorder")
+                        .header("Authorization", "Bearer " + validToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"id\":" + testImage.getId() + ",\"position\":1},{\"id\":999999,\"position\":0}]"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value(containsString("999999")));
+    }
+
     @Test
     void createImage_WithValidToken_ShouldCreateImage() throws Exception {
         // Given
@@ -0,0 +1,77 @@
+package com.museumhistory.controller.staticresources;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class StaticResourceControllerIntegrationTest {
+
+    private static final String IMAGE_URL = "/api/staticresources/images/Istoric/Arhiva Somesana.jpg";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void getImage_ShouldReturnImageWithValidators() throws Exception {
+        mockMvc.perform(get(IMAGE_URL))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("image/jpeg"))
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andExpect(header().exists(HttpHeaders.LAST_MODIFIED))
+                .andExpect(header().string(HttpHeaders.ACCEPT_RANGES, "bytes"));
+    }
+
+    @Test
+    void getImage_WithMatchingETag_ShouldReturnNotModified() throws Exception {
+        // Given
+        String etag = mockMvc.perform(get(IMAGE_URL))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // When & Then
+        mockMvc.perform(get(IMAGE_URL).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().bytes(new byte[0]));
+    }
+
+    @Test
+    void getImage_WithRange_ShouldReturnPartialContent() throws Exception {
+        // When
+        MvcResult result = mockMvc.perform(get(IMAGE_URL).header(HttpHeaders.RANGE, "bytes=0-9"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, startsWith("bytes 0-9/")))
+                .andReturn();
+
+        // Then
+        byte[] body = result.getResponse().getContentAsByteArray();
+        assertEquals(10, body.length);
+        // JPEG start-of-image marker
+        assertEquals((byte) 0xFF, body[0]);
+        assertEquals((byte) 0xD8, body[1]);
+    }
+
+    @Test
+    void getImage_ShouldReturnNotFound_ForMissingImage() throws Exception {
+        mockMvc.perform(get("/api/staticresources/images/Istoric/nu-exista.jpg"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void getImagesFromFolder_ShouldListFolderContents() throws Exception {
+        mockMvc.perform(get("/api/staticresources/images/Istoric"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasItem("Arhiva Somesana.jpg")));
+    }
+}
@@ -0,0 +1,45 @@
+package com.museumhistory.pagination;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PageCursorTest {
+
+    @Test
+    void decode_ShouldReturnEncodedId() {
+        assertEquals(42, PageCursor.decode(PageCursor.encode(42)));
+    }
+
+    @Test
+    void decode_ShouldStartFromBeginning_WhenCursorMissing() {
+        assertEquals(0, PageCursor.decode(null));
+        assertEquals(0, PageCursor.decode(""));
+    }
+
+    @Test
+    void decode_ShouldRejectForeignCursor() {
+        assertThrows(IllegalArgumentException.class, () -> PageCursor.decode("42"));
+        assertThrows(IllegalArgumentException.class, () -> PageCursor.decode("%%%"));
+    }
+
+    @Test
+    void resolveLimit_ShouldClampToAllowedRange() {
+        assertEquals(PageCursor.DEFAULT_LIMIT, PageCursor.resolveLimit(null));
+        assertEquals(1, PageCursor.resolveLimit(0));
+        assertEquals(PageCursor.MAX_LIMIT, PageCursor.resolveLimit(10_000));
+    }
+
+    @Test
+    void toPage_ShouldDropExtraRowAndPointCursorAtLastItem() {
+        // When
+        CursorPage<Integer> page = PageCursor.toPage(List.of(3, 5, 8), 2, id -> id);
+
+        // Then
+        assertEquals(List.of(3, 5), page.items());
+        assertTrue(page.hasMore());
+        assertEquals(5, PageCursor.decode(page.nextCursor()));
+    }
+}
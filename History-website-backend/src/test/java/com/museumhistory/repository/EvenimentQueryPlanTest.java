@@ -0,0 +1,160 @@
+package com.museumhistory.repository;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Objects;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compares on a real PostgreSQL the plans of the event list and the exhibition
+ * by-type reads before and after db/evenimente-single-table.sql, on 100k events
+ * of which one in four is an exhibition. The schema is first built the way the
+ * JOINED mapping created it and queried with the SQL Hibernate generated for
+ * it, then migrated with the script and queried with the SINGLE_TABLE SQL.
+ * The plans are logged for comparison. Runs only when MUSEUM_PG_TEST_URL is
+ * set, like RezervareQueryPlanTest:
+ *
+ *   MUSEUM_PG_TEST_URL=jdbc:postgresql://localhost/postgres ./gradlew test --tests '*QueryPlanTest'
+ */
+@EnabledIfEnvironmentVariable(named = "MUSEUM_PG_TEST_URL", matches = ".+")
+class EvenimentQueryPlanTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(EvenimentQueryPlanTest.class);
+
+    private static final String SCHEMA = "evenimente_plan_test";
+    private static final int ROWS = 100_000;
+
+    private static final Pattern TOTAL_COST = Pattern.compile("cost=[0-9.]+\\.\\.([0-9.]+)");
+
+    // SQL of EvenimentRepository.findAll and ExpozitieRepository.findByTip under each mapping
+    private static final String FIND_ALL_JOINED =
+            "SELECT e.id, CASE WHEN x.id IS NOT NULL THEN 1 WHEN e.id IS NOT NULL THEN 0 END, e.description, " +
+            "e.end_date, e.location, e.name, e.start_date, x.tip " +
+            "FROM evenimente e LEFT JOIN expozitie x ON e.id = x.id";
+    private static final String FIND_BY_TIP_JOINED =
+            "SELECT x.id, e.description, e.end_date, e.location, e.name, e.start_date, x.tip " +
+            "FROM expozitie x JOIN evenimente e ON x.id = e.id WHERE x.tip = 'TEMPORARA'";
+    private static final String FIND_ALL_SINGLE_TABLE =
+            "SELECT e.tip_eveniment, e.id, e.description, e.end_date, e.location, e.name, e.start_date, e.tip " +
+            "FROM evenimente e";
+    private static final String FIND_BY_TIP_SINGLE_TABLE =
+            "SELECT e.id, e.description, e.end_date, e.location, e.name, e.start_date, e.tip " +
+            "FROM evenimente e WHERE e.tip_eveniment = 'EXPOZITIE' AND e.tip = 'TEMPORARA'";
+
+    private static Connection connection;
+
+    private static String findAllBefore;
+    private static String findByTipBefore;
+    private static String findAllAfter;
+    private static String findByTipAfter;
+
+    @BeforeAll
+    static void seedAndMigrate() throws SQLException, IOException {
+        connection = DriverManager.getConnection(System.getenv("MUSEUM_PG_TEST_URL"),
+                Objects.requireNonNullElse(System.getenv("MUSEUM_PG_TEST_USER"), "postgres"),
+                Objects.requireNonNullElse(System.getenv("MUSEUM_PG_TEST_PASSWORD"), ""));
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+            statement.execute("CREATE SCHEMA " + SCHEMA);
+            statement.execute("SET search_path TO " + SCHEMA);
+            statement.execute("CREATE TABLE evenimente (id SERIAL PRIMARY KEY, name VARCHAR(255), " +
+                    "start_date TIMESTAMP(6), end_date TIMESTAMP(6), location VARCHAR(255), description VARCHAR(5000))");
+            statement.execute("CREATE TABLE expozitie (id INTEGER PRIMARY KEY REFERENCES evenimente (id), " +
+                    "tip VARCHAR(255) CHECK (tip IN ('TEMPORARA', 'PERMANENTA')))");
+            statement.execute("INSERT INTO evenimente (name, start_date, end_date, location, description) " +
+                    "SELECT 'Eveniment ' || g, TIMESTAMP '2020-01-01 10:00' + (g % 2000) * INTERVAL '1 day', " +
+                    "TIMESTAMP '2020-01-01 18:00' + (g % 2000) * INTERVAL '1 day', 'Sala ' || (g % 12), " +
+                    "'Descriere' FROM generate_series(1, " + ROWS + ") g");
+            // One event in four is an exhibition, one exhibition in ten is temporary
+            statement.execute("INSERT INTO expozitie (id, tip) " +
+                    "SELECT id, CASE WHEN id % 40 = 0 THEN 'TEMPORARA' ELSE 'PERMANENTA' END " +
+                    "FROM evenimente WHERE id % 4 = 0");
+            statement.execute("ANALYZE evenimente");
+            statement.execute("ANALYZE expozitie");
+
+            findAllBefore = explain(FIND_ALL_JOINED);
+            findByTipBefore = explain(FIND_BY_TIP_JOINED);
+
+            statement.execute(readScript("db/evenimente-single-table.sql"));
+            // The backfill rewrote every row; compact the table so its size is not the old one doubled
+            statement.execute("VACUUM FULL ANALYZE evenimente");
+
+            findAllAfter = explain(FIND_ALL_SINGLE_TABLE);
+            findByTipAfter = explain(FIND_BY_TIP_SINGLE_TABLE);
+        }
+        logger.info("findAll, JOINED:\n{}findAll, SINGLE_TABLE:\n{}", findAllBefore, findAllAfter);
+        logger.info("findByTip, JOINED:\n{}findByTip, SINGLE_TABLE:\n{}", findByTipBefore, findByTipAfter);
+    }
+
+    @AfterAll
+    static void dropSchema() throws SQLException {
+        if (connection == null) {
+            return;
+        }
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+        } finally {
+            connection.close();
+        }
+    }
+
+    private static String readScript(String resource) throws IOException {
+        try (InputStream in = EvenimentQueryPlanTest.class.getClassLoader().getResourceAsStream(resource)) {
+            String script = new String(Objects.requireNonNull(in, resource).readAllBytes(), StandardCharsets.UTF_8);
+            return script.lines().filter(line -> !line.startsWith("--")).reduce("", (a, b) -> a + "\n" + b);
+        }
+    }
+
+    private static String explain(String query) throws SQLException {
+        StringBuilder plan = new StringBuilder();
+        try (Statement statement = connection.createStatement();
+             ResultSet rows = statement.executeQuery("EXPLAIN (ANALYZE, BUFFERS) " + query)) {
+            while (rows.next()) {
+                plan.append(rows.getString(1)).append('\n');
+            }
+        }
+        return plan.toString();
+    }
+
+    // Estimated total cost of the top plan node
+    private static double totalCost(String plan) {
+        Matcher matcher = TOTAL_COST.matcher(plan);
+        assertTrue(matcher.find(), plan);
+        return Double.parseDouble(matcher.group(1));
+    }
+
+    private static boolean joins(String plan) {
+        return plan.contains("Join") || plan.contains("Nested Loop");
+    }
+
+    @Test
+    void findAll_ShouldReadOneTableWithoutJoin_AfterMigration() {
+        assertTrue(joins(findAllBefore), findAllBefore);
+        assertFalse(joins(findAllAfter), findAllAfter);
+        assertTrue(totalCost(findAllAfter) < totalCost(findAllBefore), findAllBefore + findAllAfter);
+    }
+
+    @Test
+    void findByTip_ShouldUseDiscriminatorIndex_AfterMigration() {
+        assertTrue(joins(findByTipBefore), findByTipBefore);
+        assertFalse(joins(findByTipAfter), findByTipAfter);
+        assertTrue(findByTipAfter.contains("idx_evenimente_tip_eveniment_tip"), findByTipAfter);
+        assertTrue(totalCost(findByTipAfter) < totalCost(findByTipBefore), findByTipBefore + findByTipAfter);
+    }
+}
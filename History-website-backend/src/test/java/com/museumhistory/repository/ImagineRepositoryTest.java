@@ -0,0 +1,100 @@
+package com.museumhistory.repository;
+
+import com.museumhistory.model.Eveniment;
+import com.museumhistory.model.Imagine;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class ImagineRepositoryTest {
+
+    @Autowired
+    private ImagineRepository imagineRepository;
+
+    @Autowired
+    private EvenimentRepository evenimentRepository;
+
+    @BeforeEach
+    void setUp() {
+        evenimentRepository.deleteAll();
+    }
+
+    @AfterEach
+    void tearDown() {
+        evenimentRepository.deleteAll();
+    }
+
+    private Eveniment saveEvent(Imagine... images) {
+        Eveniment eveniment = new Eveniment();
+        eveniment.setName("Eveniment");
+        eveniment.setImages(new ArrayList<>(List.of(images)));
+        return evenimentRepository.save(eveniment);
+    }
+
+    private Imagine image(String path, int position) {
+        Imagine imagine = new Imagine();
+        imagine.setPath(path);
+        imagine.setPosition(position);
+        return imagine;
+    }
+
+    @Test
+    void findCoverPathsByEvenimentIdIn_ShouldReturnFirstImageByPosition() {
+        // Given
+        Eveniment withImages = saveEvent(image("b.jpg", 2), image("a.jpg", 1), image("c.jpg", 3));
+        Eveniment withoutImages = saveEvent();
+
+        // When
+        Map<Integer, String> covers = imagineRepository.findCoverPathsByEvenimentIdIn(
+                List.of(withImages.getId(), withoutImages.getId()));
+
+        // Then
+        assertEquals(Map.of(withImages.getId(), "a.jpg"), covers);
+    }
+
+    @Test
+    void findCoverPathsByEvenimentIdIn_ShouldBreakPositionTiesById() {
+        // Given
+        Eveniment eveniment = saveEvent(image("first.jpg", 0), image("second.jpg", 0));
+
+        // When
+        Map<Integer, String> covers = imagineRepository.findCoverPathsByEvenimentIdIn(List.of(eveniment.getId()));
+
+        // Then
+        assertEquals("first.jpg", covers.get(eveniment.getId()));
+    }
+
+    @Test
+    void findCoverPathsByEvenimentIdIn_ShouldQueryIdsBeyondOneStatement() {
+        // Given
+        Eveniment first = saveEvent(image("first.jpg", 0));
+        Eveniment last = saveEvent(image("last.jpg", 0));
+        // The second event's id lands in the third statement
+        List<Integer> ids = new ArrayList<>(List.of(first.getId()));
+        IntStream.range(0, 1_100).forEach(i -> ids.add(-1 - i));
+        ids.add(last.getId());
+
+        // When
+        Map<Integer, String> covers = imagineRepository.findCoverPathsByEvenimentIdIn(ids);
+
+        // Then
+        assertEquals(Map.of(first.getId(), "first.jpg", last.getId(), "last.jpg"), covers);
+    }
+
+    @Test
+    void findCoverPathsByEvenimentIdIn_ShouldReturnEmptyMap_WhenNoIds() {
+        assertTrue(imagineRepository.findCoverPathsByEvenimentIdIn(List.of()).isEmpty());
+    }
+}
@@ -0,0 +1,116 @@
+package com.museumhistory.repository;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Objects;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks on a real PostgreSQL that the booking count predicates are answered
+ * from idx_rezervare_datetime, on a table of 1M bookings built with the index
+ * from db/rezervare-datetime-index.sql. Runs only when MUSEUM_PG_TEST_URL points
+ * to a database it may create and drop a scratch schema in, e.g.
+ *
+ *   MUSEUM_PG_TEST_URL=jdbc:postgresql://localhost/postgres ./gradlew test --tests '*QueryPlanTest'
+ */
+@EnabledIfEnvironmentVariable(named = "MUSEUM_PG_TEST_URL", matches = ".+")
+class RezervareQueryPlanTest {
+
+    private static final String SCHEMA = "rezervare_plan_test";
+    private static final int ROWS = 1_000_000;
+
+    private static Connection connection;
+
+    @BeforeAll
+    static void seed() throws SQLException, IOException {
+        connection = DriverManager.getConnection(System.getenv("MUSEUM_PG_TEST_URL"),
+                Objects.requireNonNullElse(System.getenv("MUSEUM_PG_TEST_USER"), "postgres"),
+                Objects.requireNonNullElse(System.getenv("MUSEUM_PG_TEST_PASSWORD"), ""));
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+            statement.execute("CREATE SCHEMA " + SCHEMA);
+            statement.execute("SET search_path TO " + SCHEMA);
+            statement.execute("CREATE TABLE rezervare (id SERIAL PRIMARY KEY, nume VARCHAR(255), " +
+                    "prenume VARCHAR(255), email VARCHAR(255), datetime TIMESTAMP(6), number_of_persons INTEGER, " +
+                    "guide_required BOOLEAN NOT NULL, age_group VARCHAR(255), created_at TIMESTAMP(6))");
+            // Bookings every day over ~5.5 years, 9:00 to 16:00
+            statement.execute("INSERT INTO rezervare (nume, prenume, email, datetime, number_of_persons, guide_required) " +
+                    "SELECT 'Nume', 'Prenume', 'test@test.com', " +
+                    "TIMESTAMP '2020-01-01 09:00' + (g % 2000) * INTERVAL '1 day' + (g % 8) * INTERVAL '1 hour', " +
+                    "1 + g % 10, false FROM generate_series(1, " + ROWS + ") g");
+            statement.execute(readScript("db/rezervare-datetime-index.sql"));
+            statement.execute("ANALYZE rezervare");
+        }
+    }
+
+    @AfterAll
+    static void dropSchema() throws SQLException {
+        if (connection == null) {
+            return;
+        }
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+        } finally {
+            connection.close();
+        }
+    }
+
+    private static String readScript(String resource) throws IOException {
+        try (InputStream in = RezervareQueryPlanTest.class.getClassLoader().getResourceAsStream(resource)) {
+            String script = new String(Objects.requireNonNull(in, resource).readAllBytes(), StandardCharsets.UTF_8);
+            return script.lines().filter(line -> !line.startsWith("--")).reduce("", (a, b) -> a + "\n" + b);
+        }
+    }
+
+    private static String explain(String query) throws SQLException {
+        StringBuilder plan = new StringBuilder();
+        try (Statement statement = connection.createStatement();
+             ResultSet rows = statement.executeQuery("EXPLAIN " + query)) {
+            while (rows.next()) {
+                plan.append(rows.getString(1)).append('\n');
+            }
+        }
+        return plan.toString();
+    }
+
+    @Test
+    void countBookingsBetween_ShouldUseDatetimeIndex() throws SQLException {
+        String plan = explain("SELECT count(*) FROM rezervare " +
+                "WHERE datetime >= TIMESTAMP '2023-03-05 10:00' AND datetime < TIMESTAMP '2023-03-05 12:00'");
+
+        assertTrue(plan.contains("idx_rezervare_datetime"), plan);
+        assertFalse(plan.contains("Seq Scan"), plan);
+    }
+
+    @Test
+    void countBookingsPerHourBetween_ShouldUseDatetimeIndex() throws SQLException {
+        String plan = explain("SELECT extract(year FROM datetime), extract(month FROM datetime), " +
+                "extract(day FROM datetime), extract(hour FROM datetime), count(*) FROM rezervare " +
+                "WHERE datetime >= TIMESTAMP '2023-03-01 00:00' AND datetime < TIMESTAMP '2023-04-01 00:00' " +
+                "GROUP BY 1, 2, 3, 4");
+
+        assertTrue(plan.contains("idx_rezervare_datetime"), plan);
+        assertFalse(plan.contains("Seq Scan"), plan);
+    }
+
+    @Test
+    void dateFunctionPredicate_ShouldNotBeAbleToUseTheIndex() throws SQLException {
+        // The predicate shape countBookingsByDateAndTimeInterval used before
+        String plan = explain("SELECT count(*) FROM rezervare WHERE CAST(datetime AS DATE) = DATE '2023-03-05' " +
+                "AND extract(hour FROM datetime) BETWEEN 10 AND 11");
+
+        assertFalse(plan.contains("idx_rezervare_datetime"), plan);
+    }
+}
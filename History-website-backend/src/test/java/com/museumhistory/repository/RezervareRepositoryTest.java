@@ -0,0 +1,71 @@
+package com.museumhistory.repository;
+
+import com.museumhistory.model.Rezervare;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class RezervareRepositoryTest {
+
+    @Autowired
+    private RezervareRepository rezervareRepository;
+
+    @BeforeEach
+    void setUp() {
+        rezervareRepository.deleteAll();
+        // 09:00, 10:30, 11:59, 12:00 on the 5th, and midnight of the 6th
+        save(LocalDateTime.of(2025, 3, 5, 9, 0));
+        save(LocalDateTime.of(2025, 3, 5, 10, 30));
+        save(LocalDateTime.of(2025, 3, 5, 11, 59));
+        save(LocalDateTime.of(2025, 3, 5, 12, 0));
+        save(LocalDateTime.of(2025, 3, 6, 0, 0));
+    }
+
+    @AfterEach
+    void tearDown() {
+        rezervareRepository.deleteAll();
+    }
+
+    private void save(LocalDateTime datetime) {
+        Rezervare rezervare = new Rezervare();
+        rezervare.setNume("Test");
+        rezervare.setPrenume("Vizitator");
+        rezervare.setEmail("vizitator@test.com");
+        rezervare.setDatetime(datetime);
+        rezervare.setNumberOfPersons(2);
+        rezervareRepository.save(rezervare);
+    }
+
+    @Test
+    void countBookingsByDateAndTimeInterval_ShouldIncludeWholeEndHour() {
+        LocalDate date = LocalDate.of(2025, 3, 5);
+
+        assertEquals(3, rezervareRepository.countBookingsByDateAndTimeInterval(date, 9, 11));
+        assertEquals(2, rezervareRepository.countBookingsByDateAndTimeInterval(date, 10, 11));
+        assertEquals(4, rezervareRepository.countBookingsByDateAndTimeInterval(date, 0, 23));
+    }
+
+    @Test
+    void countByRange_ShouldGroupPerHourWithinHalfOpenWindow() {
+        // When
+        Map<LocalDateTime, Integer> counts = rezervareRepository.countByRange(
+                LocalDateTime.of(2025, 3, 5, 10, 0), LocalDateTime.of(2025, 3, 6, 0, 0));
+
+        // Then
+        assertEquals(Map.of(
+                LocalDateTime.of(2025, 3, 5, 10, 0), 1,
+                LocalDateTime.of(2025, 3, 5, 11, 0), 1,
+                LocalDateTime.of(2025, 3, 5, 12, 0), 1), counts);
+    }
+}
@@ -0,0 +1,71 @@
+package com.museumhistory.service;
+
+import com.museumhistory.repository.RezervareRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BookingOccupancyIndexTest {
+
+    private static final LocalDateTime VISIT = LocalDateTime.of(2025, 6, 1, 10, 0);
+
+    @Mock
+    private RezervareRepository rezervareRepository;
+
+    @InjectMocks
+    private BookingOccupancyIndex occupancyIndex;
+
+    private static List<Object[]> bookingsAtVisit(long count) {
+        List<Object[]> rows = new ArrayList<>();
+        rows.add(new Object[]{2025, 6, 1, 10, count});
+        return rows;
+    }
+
+    @Test
+    void reconcile_ShouldNotCountTwice_BookingWhoseAfterCommitRunsAfterThePass() {
+        // Given: the second booking is committed, its afterCommit hook has not run yet
+        when(rezervareRepository.countAllBookingsPerHour())
+                .thenReturn(bookingsAtVisit(1))
+                .thenReturn(bookingsAtVisit(2))
+                .thenReturn(bookingsAtVisit(2));
+        occupancyIndex.warmUp();
+
+        // When
+        occupancyIndex.reconcile();
+        occupancyIndex.recordBooking(VISIT);
+        occupancyIndex.reconcile();
+
+        // Then
+        assertEquals(2, occupancyIndex.countBookings(LocalDate.of(2025, 6, 1), 10, 10));
+    }
+
+    @Test
+    void reconcile_ShouldReplaceDay_WhenDriftIsSeenOnTwoPasses() {
+        // Given
+        when(rezervareRepository.countAllBookingsPerHour())
+                .thenReturn(bookingsAtVisit(1))
+                .thenReturn(bookingsAtVisit(2))
+                .thenReturn(bookingsAtVisit(2));
+        occupancyIndex.warmUp();
+
+        // When
+        occupancyIndex.reconcile();
+        int afterFirstPass = occupancyIndex.countBookings(LocalDate.of(2025, 6, 1), 10, 10);
+        occupancyIndex.reconcile();
+
+        // Then
+        assertEquals(1, afterFirstPass);
+        assertEquals(2, occupancyIndex.countBookings(LocalDate.of(2025, 6, 1), 10, 10));
+    }
+}
@@ -0,0 +1,114 @@
+package com.museumhistory.service;
+
+import com.museumhistory.config.CacheConfig;
+import com.museumhistory.model.Postare;
+import com.museumhistory.model.Sectiune;
+import com.museumhistory.repository.PostareRepository;
+import com.museumhistory.repository.SectiuneRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.interceptor.BeanFactoryCacheOperationSourceAdvisor;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.interceptor.BeanFactoryTransactionAttributeSourceAdvisor;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Caching is off in the test profile; this context turns it on, against its own database
+@SpringBootTest(properties = {
+        "spring.cache.type=caffeine",
+        "spring.datasource.url=jdbc:h2:mem:cachetest;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE"
+})
+@ActiveProfiles("test")
+class ContentCacheIntegrationTest {
+
+    @Autowired
+    private SectiuneService sectiuneService;
+
+    @Autowired
+    private PostareService postareService;
+
+    @Autowired
+    private SectiuneRepository sectiuneRepository;
+
+    @Autowired
+    private PostareRepository postareRepository;
+
+    @Autowired
+    private ContentCacheService contentCacheService;
+
+    @Autowired
+    private BeanFactoryCacheOperationSourceAdvisor cacheAdvisor;
+
+    @Autowired
+    private BeanFactoryTransactionAttributeSourceAdvisor transactionAdvisor;
+
+    @BeforeEach
+    void setUp() {
+        postareRepository.deleteAll();
+        sectiuneRepository.deleteAll();
+        contentCacheService.evict(CacheConfig.SECTIUNI, CacheConfig.POSTS, CacheConfig.EVENTS,
+                CacheConfig.EXHIBITIONS, CacheConfig.IMAGES);
+    }
+
+    private Sectiune section(String titlu) {
+        Sectiune sectiune = new Sectiune();
+        sectiune.setTitlu(titlu);
+        sectiune.setOrdine(1);
+        return sectiune;
+    }
+
+    @SuppressWarnings("unchecked")
+    private long statistic(String cache, String name) {
+        Map<String, Object> caches = contentCacheService.getStats();
+        return ((Number) ((Map<String, Object>) caches.get(cache)).get(name)).longValue();
+    }
+
+    @Test
+    void getAllSectiuni_ShouldBeServedFromCache_UntilAServiceWriteEvictsIt() {
+        // Given
+        sectiuneService.createSectiune(section("Istoric"));
+        long hitsBefore = statistic(CacheConfig.SECTIUNI, "hits");
+
+        // When
+        List<Sectiune> first = sectiuneService.getAllSectiuni();
+        sectiuneRepository.save(section("Scrisa direct in baza de date"));
+        List<Sectiune> second = sectiuneService.getAllSectiuni();
+
+        // Then
+        assertEquals(1, first.size());
+        assertSame(first, second);
+        assertEquals(hitsBefore + 1, statistic(CacheConfig.SECTIUNI, "hits"));
+
+        sectiuneService.createSectiune(section("Arhiva"));
+        assertEquals(3, sectiuneService.getAllSectiuni().size());
+    }
+
+    @Test
+    void postWrite_ShouldEvictCachedSectionGraph() {
+        // Given
+        Sectiune sectiune = sectiuneService.createSectiune(section("Colectii"));
+        assertTrue(sectiuneService.getSectiuneById(sectiune.getId()).getPostari().isEmpty());
+
+        // When
+        Postare postare = new Postare();
+        postare.setDescription("Postare noua");
+        postare.setSectiune(sectiune);
+        postareService.createPost(postare);
+
+        // Then
+        Sectiune reloaded = sectiuneService.getSectiuneById(sectiune.getId());
+        assertEquals(1, reloaded.getPostari().size());
+        assertEquals(1, postareService.getPostsBySectiuneId(sectiune.getId()).size());
+    }
+
+    @Test
+    void cacheAdvice_ShouldWrapTransactionAdvice_SoEvictionsFollowTheCommit() {
+        // Lower order runs first and returns last
+        assertTrue(cacheAdvisor.getOrder() < transactionAdvisor.getOrder());
+    }
+}
@@ -0,0 +1,142 @@
+package com.museumhistory.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.museumhistory.model.Imagine;
+import com.museumhistory.model.Postare;
+import com.museumhistory.model.Sectiune;
+import com.museumhistory.repository.PostareRepository;
+import com.museumhistory.repository.SectiuneRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Locks in the number of SQL statements of the content read paths, so the
+ * section and post graphs never go back to one query per section or post.
+ * The results are serialized after the service call returns, which would
+ * fail on any collection the fetch plan left uninitialized.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class ContentFetchPlanTest {
+
+    @Autowired
+    private SectiuneService sectiuneService;
+
+    @Autowired
+    private PostareService postareService;
+
+    @Autowired
+    private SectiuneRepository sectiuneRepository;
+
+    @Autowired
+    private PostareRepository postareRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        postareRepository.deleteAll();
+        sectiuneRepository.deleteAll();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    private Sectiune seedSection(String titlu, int posts, int imagesPerPost) {
+        Sectiune sectiune = new Sectiune();
+        sectiune.setTitlu(titlu);
+        sectiune.setOrdine(1);
+        sectiune = sectiuneRepository.save(sectiune);
+        for (int p = 0; p < posts; p++) {
+            Postare postare = new Postare();
+            postare.setDescription(titlu + " postarea " + p);
+            postare.setSectiune(sectiune);
+            List<Imagine> images = new ArrayList<>();
+            for (int i = 0; i < imagesPerPost; i++) {
+                Imagine imagine = new Imagine();
+                imagine.setPath(titlu + "-" + p + "-" + i + ".jpg");
+                imagine.setPosition(i);
+                images.add(imagine);
+            }
+            postare.setImages(images);
+            postareRepository.save(postare);
+        }
+        return sectiune;
+    }
+
+    private long statementsFor(Runnable read) {
+        statistics.clear();
+        read.run();
+        return statistics.getPrepareStatementCount();
+    }
+
+    private void serialize(Object value) {
+        try {
+            objectMapper.writeValueAsString(value);
+        } catch (Exception e) {
+            fail("Serialization touched an uninitialized association: " + e.getMessage());
+        }
+    }
+
+    @Test
+    void getAllSectiuni_ShouldUseTwoQueries_RegardlessOfSize() {
+        // Given
+        seedSection("Istoric", 2, 2);
+
+        // When
+        long small = statementsFor(() -> serialize(sectiuneService.getAllSectiuni()));
+        seedSection("Arhiva", 5, 3);
+        seedSection("Colectii", 4, 1);
+        long large = statementsFor(() -> serialize(sectiuneService.getAllSectiuni()));
+
+        // Then
+        assertEquals(2, small);
+        assertEquals(2, large);
+    }
+
+    @Test
+    void getSectiuneById_ShouldUseTwoQueries_RegardlessOfPostCount() {
+        // Given
+        Sectiune few = seedSection("Istoric", 1, 1);
+        Sectiune many = seedSection("Arhiva", 8, 4);
+
+        // When
+        long small = statementsFor(() -> serialize(sectiuneService.getSectiuneById(few.getId())));
+        long large = statementsFor(() -> serialize(sectiuneService.getSectiuneById(many.getId())));
+
+        // Then
+        assertEquals(2, small);
+        assertEquals(2, large);
+    }
+
+    @Test
+    void getAllPosts_ShouldUseOneQuery_RegardlessOfSize() {
+        // Given
+        seedSection("Istoric", 1, 2);
+
+        // When
+        long small = statementsFor(() -> serialize(postareService.getAllPosts()));
+        seedSection("Arhiva", 6, 3);
+        long large = statementsFor(() -> serialize(postareService.getAllPosts()));
+
+        // Then
+        assertEquals(1, small);
+        assertEquals(1, large);
+        assertEquals(7, postareService.getAllPosts().size());
+    }
+}
@@ -0,0 +1,262 @@
+package com.museumhistory.service;
+
+import com.museumhistory.model.EmailOutbox;
+import com.museumhistory.model.Rezervare;
+import com.museumhistory.repository.EmailOutboxRepository;
+import com.museumhistory.repository.RezervareRepository;
+import com.museumhistory.service.email.EmailTemplateRenderer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class EmailOutboxServiceTest {
+
+    private FakeSmtpServer smtpServer;
+    private EmailOutboxRepository outboxRepository;
+    private RezervareRepository rezervareRepository;
+    private EmailOutboxService emailOutboxService;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        smtpServer = new FakeSmtpServer();
+        smtpServer.start();
+
+        JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("127.0.0.1");
+        mailSender.setPort(smtpServer.getPort());
+
+        EmailService emailService = new EmailService();
+        ReflectionTestUtils.setField(emailService, "mailSender", mailSender);
+        ReflectionTestUtils.setField(emailService, "fromEmail", "muzeu@example.com");
+        ReflectionTestUtils.setField(emailService, "museumName", "Test Museum");
+        EmailTemplateRenderer templateRenderer = new EmailTemplateRenderer();
+        templateRenderer.loadTemplates();
+        ReflectionTestUtils.setField(emailService, "templateRenderer", templateRenderer);
+
+        outboxRepository = mock(EmailOutboxRepository.class);
+        rezervareRepository = mock(RezervareRepository.class);
+
+        emailOutboxService = new EmailOutboxService();
+        ReflectionTestUtils.setField(emailOutboxService, "outboxRepository", outboxRepository);
+        ReflectionTestUtils.setField(emailOutboxService, "rezervareRepository", rezervareRepository);
+        ReflectionTestUtils.setField(emailOutboxService, "emailService", emailService);
+        ReflectionTestUtils.setField(emailOutboxService, "maxAttempts", 2);
+        emailOutboxService.start();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        emailOutboxService.stop();
+        smtpServer.stop();
+    }
+
+    private EmailOutbox pendingMessage(Integer id, Integer bookingId) {
+        EmailOutbox message = new EmailOutbox(bookingId, EmailOutbox.EmailType.APPROVAL);
+        message.setId(id);
+        return message;
+    }
+
+    private Rezervare booking(Integer id) {
+        Rezervare rezervare = new Rezervare();
+        rezervare.setId(id);
+        rezervare.setNume("Popescu");
+        rezervare.setPrenume("Ana");
+        rezervare.setEmail("ana@example.com");
+        rezervare.setDatetime(LocalDateTime.of(2025, 7, 1, 10, 0));
+        rezervare.setNumberOfPersons(3);
+        rezervare.setAgeGroup("ADULTI");
+        return rezervare;
+    }
+
+    @Test
+    void drain_ShouldDeliverPendingMessageAndMarkItSent() throws Exception {
+        // Given
+        EmailOutbox message = pendingMessage(1, 10);
+        when(outboxRepository.findDueMessages(any(), any())).thenReturn(List.of(message));
+        when(outboxRepository.claim(eq(1), any())).thenReturn(1);
+        when(rezervareRepository.findById(10)).thenReturn(Optional.of(booking(10)));
+
+        // When
+        int dispatched = emailOutboxService.drain();
+        assertTrue(emailOutboxService.awaitIdle(10, TimeUnit.SECONDS));
+
+        // Then
+        assertEquals(1, dispatched);
+        assertEquals(1, smtpServer.getMessages().size());
+        assertTrue(smtpServer.getMessages().get(0).contains("ana@example.com"));
+        assertEquals(EmailOutbox.Status.SENT, message.getStatus());
+        assertNotNull(message.getSentAt());
+        verify(outboxRepository).save(message);
+
+        Map<String, Object> stats = emailOutboxService.getStats();
+        assertEquals(1L, stats.get("sent"));
+    }
+
+    @Test
+    void drain_ShouldSkipMessagesClaimedByAnotherWorker() throws Exception {
+        // Given
+        EmailOutbox message = pendingMessage(1, 10);
+        when(outboxRepository.findDueMessages(any(), any())).thenReturn(List.of(message));
+        when(outboxRepository.claim(eq(1), any())).thenReturn(0);
+
+        // When
+        int dispatched = emailOutboxService.drain();
+
+        // Then
+        assertEquals(0, dispatched);
+        verify(rezervareRepository, never()).findById(any());
+        assertTrue(smtpServer.getMessages().isEmpty());
+    }
+
+    @Test
+    void drain_ShouldScheduleRetry_WhenSmtpServerIsUnavailable() throws Exception {
+        // Given
+        smtpServer.stop();
+        EmailOutbox message = pendingMessage(1, 10);
+        when(outboxRepository.findDueMessages(any(), any())).thenReturn(List.of(message));
+        when(outboxRepository.claim(eq(1), any())).thenReturn(1);
+        when(rezervareRepository.findById(10)).thenReturn(Optional.of(booking(10)));
+        LocalDateTime before = LocalDateTime.now();
+
+        // When
+        emailOutboxService.drain();
+        assertTrue(emailOutboxService.awaitIdle(10, TimeUnit.SECONDS));
+
+        // Then
+        assertEquals(EmailOutbox.Status.PENDING, message.getStatus());
+        assertEquals(1, message.getAttempts());
+        assertTrue(message.getNextAttemptAt().isAfter(before));
+        assertNotNull(message.getLastError());
+    }
+
+    @Test
+    void drain_ShouldMarkMessageFailed_AfterMaxAttempts() throws Exception {
+        // Given
+        smtpServer.stop();
+        EmailOutbox message = pendingMessage(1, 10);
+        message.setAttempts(1);
+        when(outboxRepository.findDueMessages(any(), any())).thenReturn(List.of(message));
+        when(outboxRepository.claim(eq(1), any())).thenReturn(1);
+        when(rezervareRepository.findById(10)).thenReturn(Optional.of(booking(10)));
+
+        // When
+        emailOutboxService.drain();
+        assertTrue(emailOutboxService.awaitIdle(10, TimeUnit.SECONDS));
+
+        // Then
+        assertEquals(EmailOutbox.Status.FAILED, message.getStatus());
+        assertEquals(2, message.getAttempts());
+    }
+
+    @Test
+    void requeueInterruptedMessages_ShouldOnlyRequeueClaimsOlderThanTimeout() {
+        // Given
+        ReflectionTestUtils.setField(emailOutboxService, "sendingTimeoutMs", 600000L);
+        LocalDateTime before = LocalDateTime.now();
+
+        // When
+        emailOutboxService.requeueInterruptedMessages();
+
+        // Then
+        ArgumentCaptor<LocalDateTime> claimedBefore = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(outboxRepository).requeueInterrupted(claimedBefore.capture());
+        assertFalse(claimedBefore.getValue().isBefore(before.minusMinutes(10)));
+        assertTrue(claimedBefore.getValue().isBefore(LocalDateTime.now().minusMinutes(9)));
+    }
+
+    /**
+     * Minimal in-process SMTP server that accepts every message and keeps its raw content.
+     */
+    static class FakeSmtpServer {
+
+        private final List<String> messages = new CopyOnWriteArrayList<>();
+        private ServerSocket serverSocket;
+        private Thread acceptThread;
+
+        void start() throws IOException {
+            serverSocket = new ServerSocket(0);
+            acceptThread = new Thread(() -> {
+                while (!serverSocket.isClosed()) {
+                    try (Socket socket = serverSocket.accept()) {
+                        handle(socket);
+                    } catch (IOException e) {
+                        // socket closed by stop()
+                    }
+                }
+            }, "fake-smtp");
+            acceptThread.setDaemon(true);
+            acceptThread.start();
+        }
+
+        void stop() throws IOException {
+            if (!serverSocket.isClosed()) {
+                serverSocket.close();
+            }
+        }
+
+        int getPort() {
+            return serverSocket.getLocalPort();
+        }
+
+        List<String> getMessages() {
+            return messages;
+        }
+
+        private void handle(Socket socket) throws IOException {
+            BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+            PrintWriter out = new PrintWriter(socket.getOutputStream(), true);
+            reply(out, "220 localhost fake SMTP");
+
+            StringBuilder envelope = new StringBuilder();
+            String line;
+            while ((line = in.readLine()) != null) {
+                String command = line.toUpperCase();
+                if (command.startsWith("EHLO") || command.startsWith("HELO")) {
+                    reply(out, "250 localhost");
+                } else if (command.startsWith("MAIL FROM") || command.startsWith("RCPT TO")) {
+                    envelope.append(line).append('\n');
+                    reply(out, "250 OK");
+                } else if (command.equals("DATA")) {
+                    reply(out, "354 End data with <CR><LF>.<CR><LF>");
+                    StringBuilder data = new StringBuilder(envelope);
+                    while ((line = in.readLine()) != null && !line.equals(".")) {
+                        data.append(line).append('\n');
+                    }
+                    messages.add(data.toString());
+                    envelope.setLength(0);
+                    reply(out, "250 OK queued");
+                } else if (command.equals("QUIT")) {
+                    reply(out, "221 Bye");
+                    return;
+                } else {
+                    reply(out, "250 OK");
+                }
+            }
+        }
+
+        private void reply(PrintWriter out, String response) {
+            out.print(response + "\r\n");
+            out.flush();
+        }
+    }
+}
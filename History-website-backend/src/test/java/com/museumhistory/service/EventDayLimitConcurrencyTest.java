@@ -0,0 +1,129 @@
+package com.museumhistory.service;
+
+import com.museumhistory.model.Eveniment;
+import com.museumhistory.repository.EvenimentRepository;
+import com.museumhistory.repository.EventDayLockRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class EventDayLimitConcurrencyTest {
+
+    @Autowired
+    private EvenimentService evenimentService;
+
+    @Autowired
+    private EvenimentRepository evenimentRepository;
+
+    @Autowired
+    private EventDayLockRepository eventDayLockRepository;
+
+    @BeforeEach
+    void setUp() {
+        evenimentRepository.deleteAll();
+        eventDayLockRepository.deleteAll();
+    }
+
+    private static Eveniment event(LocalDateTime start, int i) {
+        Eveniment eveniment = new Eveniment();
+        eveniment.setName("Eveniment " + i);
+        eveniment.setStartDate(start);
+        eveniment.setEndDate(start.plusHours(2));
+        eveniment.setLocation("Nasaud");
+        eveniment.setDescription("Descriere " + i);
+        return eveniment;
+    }
+
+    // Starts all creates at once and returns how many succeeded; every failure must be the day limit
+    private int createInParallel(List<Eveniment> events) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> results = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(32)) {
+            for (Eveniment eveniment : events) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    evenimentService.createEvent(eveniment);
+                    return null;
+                }));
+            }
+            start.countDown();
+        }
+        int created = 0;
+        for (Future<?> result : results) {
+            try {
+                result.get();
+                created++;
+            } catch (ExecutionException e) {
+                assertInstanceOf(EventDayLimitException.class, e.getCause());
+            }
+        }
+        return created;
+    }
+
+    @Test
+    void createEvent_ShouldNeverExceedDailyLimit_UnderParallelCreates() throws Exception {
+        // Given
+        LocalDate day = LocalDate.of(2031, 9, 10);
+        List<Eveniment> events = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            events.add(event(day.atTime(9 + i % 10, 0), i));
+        }
+
+        // When
+        int created = createInParallel(events);
+
+        // Then
+        assertEquals(EvenimentService.MAX_EVENTS_PER_DAY, created);
+        assertEquals(EvenimentService.MAX_EVENTS_PER_DAY, evenimentRepository.countEventsByDate(day));
+    }
+
+    @Test
+    void createEvent_ShouldAcceptParallelCreates_OnDifferentDays() throws Exception {
+        // Given
+        LocalDate firstDay = LocalDate.of(2031, 10, 1);
+        List<Eveniment> events = new ArrayList<>();
+        for (int i = 0; i < 60; i++) {
+            events.add(event(firstDay.plusDays(i % 20).atTime(10, 0), i));
+        }
+
+        // When
+        int created = createInParallel(events);
+
+        // Then
+        assertEquals(60, created);
+        assertEquals(20, eventDayLockRepository.count());
+    }
+
+    @Test
+    void updateEvent_ShouldRejectMoveToFullDay() {
+        // Given
+        LocalDate fullDay = LocalDate.of(2031, 11, 3);
+        for (int i = 0; i < EvenimentService.MAX_EVENTS_PER_DAY; i++) {
+            evenimentService.createEvent(event(fullDay.atTime(10 + i, 0), i));
+        }
+        Eveniment other = event(fullDay.plusDays(1).atTime(10, 0), 9);
+        evenimentService.createEvent(other);
+
+        // When & Then
+        other.setStartDate(fullDay.atTime(16, 0));
+        other.setEndDate(fullDay.atTime(18, 0));
+        assertThrows(EventDayLimitException.class, () -> evenimentService.updateEvent(other));
+        assertEquals(1, evenimentRepository.countEventsByDate(fullDay.plusDays(1)));
+    }
+}
@@ -0,0 +1,163 @@
+package com.museumhistory.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ImageDerivativeServiceTest {
+
+    @TempDir
+    Path uploadDir;
+
+    private ImageDerivativeService imageDerivativeService;
+
+    @BeforeEach
+    void setUp() {
+        imageDerivativeService = new ImageDerivativeService();
+        ReflectionTestUtils.setField(imageDerivativeService, "uploadDir", uploadDir.toString());
+        imageDerivativeService.start();
+    }
+
+    private void writeImage(String name, int width, int height, String format) throws IOException {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = image.createGraphics();
+        graphics.setColor(Color.ORANGE);
+        graphics.fillRect(0, 0, width / 2, height);
+        graphics.dispose();
+        ImageIO.write(image, format, uploadDir.resolve(name).toFile());
+    }
+
+    @Test
+    void generateDerivatives_ShouldWriteEachWidthSmallerThanOriginal() throws Exception {
+        // Given
+        writeImage("scan.jpg", 1000, 500, "jpg");
+
+        // When
+        List<Integer> produced = imageDerivativeService.generateDerivatives("scan.jpg");
+
+        // Then
+        assertEquals(List.of(320, 800), produced);
+        BufferedImage small = ImageIO.read(uploadDir.resolve("derivatives/320/scan.jpg.jpg").toFile());
+        assertEquals(320, small.getWidth());
+        assertEquals(160, small.getHeight());
+        assertTrue(Files.exists(uploadDir.resolve("derivatives/800/scan.jpg.jpg")));
+        assertFalse(Files.exists(uploadDir.resolve("derivatives/1600/scan.jpg.jpg")));
+    }
+
+    @Test
+    void generateDerivatives_ShouldKeepPngFormat() throws Exception {
+        // Given
+        writeImage("harta.png", 900, 900, "png");
+
+        // When
+        List<Integer> produced = imageDerivativeService.generateDerivatives("harta.png");
+
+        // Then
+        assertEquals(List.of(320, 800), produced);
+        assertNotNull(ImageIO.read(uploadDir.resolve("derivatives/320/harta.png.png").toFile()));
+    }
+
+    @Test
+    void generateDerivatives_ShouldResizeSubsampledOriginal() throws Exception {
+        // Given: wide enough to be decoded at every second pixel
+        writeImage("panorama.jpg", 7000, 40, "jpg");
+
+        // When
+        List<Integer> produced = imageDerivativeService.generateDerivatives("panorama.jpg");
+
+        // Then
+        assertEquals(List.of(320, 800, 1600), produced);
+        assertEquals(1600, ImageIO.read(uploadDir.resolve("derivatives/1600/panorama.jpg.jpg").toFile()).getWidth());
+    }
+
+    @Test
+    void generateDerivatives_ShouldSkipOriginalsAbovePixelLimit() throws Exception {
+        // Given
+        ReflectionTestUtils.setField(imageDerivativeService, "maxSourcePixels", 100_000L);
+        writeImage("scan.jpg", 1000, 500, "jpg");
+
+        // When
+        List<Integer> produced = imageDerivativeService.generateDerivatives("scan.jpg");
+
+        // Then
+        assertTrue(produced.isEmpty());
+        assertFalse(Files.exists(uploadDir.resolve("derivatives")));
+    }
+
+    @Test
+    void generateDerivatives_ShouldSkipFilesImageIoCannotDecode() throws Exception {
+        // Given
+        Files.writeString(uploadDir.resolve("logo.svg"), "<svg xmlns=\"http://www.w3.org/2000/svg\"/>");
+
+        // When
+        List<Integer> produced = imageDerivativeService.generateDerivatives("logo.svg");
+
+        // Then
+        assertTrue(produced.isEmpty());
+    }
+
+    @Test
+    void findDerivative_ShouldReturnSmallestWidthCoveringRequest() throws Exception {
+        // Given
+        writeImage("scan.jpg", 1000, 500, "jpg");
+        imageDerivativeService.generateDerivatives("scan.jpg");
+
+        // When
+        Optional<Path> forThumbnail = imageDerivativeService.findDerivative("scan.jpg", 200);
+        Optional<Path> forMedium = imageDerivativeService.findDerivative("scan.jpg", 500);
+        Optional<Path> forLarge = imageDerivativeService.findDerivative("scan.jpg", 1200);
+
+        // Then
+        assertEquals(uploadDir.resolve("derivatives/320/scan.jpg.jpg"), forThumbnail.orElseThrow());
+        assertEquals(uploadDir.resolve("derivatives/800/scan.jpg.jpg"), forMedium.orElseThrow());
+        assertTrue(forLarge.isEmpty());
+    }
+
+    @Test
+    void deleteDerivatives_ShouldKeepCopiesOfOriginalsWithTheSameBaseName() throws Exception {
+        // Given
+        Files.createDirectories(uploadDir.resolve("ab/cd"));
+        writeImage("ab/cd/abcd.jpg", 1000, 500, "jpg");
+        writeImage("ab/cd/abcd.jpeg", 1000, 500, "jpg");
+        writeImage("abcd.jpg", 1000, 500, "jpg");
+        imageDerivativeService.generateDerivatives("ab/cd/abcd.jpg");
+        imageDerivativeService.generateDerivatives("ab/cd/abcd.jpeg");
+        imageDerivativeService.generateDerivatives("abcd.jpg");
+
+        // When
+        imageDerivativeService.deleteDerivatives("ab/cd/abcd.jpg");
+
+        // Then
+        assertTrue(imageDerivativeService.findDerivative("ab/cd/abcd.jpg", 1).isEmpty());
+        assertEquals(uploadDir.resolve("derivatives/320/ab/cd/abcd.jpeg.jpg"),
+                imageDerivativeService.findDerivative("ab/cd/abcd.jpeg", 1).orElseThrow());
+        assertEquals(uploadDir.resolve("derivatives/320/abcd.jpg.jpg"),
+                imageDerivativeService.findDerivative("abcd.jpg", 1).orElseThrow());
+    }
+
+    @Test
+    void deleteDerivatives_ShouldRemoveAllGeneratedCopies() throws Exception {
+        // Given
+        writeImage("scan.jpg", 1000, 500, "jpg");
+        imageDerivativeService.generateDerivatives("scan.jpg");
+
+        // When
+        imageDerivativeService.deleteDerivatives("scan.jpg");
+
+        // Then
+        assertTrue(imageDerivativeService.findDerivative("scan.jpg", 1).isEmpty());
+    }
+}
@@ -9,9 +9,13 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.BooleanSupplier;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -22,6 +26,12 @@ class ImagineServiceTest {
     @Mock
     private ImagineRepository imagineRepository;
 
+    @Mock
+    private ImageDerivativeService imageDerivativeService;
+
+    @Mock
+    private UploadStore uploadStore;
+
     @InjectMocks
     private ImagineService imagineService;
 
@@ -124,6 +134,7 @@ class ImagineServiceTest {
         Integer imageId = 1;
         testImage.setPath("test-image.jpg");
         when(imagineRepository.findById(imageId)).thenReturn(Optional.of(testImage));
+        when(uploadStore.release(eq("test-image.jpg"), any())).thenReturn(true);
 
         // When
         imagineService.deleteImage(imageId);
@@ -131,6 +142,43 @@ class ImagineServiceTest {
         // Then
         verify(imagineRepository).findById(imageId);
         verify(imagineRepository).deleteById(imageId);
+        verify(imageDerivativeService).deleteDerivatives("test-image.jpg");
+    }
+
+    @Test
+    void deleteImage_ShouldKeepFile_WhenAnotherImageSharesIt() {
+        // Given
+        Integer imageId = 1;
+        testImage.setPath("ab/cd/shared.jpg");
+        when(imagineRepository.findById(imageId)).thenReturn(Optional.of(testImage));
+        when(imagineRepository.countByPath("ab/cd/shared.jpg")).thenReturn(1L);
+        when(uploadStore.release(eq("ab/cd/shared.jpg"), any())).thenAnswer(invocation ->
+                !invocation.getArgument(1, BooleanSupplier.class).getAsBoolean());
+
+        // When
+        imagineService.deleteImage(imageId);
+
+        // Then
+        verify(imagineRepository).deleteById(imageId);
+        verify(imageDerivativeService, never()).deleteDerivatives(any());
+    }
+
+    @Test
+    void updateImage_ShouldKeepGeneratedWidths_WhenClientOmitsThem() {
+        // Given
+        testImage.setAvailableWidths(new ArrayList<>(List.of(320, 800)));
+        when(imagineRepository.findById(1)).thenReturn(Optional.of(testImage));
+        Imagine updatedImage = new Imagine();
+        updatedImage.setId(1);
+        updatedImage.setPath("test-image.jpg");
+        updatedImage.setPosition(2);
+
+        // When
+        imagineService.updateImage(updatedImage);
+
+        // Then
+        assertEquals(List.of(320, 800), updatedImage.getAvailableWidths());
+        verify(imagineRepository).save(updatedImage);
     }
 
     @Test
@@ -164,6 +212,38 @@ class ImagineServiceTest {
         verify(imagineRepository).deleteById(imageId);
     }
 
+    @Test
+    void reorderImages_ShouldApplyAllPositionsInOneUpdate() {
+        // Given
+        Map<Integer, Integer> positions = new LinkedHashMap<>();
+        positions.put(3, 0);
+        positions.put(1, 1);
+        positions.put(2, 2);
+        List<Object[]> owners = List.of(
+                new Object[]{1, 7, null}, new Object[]{2, 7, null}, new Object[]{3, 7, null});
+        when(imagineRepository.findOwnersByIdIn(positions.keySet())).thenReturn(owners);
+
+        // When
+        imagineService.reorderImages(positions);
+
+        // Then
+        verify(imagineRepository).updatePositions(positions);
+        verify(imagineRepository, never()).findById(any());
+        verify(imagineRepository, never()).save(any());
+    }
+
+    @Test
+    void reorderImages_ShouldRejectImagesFromDifferentPosts() {
+        // Given
+        Map<Integer, Integer> positions = Map.of(1, 0, 2, 1);
+        List<Object[]> owners = List.of(new Object[]{1, 7, null}, new Object[]{2, 8, null});
+        when(imagineRepository.findOwnersByIdIn(positions.keySet())).thenReturn(owners);
+
+        // When & Then
+        assertThrows(IllegalArgumentException.class, () -> imagineService.reorderImages(positions));
+        verify(imagineRepository, never()).updatePositions(any());
+    }
+
     @Test
     void createImage_WithDefaultPosition_ShouldWork() {
         // Given
@@ -1,10 +1,14 @@
 package com.museumhistory.service;
 
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.test.util.ReflectionTestUtils;
 
 import java.util.Date;
+import java.util.Map;
+import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -199,4 +203,94 @@ class JwtServiceTest {
         // Then
         assertFalse(isValid);
     }
-}
\ No newline at end of file
+
+    @Test
+    void verifyToken_ShouldReturnSubjectAndExpiration_ForValidToken() {
+        // Given
+        String token = jwtService.generateToken("testuser");
+
+        // When
+        Optional<JwtService.VerifiedToken> verified = jwtService.verifyToken(token);
+
+        // Then
+        assertTrue(verified.isPresent());
+        assertEquals("testuser", verified.get().username());
+        assertTrue(verified.get().expiration().after(new Date()));
+    }
+
+    @Test
+    void verifyToken_ShouldReturnEmpty_ForTokenSignedWithAnotherKey() {
+        // Given
+        JwtService otherService = new JwtService();
+        ReflectionTestUtils.setField(otherService, "secret", TEST_SECRET + "Other");
+        ReflectionTestUtils.setField(otherService, "expiration", TEST_EXPIRATION);
+        String token = otherService.generateToken("testuser");
+
+        // When
+        Optional<JwtService.VerifiedToken> verified = jwtService.verifyToken(token);
+
+        // Then
+        assertTrue(verified.isEmpty());
+    }
+
+    @Test
+    void validateToken_ShouldReturnFalse_ForTokenWithoutSubject() {
+        // Given
+        String token = Jwts.builder()
+                .expiration(new Date(System.currentTimeMillis() + TEST_EXPIRATION))
+                .signWith(Keys.hmacShaKeyFor(TEST_SECRET.getBytes()))
+                .compact();
+
+        // When
+        Boolean isValid = jwtService.validateToken(token, "testuser");
+
+        // Then
+        assertFalse(isValid);
+        assertTrue(jwtService.verifyToken(token).isEmpty());
+    }
+
+    @Test
+    void verifyToken_ShouldServeRepeatedTokenFromCache() {
+        // Given
+        String token = jwtService.generateToken("testuser");
+        Optional<JwtService.VerifiedToken> first = jwtService.verifyToken(token);
+
+        // When
+        Optional<JwtService.VerifiedToken> second = jwtService.verifyToken(token);
+
+        // Then
+        assertTrue(first.isPresent());
+        assertSame(first.get(), second.get());
+    }
+
+    @Test
+    void verifyToken_ShouldRejectCachedTokenOnceExpired() throws InterruptedException {
+        // Given
+        ReflectionTestUtils.setField(jwtService, "expiration", 2000L);
+        String token = jwtService.generateToken("testuser");
+        assertTrue(jwtService.verifyToken(token).isPresent());
+
+        // When
+        Thread.sleep(2100);
+
+        // Then
+        assertTrue(jwtService.verifyToken(token).isEmpty());
+        assertFalse(jwtService.validateToken(token));
+    }
+
+    @Test
+    void verifyToken_ShouldKeepCacheBounded() {
+        // Given
+        ReflectionTestUtils.setField(jwtService, "verifiedCacheSize", 2);
+
+        // When
+        for (int i = 0; i < 5; i++) {
+            assertTrue(jwtService.verifyToken(jwtService.generateToken("user" + i)).isPresent());
+        }
+
+        // Then
+        Map<?, ?> cache = (Map<?, ?>) ReflectionTestUtils.getField(jwtService, "verifiedTokens");
+        assertNotNull(cache);
+        assertTrue(cache.size() <= 2);
+    }
+}
@@ -0,0 +1,130 @@
+package com.museumhistory.service;
+
+import com.museumhistory.repository.ImagineRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OrphanUploadCollectorTest {
+
+    @TempDir
+    Path uploadDir;
+
+    @Mock
+    private ImagineRepository imagineRepository;
+
+    private OrphanUploadCollector collector;
+
+    private final List<Object[]> imagePaths = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        UploadStore uploadStore = new UploadStore();
+        ReflectionTestUtils.setField(uploadStore, "uploadDir", uploadDir.toString());
+        collector = new OrphanUploadCollector();
+        ReflectionTestUtils.setField(collector, "uploadStore", uploadStore);
+        ReflectionTestUtils.setField(collector, "imagineRepository", imagineRepository);
+        ReflectionTestUtils.setField(collector, "pageSize", 2);
+        when(imagineRepository.findPathsAfterId(anyInt(), any())).thenAnswer(invocation -> {
+            int afterId = invocation.getArgument(0);
+            return imagePaths.stream().filter(row -> (Integer) row[0] > afterId).limit(2).toList();
+        });
+    }
+
+    private void reference(int id, String path) {
+        imagePaths.add(new Object[]{id, path});
+    }
+
+    private Path file(String path, String content, Duration age) throws Exception {
+        Path file = uploadDir.resolve(path);
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, content);
+        Files.setLastModifiedTime(file, FileTime.from(Instant.now().minus(age)));
+        return file;
+    }
+
+    @Test
+    void collect_ShouldQuarantineOnlyOldUnreferencedFiles() throws Exception {
+        // Given
+        reference(1, "ab/cd/abcd.jpg");
+        reference(2, "vechi.jpg");
+        reference(3, "/uploads/din-url.jpg");
+        Path referenced = file("ab/cd/abcd.jpg", "folosit", Duration.ofDays(10));
+        Path legacy = file("vechi.jpg", "folosit", Duration.ofDays(10));
+        Path prefixed = file("din-url.jpg", "folosit", Duration.ofDays(10));
+        Path orphan = file("ef/01/ef01.jpg", "orfan", Duration.ofDays(10));
+        Path fresh = file("ef/02/ef02.jpg", "abia incarcat", Duration.ofMinutes(5));
+        Path derivative = file("derivatives/320/ab/cd/abcd.jpg.jpg", "miniatura", Duration.ofDays(10));
+        Path orphanDerivative = file("derivatives/320/ef/01/ef01.jpg.jpg", "miniatura orfana", Duration.ofDays(10));
+        Path partial = file(".tmp/upload123.part", "in curs", Duration.ofDays(10));
+
+        // When
+        OrphanUploadCollector.CollectionReport report = collector.collect();
+
+        // Then
+        assertEquals(2, report.filesQuarantined());
+        assertEquals("orfan".length() + "miniatura orfana".length(), report.bytesQuarantined());
+        assertFalse(Files.exists(orphan));
+        assertFalse(Files.exists(orphanDerivative));
+        assertTrue(Files.exists(uploadDir.resolve(".quarantine/ef/01/ef01.jpg")));
+        assertTrue(Files.exists(uploadDir.resolve(".quarantine/derivatives/320/ef/01/ef01.jpg.jpg")));
+        for (Path kept : List.of(referenced, legacy, prefixed, fresh, derivative, partial)) {
+            assertTrue(Files.exists(kept), kept + " should be kept");
+        }
+    }
+
+    @Test
+    void collect_ShouldKeepFile_WhenReferencedBeforeTheMove() throws Exception {
+        // Given: the row is committed after the paths were loaded
+        Path file = file("ef/01/ef01.jpg", "orfan", Duration.ofDays(10));
+        when(imagineRepository.countByPath("ef/01/ef01.jpg")).thenReturn(1L);
+
+        // When
+        OrphanUploadCollector.CollectionReport report = collector.collect();
+
+        // Then
+        assertEquals(0, report.filesQuarantined());
+        assertTrue(Files.exists(file));
+    }
+
+    @Test
+    void collect_ShouldDeleteExpiredQuarantine_AndRestoreReferencedFiles() throws Exception {
+        // Given
+        ReflectionTestUtils.setField(collector, "quarantineRetentionMs", Duration.ofDays(7).toMillis());
+        Path expired = file(".quarantine/ef/01/ef01.jpg", "orfan vechi", Duration.ofDays(8));
+        Path recent = file(".quarantine/ef/02/ef02.jpg", "orfan recent", Duration.ofDays(1));
+        file(".quarantine/ef/03/ef03.jpg", "folosit din nou", Duration.ofDays(1));
+        reference(1, "ef/03/ef03.jpg");
+        when(imagineRepository.countByPath(anyString())).thenAnswer(invocation ->
+                "ef/03/ef03.jpg".equals(invocation.getArgument(0)) ? 1L : 0L);
+
+        // When
+        OrphanUploadCollector.CollectionReport report = collector.collect();
+
+        // Then
+        assertEquals(1, report.filesDeleted());
+        assertEquals("orfan vechi".length(), report.bytesReclaimed());
+        assertEquals(1, report.filesRestored());
+        assertFalse(Files.exists(expired));
+        assertFalse(Files.exists(uploadDir.resolve(".quarantine/ef/01")));
+        assertTrue(Files.exists(recent));
+        assertEquals("folosit din nou", Files.readString(uploadDir.resolve("ef/03/ef03.jpg")));
+        assertEquals(1L, collector.getStats().get("filesDeleted"));
+    }
+}
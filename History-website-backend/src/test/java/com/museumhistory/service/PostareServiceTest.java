@@ -0,0 +1,89 @@
+package com.museumhistory.service;
+
+import com.museumhistory.model.Postare;
+import com.museumhistory.pagination.CursorPage;
+import com.museumhistory.pagination.PageCursor;
+import com.museumhistory.repository.PostareRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PostareServiceTest {
+
+    @Mock
+    private PostareRepository postareRepository;
+
+    @InjectMocks
+    private PostareService postareService;
+
+    private static Postare post(Integer id) {
+        Postare postare = new Postare();
+        postare.setId(id);
+        postare.setDescription("Postarea " + id);
+        postare.setImages(new ArrayList<>());
+        return postare;
+    }
+
+    @Test
+    void getPostsBySectiuneId_ShouldQueryBySection() {
+        // Given
+        List<Postare> posts = List.of(post(1), post(2));
+        when(postareRepository.findBySectiuneIdWithImages(3)).thenReturn(posts);
+
+        // When
+        List<Postare> result = postareService.getPostsBySectiuneId(3);
+
+        // Then
+        assertEquals(posts, result);
+        verify(postareRepository, never()).findAll();
+    }
+
+    @Test
+    void getPostsBySectiuneIdPage_ShouldReturnNextCursor_WhenMorePostsExist() {
+        // Given
+        when(postareRepository.findIdsBySectiuneIdAfter(3, 0, PageRequest.of(0, 3))).thenReturn(List.of(4, 7, 9));
+        when(postareRepository.findWithImagesByIdIn(List.of(4, 7, 9))).thenReturn(List.of(post(4), post(7), post(9)));
+
+        // When
+        CursorPage<Postare> page = postareService.getPostsBySectiuneIdPage(3, null, 2);
+
+        // Then
+        assertEquals(2, page.items().size());
+        assertEquals(7, page.items().get(1).getId());
+        assertTrue(page.hasMore());
+        assertEquals(7, PageCursor.decode(page.nextCursor()));
+    }
+
+    @Test
+    void getPostsBySectiuneIdPage_ShouldContinueAfterCursor() {
+        // Given
+        String cursor = PageCursor.encode(7);
+        when(postareRepository.findIdsBySectiuneIdAfter(3, 7, PageRequest.of(0, 3))).thenReturn(List.of(9));
+        when(postareRepository.findWithImagesByIdIn(List.of(9))).thenReturn(List.of(post(9)));
+
+        // When
+        CursorPage<Postare> page = postareService.getPostsBySectiuneIdPage(3, cursor, 2);
+
+        // Then
+        assertEquals(1, page.items().size());
+        assertFalse(page.hasMore());
+        assertNull(page.nextCursor());
+    }
+
+    @Test
+    void getPostsBySectiuneIdPage_ShouldRejectInvalidCursor() {
+        assertThrows(IllegalArgumentException.class,
+                () -> postareService.getPostsBySectiuneIdPage(3, "not-a-cursor", 10));
+        verifyNoInteractions(postareRepository);
+    }
+}
@@ -0,0 +1,186 @@
+package com.museumhistory.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.museumhistory.model.EmailOutbox;
+import com.museumhistory.model.Eveniment;
+import com.museumhistory.model.Imagine;
+import com.museumhistory.model.Rezervare;
+import com.museumhistory.repository.EmailOutboxRepository;
+import com.museumhistory.repository.EvenimentRepository;
+import com.museumhistory.repository.ImagineRepository;
+import com.museumhistory.repository.RezervareRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Own database, so the purge only sees the rows seeded here
+@SpringBootTest(properties =
+        "spring.datasource.url=jdbc:h2:mem:retentiontest;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE")
+@ActiveProfiles("test")
+class RetentionServiceTest {
+
+    @TempDir
+    Path archiveDir;
+
+    @Autowired
+    private RetentionService retentionService;
+
+    @Autowired
+    private RezervareRepository rezervareRepository;
+
+    @Autowired
+    private EmailOutboxRepository emailOutboxRepository;
+
+    @Autowired
+    private EvenimentRepository evenimentRepository;
+
+    @Autowired
+    private ImagineRepository imagineRepository;
+
+    @Autowired
+    private UploadStore uploadStore;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    void setUp() {
+        emailOutboxRepository.deleteAll();
+        rezervareRepository.deleteAll();
+        evenimentRepository.deleteAll();
+        imagineRepository.deleteAll();
+        ReflectionTestUtils.setField(retentionService, "archiveDir", archiveDir.toString());
+        ReflectionTestUtils.setField(retentionService, "batchSize", 10);
+        ReflectionTestUtils.setField(retentionService, "batchPauseMs", 0L);
+        ReflectionTestUtils.setField(retentionService, "eventAgeDays", 0);
+    }
+
+    private Rezervare booking(LocalDateTime datetime, int i) {
+        Rezervare rezervare = new Rezervare();
+        rezervare.setNume("Vizitator");
+        rezervare.setPrenume("Nr " + i);
+        rezervare.setEmail("vizitator" + i + "@test.com");
+        rezervare.setDatetime(datetime);
+        rezervare.setNumberOfPersons(2);
+        return rezervareRepository.save(rezervare);
+    }
+
+    private Eveniment event(LocalDateTime end, String name, Imagine... images) {
+        Eveniment eveniment = new Eveniment();
+        eveniment.setName(name);
+        eveniment.setStartDate(end.minusHours(2));
+        eveniment.setEndDate(end);
+        eveniment.setLocation("Nasaud");
+        eveniment.setDescription("Descriere");
+        eveniment.setImages(new ArrayList<>(List.of(images)));
+        return evenimentRepository.save(eveniment);
+    }
+
+    private Imagine storedImage(String content) throws Exception {
+        UploadStore.StoredUpload stored = uploadStore.store(
+                new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)), "foto.jpg", path -> { });
+        Imagine imagine = new Imagine();
+        imagine.setPath(stored.path());
+        return imagine;
+    }
+
+    @Test
+    void purge_ShouldArchiveAndDeleteExpiredBookingsInBatches() throws Exception {
+        // Given: 25 expired bookings (three batches of 10) and 3 upcoming ones
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < 25; i++) {
+            Rezervare expired = booking(now.minusDays(10).plusMinutes(i), i);
+            emailOutboxRepository.save(new EmailOutbox(expired.getId(), EmailOutbox.EmailType.APPROVAL));
+        }
+        for (int i = 0; i < 3; i++) {
+            booking(now.plusDays(5), 100 + i);
+        }
+
+        // When
+        RetentionService.RetentionReport report = retentionService.purge();
+
+        // Then
+        assertEquals(25, report.bookingsDeleted());
+        assertEquals(25, report.emailsDeleted());
+        assertEquals(3, rezervareRepository.count());
+        assertEquals(0, emailOutboxRepository.count());
+
+        Path archive = Path.of(report.archiveFile());
+        assertEquals(Files.size(archive), report.archiveBytes());
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(Files.newInputStream(archive)), StandardCharsets.UTF_8))) {
+            List<String> lines = reader.lines().toList();
+            assertEquals(25, lines.size());
+            JsonNode first = objectMapper.readTree(lines.get(0));
+            assertEquals("Nr 0", first.get("prenume").asText());
+        }
+        assertSame(report, retentionService.getLastReport());
+    }
+
+    @Test
+    void purge_ShouldLeaveNoArchive_WhenNothingExpired() throws Exception {
+        // Given
+        booking(LocalDateTime.now().plusDays(1), 1);
+
+        // When
+        RetentionService.RetentionReport report = retentionService.purge();
+
+        // Then
+        assertEquals(0, report.bookingsDeleted());
+        assertNull(report.archiveFile());
+        try (var files = Files.list(archiveDir)) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    @Test
+    void purge_ShouldDeleteOldEventsWithTheirFiles_WhenEnabled() throws Exception {
+        // Given
+        ReflectionTestUtils.setField(retentionService, "eventAgeDays", 30);
+        LocalDateTime now = LocalDateTime.now();
+        Imagine own = storedImage("fotografie veche " + now);
+        Imagine shared = storedImage("fotografie comuna " + now);
+        Imagine sharedCopy = new Imagine();
+        sharedCopy.setPath(shared.getPath());
+        Path ownFile = uploadStore.resolve(own.getPath());
+        Path sharedFile = uploadStore.resolve(shared.getPath());
+        long ownBytes = Files.size(ownFile);
+
+        event(now.minusDays(90), "Vechi", own, shared);
+        event(now.minusDays(2), "Recent", sharedCopy);
+        Eveniment oneDay = event(now.minusDays(60), "Fara data de sfarsit");
+        oneDay.setEndDate(null);
+        evenimentRepository.save(oneDay);
+
+        // When
+        RetentionService.RetentionReport report = retentionService.purge();
+
+        // Then
+        assertEquals(2, report.eventsDeleted());
+        assertEquals(2, report.imagesDeleted());
+        assertEquals(1, report.filesDeleted());
+        assertEquals(ownBytes, report.bytesReclaimed());
+        assertFalse(Files.exists(ownFile));
+        assertTrue(Files.exists(sharedFile));
+        assertEquals(1, evenimentRepository.count());
+        assertEquals(1, imagineRepository.count());
+    }
+}
@@ -0,0 +1,239 @@
+package com.museumhistory.service;
+
+import com.museumhistory.model.Rezervare;
+import com.museumhistory.repository.RezervareRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RezervareServiceTest {
+
+    @Mock
+    private RezervareRepository rezervareRepository;
+
+    @Mock
+    private EmailOutboxService emailOutboxService;
+
+    @Mock
+    private BookingOccupancyIndex occupancyIndex;
+
+    @Mock
+    private SlotCapacityService slotCapacityService;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @InjectMocks
+    private RezervareService rezervareService;
+
+    private static Object[] hourlyCount(int year, int month, int day, int hour, long count) {
+        return new Object[]{year, month, day, hour, count};
+    }
+
+    @Test
+    void getCalendarDensityForMonth_ShouldIssueSingleQueryForWholeMonth() {
+        // Given
+        when(rezervareRepository.countBookingsPerHourBetween(any(), any())).thenReturn(new ArrayList<>());
+
+        // When
+        Map<String, Map<String, Object>> result = rezervareService.getCalendarDensityForMonth(2025, 3);
+
+        // Then
+        assertEquals(31, result.size());
+        verify(rezervareRepository, times(1)).countBookingsPerHourBetween(
+                LocalDateTime.of(2025, 3, 1, 0, 0), LocalDateTime.of(2025, 4, 1, 0, 0));
+        verify(rezervareRepository, never()).countBookingsByDateAndTimeInterval(any(), anyInt(), anyInt());
+    }
+
+    @Test
+    void getCalendarDensityForMonth_ShouldGroupHoursIntoTwoHourSlots() {
+        // Given
+        List<Object[]> rows = new ArrayList<>();
+        rows.add(hourlyCount(2025, 3, 10, 8, 1));
+        rows.add(hourlyCount(2025, 3, 10, 9, 1));   // same 08:00-10:00 slot -> full
+        rows.add(hourlyCount(2025, 3, 10, 14, 1));  // 14:00-16:00 slot -> partial
+        rows.add(hourlyCount(2025, 3, 10, 19, 3));  // outside the visiting hours
+        for (int hour = 8; hour < 18; hour += 2) {
+            rows.add(hourlyCount(2025, 3, 11, hour, 2));
+        }
+        when(rezervareRepository.countBookingsPerHourBetween(any(), any())).thenReturn(rows);
+
+        // When
+        Map<String, Map<String, Object>> result = rezervareService.getCalendarDensityForMonth(2025, 3);
+
+        // Then
+        Map<String, Object> partialDay = result.get("2025-03-10");
+        assertEquals("partial", partialDay.get("status"));
+        assertEquals(1, partialDay.get("fullSlots"));
+        assertEquals(1, partialDay.get("partialSlots"));
+        assertEquals(3, partialDay.get("emptySlots"));
+        assertEquals(7, partialDay.get("availableSlots"));
+        assertEquals(10, partialDay.get("totalSlots"));
+        @SuppressWarnings("unchecked")
+        Map<String, Integer> timeSlots = (Map<String, Integer>) partialDay.get("timeSlots");
+        assertEquals(2, timeSlots.get("08:00-10:00"));
+        assertEquals(1, timeSlots.get("14:00-16:00"));
+        assertEquals(0, timeSlots.get("16:00-18:00"));
+
+        assertEquals("full", result.get("2025-03-11").get("status"));
+        assertEquals(0, result.get("2025-03-11").get("availableSlots"));
+
+        assertEquals("available", result.get("2025-03-12").get("status"));
+        assertEquals(10, result.get("2025-03-12").get("availableSlots"));
+    }
+
+    @Test
+    void getBookingsCountByTimeSlots_ShouldReturnAllFiveSlots() {
+        // Given
+        LocalDate date = LocalDate.of(2025, 5, 20);
+        List<Object[]> rows = new ArrayList<>();
+        rows.add(hourlyCount(2025, 5, 20, 11, 1));
+        when(rezervareRepository.countBookingsPerHourBetween(date.atStartOfDay(), date.plusDays(1).atStartOfDay()))
+                .thenReturn(rows);
+
+        // When
+        Map<String, Integer> result = rezervareService.getBookingsCountByTimeSlots(date);
+
+        // Then
+        assertEquals(5, result.size());
+        assertEquals(1, result.get("10:00-12:00"));
+        assertEquals(0, result.get("08:00-10:00"));
+    }
+
+    @Test
+    void getCalendarDensityForMonth_ShouldUseOccupancyIndex_WhenReady() {
+        // Given
+        int[] hourlyCounts = new int[24];
+        hourlyCounts[10] = 1;
+        hourlyCounts[11] = 1;
+        when(occupancyIndex.isReady()).thenReturn(true);
+        when(occupancyIndex.getHourlyCounts(any())).thenReturn(new int[24]);
+        when(occupancyIndex.getHourlyCounts(LocalDate.of(2025, 2, 14))).thenReturn(hourlyCounts);
+
+        // When
+        Map<String, Map<String, Object>> result = rezervareService.getCalendarDensityForMonth(2025, 2);
+
+        // Then
+        assertEquals(28, result.size());
+        assertEquals("partial", result.get("2025-02-14").get("status"));
+        assertEquals(1, result.get("2025-02-14").get("fullSlots"));
+        assertEquals("available", result.get("2025-02-15").get("status"));
+        verifyNoInteractions(rezervareRepository);
+    }
+
+    @Test
+    void getBookingsCountForTimeInterval_ShouldUseOccupancyIndex_WhenReady() {
+        // Given
+        LocalDate date = LocalDate.of(2025, 5, 20);
+        when(occupancyIndex.isReady()).thenReturn(true);
+        when(occupancyIndex.countBookings(date, 8, 9)).thenReturn(2);
+
+        // When
+        int result = rezervareService.getBookingsCountForTimeInterval(date, 8, 9);
+
+        // Then
+        assertEquals(2, result);
+        verify(rezervareRepository, never()).countBookingsByDateAndTimeInterval(any(), anyInt(), anyInt());
+    }
+
+    @Test
+    void updateBooking_ShouldMoveBookingInOccupancyIndex() {
+        // Given
+        LocalDateTime previousDatetime = LocalDateTime.of(2025, 6, 1, 10, 0);
+        LocalDateTime newDatetime = LocalDateTime.of(2025, 6, 2, 14, 0);
+        Rezervare existing = new Rezervare();
+        existing.setId(7);
+        existing.setDatetime(previousDatetime);
+        Rezervare updated = new Rezervare();
+        updated.setId(7);
+        updated.setDatetime(newDatetime);
+        when(rezervareRepository.findByIdForUpdate(7)).thenReturn(Optional.of(existing));
+        when(rezervareRepository.save(updated)).thenReturn(updated);
+        runTransactionsInline();
+
+        // When
+        rezervareService.updateBooking(updated);
+
+        // Then
+        verify(occupancyIndex).removeBooking(previousDatetime);
+        verify(occupancyIndex).recordBooking(newDatetime);
+        verify(slotCapacityService).reserve(newDatetime);
+        verify(slotCapacityService).release(previousDatetime);
+    }
+
+    @Test
+    void updateBooking_ShouldKeepSlotPlace_WhenSlotIsUnchanged() {
+        // Given
+        LocalDateTime previousDatetime = LocalDateTime.of(2025, 6, 1, 10, 0);
+        LocalDateTime newDatetime = LocalDateTime.of(2025, 6, 1, 11, 30);
+        Rezervare existing = new Rezervare();
+        existing.setId(7);
+        existing.setDatetime(previousDatetime);
+        Rezervare updated = new Rezervare();
+        updated.setId(7);
+        updated.setDatetime(newDatetime);
+        when(rezervareRepository.findByIdForUpdate(7)).thenReturn(Optional.of(existing));
+        when(rezervareRepository.save(updated)).thenReturn(updated);
+        runTransactionsInline();
+
+        // When
+        rezervareService.updateBooking(updated);
+
+        // Then
+        verify(slotCapacityService, never()).reserve(any());
+        verify(slotCapacityService, never()).release(any());
+    }
+
+    @Test
+    void deleteBooking_ShouldNotReleaseSlot_WhenBookingIsAlreadyDeleted() {
+        // Given
+        when(rezervareRepository.findByIdForUpdate(7)).thenReturn(Optional.empty());
+
+        // When
+        rezervareService.deleteBooking(7);
+
+        // Then
+        verify(rezervareRepository, never()).delete(any());
+        verify(slotCapacityService, never()).release(any());
+        verify(occupancyIndex, never()).removeBooking(any());
+    }
+
+    @Test
+    void createBooking_ShouldNotSave_WhenSlotIsFull() {
+        // Given
+        LocalDateTime datetime = LocalDateTime.of(2025, 6, 1, 10, 0);
+        Rezervare booking = new Rezervare();
+        booking.setDatetime(datetime);
+        runTransactionsInline();
+        doThrow(new SlotFullException("complet")).when(slotCapacityService).reserve(datetime);
+
+        // When & Then
+        assertThrows(SlotFullException.class, () -> rezervareService.createBooking(booking));
+        verify(slotCapacityService).ensureSlot(datetime);
+        verify(rezervareRepository, never()).save(any());
+        verify(emailOutboxService, never()).enqueue(any(), any());
+    }
+
+    @SuppressWarnings("unchecked")
+    private void runTransactionsInline() {
+        doAnswer(invocation -> {
+            ((Consumer<Object>) invocation.getArgument(0)).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+    }
+}
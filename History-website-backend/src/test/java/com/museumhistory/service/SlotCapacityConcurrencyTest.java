@@ -0,0 +1,184 @@
+package com.museumhistory.service;
+
+import com.museumhistory.model.Rezervare;
+import com.museumhistory.repository.EmailOutboxRepository;
+import com.museumhistory.repository.RezervareRepository;
+import com.museumhistory.repository.SlotCapacityRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Own database, with a lock timeout long enough for hundreds of bookings queueing on one slot row
+@SpringBootTest(properties =
+        "spring.datasource.url=jdbc:h2:mem:slotcapacitytest;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE;LOCK_TIMEOUT=30000")
+@ActiveProfiles("test")
+class SlotCapacityConcurrencyTest {
+
+    private static final int PARALLEL_BOOKINGS = 300;
+
+    @Autowired
+    private RezervareService rezervareService;
+
+    @Autowired
+    private RezervareRepository rezervareRepository;
+
+    @Autowired
+    private SlotCapacityRepository slotCapacityRepository;
+
+    @Autowired
+    private EmailOutboxRepository emailOutboxRepository;
+
+    @BeforeEach
+    void setUp() {
+        emailOutboxRepository.deleteAll();
+        rezervareRepository.deleteAll();
+        slotCapacityRepository.deleteAll();
+    }
+
+    private static Rezervare booking(LocalDateTime datetime, int i) {
+        Rezervare rezervare = new Rezervare();
+        rezervare.setNume("Vizitator");
+        rezervare.setPrenume("Nr " + i);
+        rezervare.setEmail("vizitator" + i + "@test.com");
+        rezervare.setDatetime(datetime);
+        rezervare.setNumberOfPersons(1);
+        return rezervare;
+    }
+
+    @Test
+    void createBooking_ShouldNeverOverbook_UnderParallelBookingsOfOneSlot() throws Exception {
+        // Given
+        LocalDate date = LocalDate.of(2031, 5, 14);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> results = new ArrayList<>();
+
+        // When
+        try (ExecutorService executor = Executors.newFixedThreadPool(64)) {
+            for (int i = 0; i < PARALLEL_BOOKINGS; i++) {
+                // Spread over the whole 10:00-12:00 slot
+                Rezervare rezervare = booking(date.atTime(10 + i % 2, (i * 7) % 60), i);
+                results.add(executor.submit(() -> {
+                    start.await();
+                    rezervareService.createBooking(rezervare);
+                    return null;
+                }));
+            }
+            start.countDown();
+        }
+
+        // Then
+        int booked = 0;
+        for (Future<?> result : results) {
+            try {
+                result.get();
+                booked++;
+            } catch (ExecutionException e) {
+                assertInstanceOf(SlotFullException.class, e.getCause());
+            }
+        }
+        assertEquals(RezervareService.SLOT_CAPACITY, booked);
+        assertEquals(RezervareService.SLOT_CAPACITY,
+                rezervareRepository.countBookingsBetween(date.atTime(10, 0), date.atTime(12, 0)));
+        assertEquals(RezervareService.SLOT_CAPACITY, emailOutboxRepository.count());
+    }
+
+    @Test
+    void capacity_ShouldBeFreed_WhenABookingIsDeletedOrMoved() {
+        // Given
+        LocalDate date = LocalDate.of(2031, 5, 15);
+        Rezervare first = booking(date.atTime(14, 0), 1);
+        Rezervare second = booking(date.atTime(15, 0), 2);
+        rezervareService.createBooking(first);
+        rezervareService.createBooking(second);
+        assertThrows(SlotFullException.class, () -> rezervareService.createBooking(booking(date.atTime(14, 30), 3)));
+
+        // When
+        rezervareService.deleteBooking(first.getId());
+        rezervareService.createBooking(booking(date.atTime(14, 30), 4));
+        second.setDatetime(date.atTime(16, 0));
+        rezervareService.updateBooking(second);
+
+        // Then
+        rezervareService.createBooking(booking(date.atTime(15, 30), 5));
+        assertThrows(SlotFullException.class, () -> rezervareService.createBooking(booking(date.atTime(14, 45), 6)));
+    }
+
+    @Test
+    void slotCounters_ShouldMatchBookings_UnderParallelUpdatesAndDeletesOfOneBooking() throws Exception {
+        // Given
+        LocalDate date = LocalDate.of(2031, 5, 17);
+        List<Rezervare> bookings = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            Rezervare rezervare = booking(date.atTime(8, 0), i);
+            rezervareService.createBooking(rezervare);
+            bookings.add(rezervare);
+            // One booking per day, so no move below finds its slot full
+            date = date.plusDays(1);
+        }
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> results = new ArrayList<>();
+
+        // When
+        try (ExecutorService executor = Executors.newFixedThreadPool(16)) {
+            for (Rezervare rezervare : bookings) {
+                LocalDate day = rezervare.getDatetime().toLocalDate();
+                for (int j = 0; j < 4; j++) {
+                    Rezervare moved = booking(day.atTime(10 + 2 * j, 0), j);
+                    moved.setId(rezervare.getId());
+                    results.add(executor.submit(() -> {
+                        start.await();
+                        rezervareService.updateBooking(moved);
+                        return null;
+                    }));
+                    results.add(executor.submit(() -> {
+                        start.await();
+                        rezervareService.deleteBooking(rezervare.getId());
+                        return null;
+                    }));
+                }
+            }
+            start.countDown();
+        }
+
+        // Then
+        for (Future<?> result : results) {
+            try {
+                result.get();
+            } catch (ExecutionException e) {
+                // An update that lost the race against a delete finds no booking
+                assertInstanceOf(RuntimeException.class, e.getCause());
+            }
+        }
+        slotCapacityRepository.findAll().forEach(slot -> {
+            LocalDateTime slotStart = slot.getSlotDate().atTime(slot.getStartHour(), 0);
+            long actual = rezervareRepository.countBookingsBetween(
+                    slotStart, slotStart.plusHours(RezervareService.SLOT_LENGTH_HOURS));
+            assertEquals(actual, slot.getBooked().longValue(), "slot " + slotStart);
+        });
+    }
+
+    @Test
+    void ensureSlot_ShouldCountBookingsMadeBeforeSlotsWereTracked() {
+        // Given
+        LocalDateTime datetime = LocalDateTime.of(2031, 5, 16, 8, 30);
+        rezervareRepository.save(booking(datetime, 1));
+        rezervareRepository.save(booking(datetime.plusMinutes(30), 2));
+
+        // When & Then
+        assertThrows(SlotFullException.class, () -> rezervareService.createBooking(booking(datetime, 3)));
+    }
+}
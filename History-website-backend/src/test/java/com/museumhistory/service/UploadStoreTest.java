@@ -0,0 +1,120 @@
+package com.museumhistory.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UploadStoreTest {
+
+    @TempDir
+    Path uploadDir;
+
+    private UploadStore uploadStore;
+
+    @BeforeEach
+    void setUp() {
+        uploadStore = new UploadStore();
+        ReflectionTestUtils.setField(uploadStore, "uploadDir", uploadDir.toString());
+    }
+
+    private UploadStore.StoredUpload store(String content, String filename, List<String> registered) throws Exception {
+        return uploadStore.store(new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)),
+                filename, registered::add);
+    }
+
+    @Test
+    void store_ShouldPlaceFileUnderItsShardedDigest() throws Exception {
+        // Given
+        List<String> registered = new ArrayList<>();
+
+        // When
+        UploadStore.StoredUpload stored = store("arhiva", "Scan Vechi.JPG", registered);
+
+        // Then
+        String digest = stored.digest();
+        assertEquals(64, digest.length());
+        assertEquals(digest.substring(0, 2) + "/" + digest.substring(2, 4) + "/" + digest + ".jpg", stored.path());
+        assertEquals(List.of(stored.path()), registered);
+        assertFalse(stored.deduplicated());
+        assertEquals("arhiva", Files.readString(uploadDir.resolve(stored.path())));
+    }
+
+    @Test
+    void store_ShouldReuseExistingFile_WhenContentIsIdentical() throws Exception {
+        // Given
+        List<String> registered = new ArrayList<>();
+        UploadStore.StoredUpload first = store("aceeasi fotografie", "a.jpg", registered);
+
+        // When
+        UploadStore.StoredUpload second = store("aceeasi fotografie", "b.jpg", registered);
+
+        // Then
+        assertEquals(first.path(), second.path());
+        assertTrue(second.deduplicated());
+        assertEquals(2, registered.size());
+        try (var tempFiles = Files.list(uploadDir.resolve(".tmp"))) {
+            assertEquals(0, tempFiles.count());
+        }
+    }
+
+    @Test
+    void commit_ShouldKeepTempFile_WhenRegisterFails() throws Exception {
+        // Given
+        UploadStore.ReceivedUpload upload = uploadStore.receive(
+                new ByteArrayInputStream("de reluat".getBytes(StandardCharsets.UTF_8)), "scan.jpg");
+
+        // When
+        assertThrows(IllegalStateException.class, () -> uploadStore.commit(upload, path -> {
+            throw new IllegalStateException("save failed");
+        }));
+
+        // Then
+        assertEquals("de reluat", Files.readString(upload.tempFile()));
+        List<String> registered = new ArrayList<>();
+        UploadStore.StoredUpload stored = uploadStore.commit(upload, registered::add);
+        assertEquals(List.of(stored.path()), registered);
+        assertEquals("de reluat", Files.readString(uploadDir.resolve(stored.path())));
+        assertFalse(Files.exists(upload.tempFile()));
+    }
+
+    @Test
+    void release_ShouldKeepFile_WhileStillReferenced() throws Exception {
+        // Given
+        UploadStore.StoredUpload stored = store("continut", "poza.png", new ArrayList<>());
+
+        // When
+        boolean deleted = uploadStore.release(stored.path(), () -> true);
+
+        // Then
+        assertFalse(deleted);
+        assertTrue(Files.exists(uploadDir.resolve(stored.path())));
+    }
+
+    @Test
+    void release_ShouldDeleteFile_WhenLastReferenceIsGone() throws Exception {
+        // Given
+        UploadStore.StoredUpload stored = store("continut", "poza.png", new ArrayList<>());
+
+        // When
+        boolean deleted = uploadStore.release(stored.path(), () -> false);
+
+        // Then
+        assertTrue(deleted);
+        assertFalse(Files.exists(uploadDir.resolve(stored.path())));
+    }
+
+    @Test
+    void resolve_ShouldRejectPathsOutsideUploadDirectory() {
+        assertThrows(IllegalArgumentException.class, () -> uploadStore.resolve("../application.properties"));
+    }
+}
@@ -0,0 +1,91 @@
+package com.museumhistory.service.email;
+
+import com.museumhistory.model.Rezervare;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EmailTemplateRendererTest {
+
+    private EmailTemplateRenderer renderer;
+    private Rezervare rezervare;
+
+    @BeforeEach
+    void setUp() {
+        renderer = new EmailTemplateRenderer();
+        renderer.loadTemplates();
+
+        rezervare = new Rezervare();
+        rezervare.setNume("Popescu");
+        rezervare.setPrenume("Ana");
+        rezervare.setEmail("ana@example.com");
+        rezervare.setDatetime(LocalDateTime.of(2025, 7, 1, 10, 30));
+        rezervare.setNumberOfPersons(4);
+        rezervare.setAgeGroup("SENIORI");
+        rezervare.setGuideRequired(true);
+    }
+
+    @Test
+    void render_ShouldFillAllApprovalSlots() {
+        // When
+        String html = renderer.render(EmailTemplateType.APPROVAL, new EmailContext(rezervare, "Muzeul Test", "contact@muzeu.ro"));
+
+        // Then
+        assertTrue(html.contains("<strong>Popescu Ana</strong>"));
+        assertTrue(html.contains("<strong>Numărul de persoane:</strong> 4"));
+        assertTrue(html.contains("Seniori (65+ ani)"));
+        assertTrue(html.contains("<strong>Ghid inclus:</strong> Da"));
+        assertTrue(html.contains("contact@muzeu.ro"));
+        assertFalse(html.contains("{{"));
+    }
+
+    @Test
+    void render_ShouldEscapeUserProvidedValues() {
+        // Given
+        rezervare.setNume("<script>alert('x')</script>");
+
+        // When
+        String html = renderer.render(EmailTemplateType.APPROVAL, new EmailContext(rezervare, "Muzeul Test", "contact@muzeu.ro"));
+
+        // Then
+        assertFalse(html.contains("<script>"));
+        assertTrue(html.contains("&lt;script&gt;alert(&#39;x&#39;)&lt;/script&gt;"));
+    }
+
+    @Test
+    void render_ShouldLoadReminderAndCancellationTemplates() {
+        // When
+        String reminder = renderer.render(EmailTemplateType.REMINDER, new EmailContext(rezervare, "Muzeul Test", "contact@muzeu.ro"));
+        String cancellation = renderer.render(EmailTemplateType.CANCELLATION, new EmailContext(rezervare, "Muzeul Test", "contact@muzeu.ro"));
+
+        // Then
+        assertTrue(reminder.contains("Popescu Ana"));
+        assertTrue(cancellation.contains("anulată"));
+    }
+
+    @Test
+    void parse_ShouldRejectUnknownPlaceholders() {
+        // When & Then
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> EmailTemplate.parse("<p>{{necunoscut}}</p>"));
+        assertTrue(exception.getMessage().contains("necunoscut"));
+    }
+
+    @Test
+    void parse_ShouldKeepTemplatesWithoutPlaceholders() {
+        // Given
+        EmailTemplate template = EmailTemplate.parse("<p>fara sloturi</p>");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // When
+        template.renderTo(new EmailContext(rezervare, "Muzeul Test", "contact@muzeu.ro"), out);
+
+        // Then
+        assertEquals("<p>fara sloturi</p>", out.toString(StandardCharsets.UTF_8));
+    }
+}